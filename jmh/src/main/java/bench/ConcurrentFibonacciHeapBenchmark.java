@@ -0,0 +1,98 @@
+package bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ConcurrentFibonacciHeapBenchmark
+ * <p>
+ * Throughput of a shared heap under a mixed workload (insert, insert, findMin, deleteMin per operation
+ * pair) for ConcurrentFibonacciHeap and for a FibonacciHeap behind one global lock, the baseline.
+ * <p>
+ * {@code java -cp jmh/target/benchmarks.jar bench.ConcurrentFibonacciHeapBenchmark} runs both with 1, 2, 4
+ * and 8 threads, so the scores show how each scales with the core count.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConcurrentFibonacciHeapBenchmark {
+
+    static final int INITIAL_SIZE = 100_000;
+
+    @State(Scope.Benchmark)
+    public static class SharedHeaps {
+        ConcurrentFibonacciHeap concurrent;
+        FibonacciHeap locked;
+
+        @Setup(Level.Iteration)
+        public void fill() {
+            concurrent = new ConcurrentFibonacciHeap();
+            locked = new FibonacciHeap();
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int i = 0; i < INITIAL_SIZE; i++) {
+                int key = random.nextInt(1 << 30);
+                concurrent.insert(key);
+                locked.insert(key);
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Turn {
+        int op;
+    }
+
+    @Benchmark
+    public int concurrentMixed(SharedHeaps heaps, Turn turn) {
+        ConcurrentFibonacciHeap heap = heaps.concurrent;
+        if ((turn.op++ & 1) == 0) {
+            heap.insert(ThreadLocalRandom.current().nextInt(1 << 30));
+            return heap.findMinKey();
+        }
+        heap.insert(ThreadLocalRandom.current().nextInt(1 << 30));
+        return heap.deleteMin();
+    }
+
+    @Benchmark
+    public int lockedMixed(SharedHeaps heaps, Turn turn) {
+        FibonacciHeap heap = heaps.locked;
+        int key = ThreadLocalRandom.current().nextInt(1 << 30);
+        synchronized (heap) {
+            heap.insert(key);
+            if ((turn.op++ & 1) == 0) {
+                return heap.findMin().getKey();
+            }
+            int min = heap.findMin().getKey();
+            heap.deleteMin();
+            return min;
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        for (int threads : new int[]{1, 2, 4, 8}) {
+            Options options = new OptionsBuilder()
+                    .include(ConcurrentFibonacciHeapBenchmark.class.getSimpleName())
+                    .threads(threads)
+                    .build();
+            new Runner(options).run();
+        }
+    }
+}
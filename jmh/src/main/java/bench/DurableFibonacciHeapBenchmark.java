@@ -0,0 +1,100 @@
+package bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * DurableFibonacciHeapBenchmark
+ * <p>
+ * Operations per second of a DurableFibonacciHeap for each FsyncPolicy, against the same workload on an
+ * IndexedFibonacciHeap, which keeps nothing on disk. An invocation is one insert and one deleteMin on a heap
+ * of HEAP_SIZE entries, counted as 2 operations.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DurableFibonacciHeapBenchmark {
+
+    static final int HEAP_SIZE = 100_000;
+
+    @State(Scope.Thread)
+    public static class Heaps {
+        @Param({"ALWAYS", "BATCH", "NEVER"})
+        public DurableFibonacciHeap.FsyncPolicy policy;
+
+        @Param({"256"})
+        public int batchSize;
+
+        Path directory;
+        DurableFibonacciHeap durable;
+        IndexedFibonacciHeap inMemory;
+        Random random;
+        int durableFree = HEAP_SIZE; // the one id not in the heap, freed again by every deleteMin
+        int inMemoryFree = HEAP_SIZE;
+
+        @Setup(Level.Trial)
+        public void open() throws IOException {
+            directory = Files.createTempDirectory("durable-heap-benchmark");
+            durable = new DurableFibonacciHeap(directory, HEAP_SIZE + 1, policy, batchSize,
+                    DurableFibonacciHeap.DEFAULT_SEGMENT_BYTES);
+            inMemory = new IndexedFibonacciHeap(HEAP_SIZE + 1);
+            random = new Random(42L);
+            for (int id = 0; id < HEAP_SIZE; id++) {
+                int key = random.nextInt(1 << 30);
+                durable.insert(id, key);
+                inMemory.insert(id, key);
+            }
+            durable.checkpoint();
+        }
+
+        @TearDown(Level.Trial)
+        public void close() throws IOException {
+            durable.close();
+            try (Stream<Path> files = Files.walk(directory)) {
+                for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                    Files.delete(file);
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(2)
+    public int durable(Heaps heaps) throws IOException {
+        DurableFibonacciHeap heap = heaps.durable;
+        heap.insert(heaps.durableFree, heaps.random.nextInt(1 << 30));
+        heaps.durableFree = heap.deleteMin();
+        return heaps.durableFree;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(2)
+    public int inMemory(Heaps heaps) {
+        IndexedFibonacciHeap heap = heaps.inMemory;
+        heap.insert(heaps.inMemoryFree, heaps.random.nextInt(1 << 30));
+        heaps.inMemoryFree = heap.deleteMin();
+        return heaps.inMemoryFree;
+    }
+}
@@ -0,0 +1,86 @@
+package bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ExternalPriorityQueueBenchmark
+ * <p>
+ * Time to insert KEYS random keys and delete them all again, for an ExternalPriorityQueue holding
+ * memoryLimit keys in memory and for a FibonacciHeap holding all of them, the in-memory baseline.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ExternalPriorityQueueBenchmark {
+
+    static final int KEYS = 2_000_000;
+
+    @State(Scope.Thread)
+    public static class Spill {
+        @Param({"65536", "524288"})
+        public int memoryLimit;
+
+        int[] keys;
+        Path directory;
+
+        @Setup(Level.Trial)
+        public void generate() throws IOException {
+            keys = new Random(42L).ints(KEYS).toArray();
+            directory = Files.createTempDirectory("external-queue-benchmark");
+        }
+
+        @TearDown(Level.Trial)
+        public void delete() throws IOException {
+            Files.deleteIfExists(directory);
+        }
+    }
+
+    @Benchmark
+    public long external(Spill spill) {
+        long sum = 0;
+        try (ExternalPriorityQueue queue = new ExternalPriorityQueue(spill.directory, spill.memoryLimit)) {
+            for (int key : spill.keys) {
+                queue.insert(key);
+            }
+            while (!queue.isEmpty()) {
+                sum += queue.findMin();
+                queue.deleteMin();
+            }
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long inMemory(Spill spill) {
+        long sum = 0;
+        FibonacciHeap heap = new FibonacciHeap();
+        for (int key : spill.keys) {
+            heap.insert(key);
+        }
+        while (!heap.isEmpty()) {
+            sum += heap.findMin().getKey();
+            heap.deleteMin();
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,461 @@
+package bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * FibonacciHeapBenchmark
+ * <p>
+ * JMH benchmarks for the FibonacciHeap operations. Every benchmark works on a freshly built heap, so a
+ * single invocation measures a whole batch of operations (heapSize of them unless stated otherwise).
+ * <p>
+ * Build the suite with {@code mvn -f jmh/pom.xml package} (see jmh/pom.xml for how the heaps get into
+ * package bench), then run {@code java -cp jmh/target/benchmarks.jar bench.FibonacciHeapBenchmark}, which
+ * enables the GC profiler to report allocation rates, or the JMH main class with
+ * {@code java -jar jmh/target/benchmarks.jar FibonacciHeapBenchmark -prof gc}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FibonacciHeapBenchmark {
+
+    /**
+     * Key orders used to fill the benchmarked heaps.
+     */
+    public enum KeyDistribution {
+        RANDOM, ASCENDING, DESCENDING, FEW_UNIQUE;
+
+        int[] keys(int size, long seed) {
+            int[] keys = new int[size];
+            Random random = new Random(seed);
+            for (int i = 0; i < size; i++) {
+                switch (this) {
+                    case ASCENDING:
+                        keys[i] = i;
+                        break;
+                    case DESCENDING:
+                        keys[i] = size - i;
+                        break;
+                    case FEW_UNIQUE:
+                        keys[i] = random.nextInt(16);
+                        break;
+                    default:
+                        keys[i] = random.nextInt(1 << 30);
+                }
+            }
+            return keys;
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Keys {
+
+        @Param({"1000", "100000", "1000000"})
+        public int heapSize;
+
+        @Param({"RANDOM", "ASCENDING", "DESCENDING", "FEW_UNIQUE"})
+        public KeyDistribution distribution;
+
+        int[] keys;
+
+        @Setup(Level.Trial)
+        public void generate() {
+            keys = distribution.keys(heapSize, 42L);
+        }
+
+        FibonacciHeap.HeapNode[] fill(FibonacciHeap heap) {
+            FibonacciHeap.HeapNode[] nodes = new FibonacciHeap.HeapNode[keys.length];
+            for (int i = 0; i < keys.length; i++) {
+                nodes[i] = heap.insert(keys[i]);
+            }
+            return nodes;
+        }
+    }
+
+    /**
+     * A heap rebuilt before every invocation, consolidated once so that it holds real trees.
+     */
+    @State(Scope.Thread)
+    public static class FilledHeap {
+        FibonacciHeap heap;
+        FibonacciHeap.HeapNode[] nodes;
+        int[] order;
+
+        @Setup(Level.Invocation)
+        public void fill(Keys keys) {
+            heap = new FibonacciHeap();
+            nodes = keys.fill(heap);
+            heap.consolidate();
+            if (order == null || order.length != nodes.length) {
+                order = shuffledIndexes(nodes.length, 7L);
+            }
+        }
+    }
+
+    /**
+     * A heap holding only singleton roots, as left behind by a burst of inserts.
+     */
+    @State(Scope.Thread)
+    public static class UnconsolidatedHeap {
+        FibonacciHeap heap;
+
+        @Setup(Level.Invocation)
+        public void fill(Keys keys) {
+            heap = new FibonacciHeap();
+            keys.fill(heap);
+        }
+    }
+
+    /**
+     * A large heap filled once per trial and already consolidated, for measuring deleteMin calls in steady
+     * state. It holds enough keys for every warmup and measurement batch, so no iteration allocates nodes
+     * and -prof gc only sees what deleteMin itself allocates.
+     */
+    @State(Scope.Thread)
+    public static class SteadyStateHeap {
+        static final int BATCH = 100_000;
+        static final int ITERATIONS = 10;
+
+        FibonacciHeap heap;
+
+        @Setup(Level.Trial)
+        public void fill() {
+            heap = new FibonacciHeap();
+            int[] keys = KeyDistribution.RANDOM.keys(BATCH * (2 * ITERATIONS + 1), 42L);
+            for (int key : keys) {
+                heap.insert(key);
+            }
+            heap.deleteMin();
+        }
+    }
+
+    /**
+     * Alternates bursts of inserts with bursts of deleteMin calls on a heap of about BASE keys. After every
+     * insert burst an EAGER heap links the whole burst inside one deleteMin, so with bursts of 400 that
+     * call lands above the 99.9th percentile.
+     */
+    @State(Scope.Thread)
+    public static class BurstHeap {
+        static final int BASE = 100_000;
+
+        @Param({"EAGER", "INCREMENTAL"})
+        public FibonacciHeap.ConsolidationMode mode;
+
+        @Param({"400", "4000"})
+        public int burst;
+
+        FibonacciHeap heap;
+        int[] keys;
+        int op;
+
+        @Setup(Level.Iteration)
+        public void fill() {
+            heap = new FibonacciHeap(mode);
+            keys = KeyDistribution.RANDOM.keys(BASE + burst, 42L);
+            heap.insertAll(keys, 0, BASE);
+            heap.consolidate();
+            op = 0;
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class MeldHeaps {
+        FibonacciHeap heap1;
+        FibonacciHeap heap2;
+
+        @Setup(Level.Invocation)
+        public void fill(Keys keys) {
+            heap1 = new FibonacciHeap();
+            heap2 = new FibonacciHeap();
+            for (int i = 0; i < keys.keys.length; i++) {
+                (i % 2 == 0 ? heap1 : heap2).insert(keys.keys[i]);
+            }
+        }
+    }
+
+    /**
+     * The keys dealt round-robin over WORKERS heaps, one per worker of a map-reduce style pipeline.
+     */
+    @State(Scope.Thread)
+    public static class WorkerHeaps {
+        static final int WORKERS = 16;
+
+        List<FibonacciHeap> heaps;
+
+        @Setup(Level.Invocation)
+        public void fill(Keys keys) {
+            heaps = new ArrayList<>();
+            for (int w = 0; w < WORKERS; w++) {
+                heaps.add(new FibonacciHeap());
+            }
+            for (int i = 0; i < keys.keys.length; i++) {
+                heaps.get(i % WORKERS).insert(keys.keys[i]);
+            }
+        }
+    }
+
+    /**
+     * A single binomial tree of 2^16 keys, left by the first deleteMin, so kMin starts from one root.
+     */
+    @State(Scope.Thread)
+    public static class KMinHeap {
+
+        @Param({"16", "1024"})
+        public int k;
+
+        @Param({"RANDOM", "ASCENDING", "DESCENDING", "FEW_UNIQUE"})
+        public KeyDistribution distribution;
+
+        FibonacciHeap heap;
+
+        @Setup(Level.Trial)
+        public void fill() {
+            heap = new FibonacciHeap();
+            for (int key : distribution.keys((1 << 16) + 1, 42L)) {
+                heap.insert(key);
+            }
+            heap.deleteMin();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class PollBatch {
+        @Param({"16", "256"})
+        public int k;
+
+        int[] out;
+
+        @Setup(Level.Trial)
+        public void allocate() {
+            out = new int[k];
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class FirstMeasurementSize {
+        @Param({"32", "1024", "4096"})
+        public int m;
+    }
+
+    @State(Scope.Thread)
+    public static class SecondMeasurementSize {
+        @Param({"1000", "2000", "3000"})
+        public int m;
+    }
+
+    private static int[] shuffledIndexes(int size, long seed) {
+        int[] order = new int[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        Random random = new Random(seed);
+        for (int i = size - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int temp = order[i];
+            order[i] = order[j];
+            order[j] = temp;
+        }
+        return order;
+    }
+
+    @Benchmark
+    public FibonacciHeap insert(Keys keys) {
+        FibonacciHeap heap = new FibonacciHeap();
+        keys.fill(heap);
+        return heap;
+    }
+
+    /**
+     * Same keys as insert, loaded with one insertAll call; compare the two scores for the bulk speedup.
+     */
+    @Benchmark
+    public FibonacciHeap insertAll(Keys keys) {
+        FibonacciHeap heap = new FibonacciHeap();
+        heap.insertAll(keys.keys, 0, keys.keys.length);
+        return heap;
+    }
+
+    /**
+     * Same keys built on the common pool, without and with consolidating the chunks; compare the first
+     * with insertAll for the parallel speedup, which grows with the core count.
+     */
+    @Benchmark
+    public FibonacciHeap buildParallel(Keys keys) {
+        return FibonacciHeap.buildParallel(keys.keys, ForkJoinPool.commonPool(), false);
+    }
+
+    @Benchmark
+    public FibonacciHeap buildParallelConsolidated(Keys keys) {
+        return FibonacciHeap.buildParallel(keys.keys, ForkJoinPool.commonPool(), true);
+    }
+
+    @Benchmark
+    public FibonacciHeap deleteMin(FilledHeap state) {
+        FibonacciHeap heap = state.heap;
+        while (!heap.isEmpty()) {
+            heap.deleteMin();
+        }
+        return heap;
+    }
+
+    /**
+     * Drains the same heap as deleteMin in batches of k; compare the two scores for the batching gain.
+     */
+    @Benchmark
+    public FibonacciHeap pollMin(FilledHeap state, PollBatch batch) {
+        FibonacciHeap heap = state.heap;
+        while (!heap.isEmpty()) {
+            heap.pollMin(batch.k, batch.out);
+        }
+        return heap;
+    }
+
+    /**
+     * deleteMin on a consolidated heap, BATCH calls per operation. With -prof gc, gc.alloc.rate.norm is the
+     * number of bytes a whole batch allocates.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = SteadyStateHeap.ITERATIONS, batchSize = SteadyStateHeap.BATCH)
+    @Measurement(iterations = SteadyStateHeap.ITERATIONS, batchSize = SteadyStateHeap.BATCH)
+    public FibonacciHeap deleteMinSteadyState(SteadyStateHeap state) {
+        state.heap.deleteMin();
+        return state.heap;
+    }
+
+    /**
+     * Latency of single operations under bursty traffic; compare the p99.9 of the EAGER and INCREMENTAL
+     * modes, whose averages are about the same.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public FibonacciHeap burstTail(BurstHeap state) {
+        FibonacciHeap heap = state.heap;
+        int i = state.op++ % (2 * state.burst);
+        if (i < state.burst) {
+            heap.insert(state.keys[BurstHeap.BASE + i]);
+        } else {
+            heap.deleteMin();
+        }
+        return heap;
+    }
+
+    @Benchmark
+    public FibonacciHeap decreaseKey(FilledHeap state) {
+        FibonacciHeap heap = state.heap;
+        for (int i : state.order) {
+            heap.decreaseKey(state.nodes[i], 1);
+        }
+        return heap;
+    }
+
+    @Benchmark
+    public FibonacciHeap delete(FilledHeap state) {
+        FibonacciHeap heap = state.heap;
+        for (int i : state.order) {
+            heap.delete(state.nodes[i]);
+        }
+        return heap;
+    }
+
+    @Benchmark
+    public FibonacciHeap meld(MeldHeaps state) {
+        state.heap1.meld(state.heap2);
+        return state.heap1;
+    }
+
+    @Benchmark
+    public FibonacciHeap meldSequential(WorkerHeaps state) {
+        FibonacciHeap heap = new FibonacciHeap();
+        for (FibonacciHeap worker : state.heaps) {
+            heap.meld(worker);
+        }
+        return heap;
+    }
+
+    @Benchmark
+    public FibonacciHeap meldAll(WorkerHeaps state) {
+        return FibonacciHeap.meldAll(state.heaps);
+    }
+
+    @Benchmark
+    public int[] kMin(KMinHeap state) {
+        return FibonacciHeap.kMin(state.heap, state.k);
+    }
+
+    @Benchmark
+    public int consolidate(UnconsolidatedHeap state) {
+        return state.heap.consolidate();
+    }
+
+    /**
+     * Same scenario as FiboMeasurements.firstMeasurement for a single m: m+1 descending inserts, one
+     * deleteMin and a chain of decreaseKey calls producing cascading cuts.
+     */
+    @Benchmark
+    public void firstMeasurement(FirstMeasurementSize size, Blackhole bh) {
+        int m = size.m;
+        FibonacciHeap.HeapNode[] nodes = new FibonacciHeap.HeapNode[m + 1];
+        FibonacciHeap heap = new FibonacciHeap();
+        for (int j = m; j >= 0; j--) {
+            nodes[j] = heap.insert(j);
+        }
+        heap.deleteMin();
+        for (int j = 0; j <= FiboMeasurements.log2(m) - 2; j++) {
+            int nodeIndex = (int) Math.floor(m * FiboMeasurements.geomSum(0.5, j) + 2);
+            heap.decreaseKey(nodes[nodeIndex], 150);
+        }
+        heap.decreaseKey(nodes[m - 1], 10);
+        bh.consume(heap.potential());
+    }
+
+    /**
+     * Same scenario as FiboMeasurements.secondMeasurement for a single m: m descending inserts
+     * followed by m/2 deleteMin calls.
+     */
+    @Benchmark
+    public void secondMeasurement(SecondMeasurementSize size, Blackhole bh) {
+        int m = size.m;
+        FibonacciHeap heap = new FibonacciHeap();
+        for (int j = m - 1; j >= 0; j--) {
+            heap.insert(j);
+        }
+        for (int j = 0; j < m / 2; j++) {
+            heap.deleteMin();
+        }
+        bh.consume(heap.potential());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(FibonacciHeapBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
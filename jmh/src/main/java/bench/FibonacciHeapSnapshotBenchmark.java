@@ -0,0 +1,75 @@
+package bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * FibonacciHeapSnapshotBenchmark
+ * <p>
+ * Time until a restarted heap answers its first deleteMin: restoring the trees from a snapshot, against
+ * re-inserting every key, whose first deleteMin consolidates them all.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+public class FibonacciHeapSnapshotBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Snapshot {
+        @Param({"100000", "1000000"})
+        public int heapSize;
+
+        int[] keys;
+        Path file;
+
+        @Setup(Level.Trial)
+        public void write() throws IOException {
+            keys = new Random(42L).ints(heapSize).toArray();
+            FibonacciHeap heap = new FibonacciHeap();
+            heap.insertAll(keys, 0, keys.length);
+            heap.deleteMin();
+            heap.insert(keys[0]);
+            file = Files.createTempFile("heap", ".snapshot");
+            FibonacciHeapSnapshot.write(heap, file);
+        }
+
+        @TearDown(Level.Trial)
+        public void delete() throws IOException {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Benchmark
+    public FibonacciHeap restore(Snapshot snapshot) throws IOException {
+        FibonacciHeap heap = FibonacciHeapSnapshot.read(snapshot.file);
+        heap.deleteMin();
+        return heap;
+    }
+
+    @Benchmark
+    public FibonacciHeap reinsert(Snapshot snapshot) {
+        FibonacciHeap heap = new FibonacciHeap();
+        heap.insertAll(snapshot.keys, 0, snapshot.keys.length);
+        heap.deleteMin();
+        return heap;
+    }
+}
@@ -0,0 +1,183 @@
+package bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GraphBenchmark
+ * <p>
+ * Dijkstra, Prim and A* from GraphAlgorithms, which improve vertices in place with decreaseKey, against the
+ * usual java.util.PriorityQueue versions with lazy deletion: every improvement adds a new (key, vertex)
+ * entry and stale entries are skipped when polled, so that queue holds up to E entries.
+ * <p>
+ * Dijkstra runs on a random graph of vertices vertices with degree random out-edges each; Prim on the same
+ * graph stored undirected; A* on a square grid of about vertices vertices, corner to corner, with the
+ * manhattan heuristic.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class GraphBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Graphs {
+        @Param({"100000", "1000000"})
+        public int vertices;
+
+        @Param({"4", "16"})
+        public int degree;
+
+        CsrGraph directed;
+        CsrGraph undirected;
+        CsrGraph grid;
+        int side;
+
+        @Setup(Level.Trial)
+        public void generate() {
+            directed = CsrGraph.random(vertices, degree, 1000, 42L);
+            int[] sources = new int[directed.edges()];
+            int[] targets = new int[directed.edges()];
+            int[] weights = new int[directed.edges()];
+            for (int u = 0; u < vertices; u++) {
+                for (int e = directed.firstEdge(u); e < directed.firstEdge(u + 1); e++) {
+                    sources[e] = u;
+                    targets[e] = directed.target(e);
+                    weights[e] = directed.weight(e);
+                }
+            }
+            undirected = CsrGraph.fromEdges(vertices, sources, targets, weights, sources.length, true);
+            side = (int) Math.sqrt(vertices);
+            grid = CsrGraph.grid(side, side, 9, 42L);
+        }
+    }
+
+    @Benchmark
+    public int[] dijkstraFibonacci(Graphs graphs) {
+        return GraphAlgorithms.dijkstra(graphs.directed, 0);
+    }
+
+    @Benchmark
+    public int[] dijkstraPriorityQueue(Graphs graphs) {
+        CsrGraph graph = graphs.directed;
+        int[] dist = new int[graph.vertices()];
+        Arrays.fill(dist, GraphAlgorithms.INFINITY);
+        dist[0] = 0;
+        // entries are key << 32 | vertex, so the queue compares keys first
+        PriorityQueue<Long> queue = new PriorityQueue<>();
+        queue.add(0L);
+        while (!queue.isEmpty()) {
+            long entry = queue.poll();
+            int u = (int) entry;
+            int du = (int) (entry >>> 32);
+            if (du > dist[u]) {
+                continue;
+            }
+            for (int e = graph.firstEdge(u), end = graph.firstEdge(u + 1); e < end; e++) {
+                int v = graph.target(e);
+                long candidate = (long) du + graph.weight(e);
+                if (candidate < dist[v]) {
+                    dist[v] = (int) candidate;
+                    queue.add(candidate << 32 | v);
+                }
+            }
+        }
+        return dist;
+    }
+
+    @Benchmark
+    public long primFibonacci(Graphs graphs) {
+        return GraphAlgorithms.prim(graphs.undirected, null);
+    }
+
+    @Benchmark
+    public long primPriorityQueue(Graphs graphs) {
+        CsrGraph graph = graphs.undirected;
+        int n = graph.vertices();
+        int[] key = new int[n];
+        Arrays.fill(key, GraphAlgorithms.INFINITY);
+        boolean[] inTree = new boolean[n];
+        PriorityQueue<Long> queue = new PriorityQueue<>();
+        long total = 0;
+        for (int root = 0; root < n; root++) {
+            if (inTree[root]) {
+                continue;
+            }
+            key[root] = 0;
+            queue.add((long) root);
+            while (!queue.isEmpty()) {
+                long entry = queue.poll();
+                int u = (int) entry;
+                if (inTree[u]) {
+                    continue;
+                }
+                inTree[u] = true;
+                total += entry >>> 32;
+                for (int e = graph.firstEdge(u), end = graph.firstEdge(u + 1); e < end; e++) {
+                    int v = graph.target(e);
+                    int w = graph.weight(e);
+                    if (!inTree[v] && w < key[v]) {
+                        key[v] = w;
+                        queue.add((long) w << 32 | v);
+                    }
+                }
+            }
+        }
+        return total;
+    }
+
+    @Benchmark
+    public int aStarFibonacci(Graphs graphs) {
+        int side = graphs.side;
+        int target = side * side - 1;
+        return GraphAlgorithms.aStar(graphs.grid, 0, target, v -> (side - 1 - v % side) + (side - 1 - v / side));
+    }
+
+    @Benchmark
+    public int aStarPriorityQueue(Graphs graphs) {
+        CsrGraph graph = graphs.grid;
+        int side = graphs.side;
+        int target = side * side - 1;
+        int[] dist = new int[graph.vertices()];
+        Arrays.fill(dist, GraphAlgorithms.INFINITY);
+        boolean[] closed = new boolean[graph.vertices()];
+        dist[0] = 0;
+        PriorityQueue<Long> queue = new PriorityQueue<>();
+        queue.add((long) (2 * (side - 1)) << 32);
+        while (!queue.isEmpty()) {
+            int u = (int) (long) queue.poll();
+            if (closed[u]) {
+                continue;
+            }
+            if (u == target) {
+                return dist[u];
+            }
+            closed[u] = true;
+            for (int e = graph.firstEdge(u), end = graph.firstEdge(u + 1); e < end; e++) {
+                int v = graph.target(e);
+                int candidate = dist[u] + graph.weight(e);
+                if (!closed[v] && candidate < dist[v]) {
+                    dist[v] = candidate;
+                    long f = candidate + (side - 1 - v % side) + (side - 1 - v / side);
+                    queue.add(f << 32 | v);
+                }
+            }
+        }
+        return GraphAlgorithms.INFINITY;
+    }
+}
@@ -0,0 +1,178 @@
+package bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * IntPriorityQueueBenchmark
+ * <p>
+ * Ranks the IntPriorityQueue implementations per workload. Every benchmark runs the same generic code for
+ * each value of implementation, so the scores of one benchmark method compare the heaps directly:
+ * <ul>
+ * <li>sort: insert SIZE random keys, then deleteMin them all</li>
+ * <li>decreaseKeys: insert SIZE keys, decrease each of them 4 times, then deleteMin them all</li>
+ * <li>dijkstra: shortest paths on a random graph of 2^16 vertices with 8 out-edges each, one insert and
+ * up to one decreaseKey per edge</li>
+ * <li>holdModel: SIZE keys in the queue, then SIZE rounds of deleteMin and inserting the minimum plus a
+ * random increment, as in an event simulation</li>
+ * </ul>
+ * All workloads are monotone, so RadixHeap runs them too.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IntPriorityQueueBenchmark {
+
+    static final int SIZE = 1_000_000;
+
+    /*dijkstra keys are distance << VERTEX_BITS | vertex, so the minimum tells its vertex*/
+    static final int VERTEX_BITS = 16;
+    static final int VERTEX_MASK = (1 << VERTEX_BITS) - 1;
+
+    public enum Implementation {
+        FIBONACCI(FibonacciHeap::new),
+        PAIRING(PairingHeap::new),
+        QUATERNARY(DaryHeap::new),
+        RADIX(RadixHeap::new);
+
+        final Supplier<IntPriorityQueue<?>> factory;
+
+        Implementation(Supplier<IntPriorityQueue<?>> factory) {
+            this.factory = factory;
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Workload {
+        @Param({"FIBONACCI", "PAIRING", "QUATERNARY", "RADIX"})
+        public Implementation implementation;
+
+        int[] keys;
+        int[] increments;
+        CsrGraph graph;
+
+        @Setup(Level.Trial)
+        public void generate() {
+            Random random = new Random(42L);
+            keys = random.ints(SIZE, 0, 1 << 30).toArray();
+            increments = random.ints(SIZE, 0, 1 << 16).toArray();
+            graph = CsrGraph.random(1 << VERTEX_BITS, 8, 255, 42L);
+            for (int d : GraphAlgorithms.dijkstra(graph, 0)) {
+                if (d >= 1 << (31 - VERTEX_BITS)) {
+                    throw new IllegalStateException("distance " + d + " does not fit in a dijkstra key");
+                }
+            }
+        }
+
+        IntPriorityQueue<?> create() {
+            return implementation.factory.get();
+        }
+    }
+
+    @Benchmark
+    public long sort(Workload workload) {
+        return sort(workload.create(), workload.keys);
+    }
+
+    private static <H extends IntPriorityQueue.Handle> long sort(IntPriorityQueue<H> queue, int[] keys) {
+        for (int key : keys) {
+            queue.insert(key);
+        }
+        long sum = 0;
+        while (!queue.isEmpty()) {
+            sum += queue.findMin().getKey();
+            queue.deleteMin();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long decreaseKeys(Workload workload) {
+        return decreaseKeys(workload.create(), workload.keys, workload.increments);
+    }
+
+    private static <H extends IntPriorityQueue.Handle> long decreaseKeys(IntPriorityQueue<H> queue, int[] keys, int[] deltas) {
+        IntPriorityQueue.Handle[] handles = new IntPriorityQueue.Handle[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            handles[i] = queue.insert(keys[i]);
+        }
+        for (int round = 0; round < 4; round++) {
+            for (int i = 0; i < handles.length; i++) {
+                @SuppressWarnings("unchecked")
+                H handle = (H) handles[i];
+                queue.decreaseKey(handle, Math.min(deltas[i], handle.getKey()));
+            }
+        }
+        return sort(queue, new int[0]);
+    }
+
+    @Benchmark
+    public int[] dijkstra(Workload workload) {
+        return dijkstra(workload.create(), workload.graph);
+    }
+
+    private static <H extends IntPriorityQueue.Handle> int[] dijkstra(IntPriorityQueue<H> queue, CsrGraph graph) {
+        int n = graph.vertices();
+        int[] dist = new int[n];
+        Arrays.fill(dist, GraphAlgorithms.INFINITY);
+        IntPriorityQueue.Handle[] handles = new IntPriorityQueue.Handle[n];
+        dist[0] = 0;
+        handles[0] = queue.insert(0);
+        while (!queue.isEmpty()) {
+            int u = queue.findMin().getKey() & VERTEX_MASK;
+            queue.deleteMin();
+            int du = dist[u];
+            for (int e = graph.firstEdge(u), end = graph.firstEdge(u + 1); e < end; e++) {
+                int v = graph.target(e);
+                int candidate = du + graph.weight(e);
+                if (candidate < dist[v]) {
+                    if (handles[v] == null) {
+                        handles[v] = queue.insert(candidate << VERTEX_BITS | v);
+                    } else {
+                        @SuppressWarnings("unchecked")
+                        H handle = (H) handles[v];
+                        queue.decreaseKey(handle, (dist[v] - candidate) << VERTEX_BITS);
+                    }
+                    dist[v] = candidate;
+                }
+            }
+        }
+        return dist;
+    }
+
+    @Benchmark
+    public long holdModel(Workload workload) {
+        return holdModel(workload.create(), workload.keys, workload.increments);
+    }
+
+    private static <H extends IntPriorityQueue.Handle> long holdModel(IntPriorityQueue<H> queue, int[] keys, int[] increments) {
+        for (int key : keys) {
+            queue.insert(key >>> 4);
+        }
+        long sum = 0;
+        for (int increment : increments) {
+            int min = queue.findMin().getKey();
+            queue.deleteMin();
+            queue.insert(min + increment);
+            sum += min;
+        }
+        return sum;
+    }
+}
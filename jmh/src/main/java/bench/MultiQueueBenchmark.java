@@ -0,0 +1,92 @@
+package bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MultiQueueBenchmark
+ * <p>
+ * Throughput of one insert plus one deleteMin on a shared queue, for a MultiQueue with shardsPerThread
+ * shards per benchmark thread and for a FibonacciHeap behind one global lock, the strict baseline.
+ * Read the scores next to the MultiQueueRankError output for the same shard count: the MultiQueue buys its
+ * throughput with the rank error printed there.
+ * <p>
+ * {@code java -cp jmh/target/benchmarks.jar bench.MultiQueueBenchmark} runs both with 1, 2, 4 and 8 threads.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MultiQueueBenchmark {
+
+    static final int INITIAL_SIZE = 100_000;
+
+    static final int MAX_THREADS = 8;
+
+    @State(Scope.Benchmark)
+    public static class SharedQueues {
+        @Param({"1", "2", "4"})
+        int shardsPerThread;
+
+        MultiQueue multi;
+        FibonacciHeap locked;
+
+        @Setup(Level.Iteration)
+        public void fill() {
+            multi = new MultiQueue(MAX_THREADS, shardsPerThread);
+            locked = new FibonacciHeap();
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int i = 0; i < INITIAL_SIZE; i++) {
+                int key = random.nextInt(1 << 30);
+                multi.insert(key);
+                locked.insert(key);
+            }
+        }
+    }
+
+    @Benchmark
+    public int multiQueue(SharedQueues queues) {
+        queues.multi.insert(ThreadLocalRandom.current().nextInt(1 << 30));
+        return queues.multi.deleteMin();
+    }
+
+    @Benchmark
+    public int lockedHeap(SharedQueues queues) {
+        FibonacciHeap heap = queues.locked;
+        int key = ThreadLocalRandom.current().nextInt(1 << 30);
+        synchronized (heap) {
+            heap.insert(key);
+            int min = heap.findMin().getKey();
+            heap.deleteMin();
+            return min;
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        for (int threads = 1; threads <= MAX_THREADS; threads *= 2) {
+            Options options = new OptionsBuilder()
+                    .include(MultiQueueBenchmark.class.getSimpleName())
+                    .threads(threads)
+                    .build();
+            new Runner(options).run();
+        }
+    }
+}
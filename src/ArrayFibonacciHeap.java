@@ -0,0 +1,481 @@
+import java.util.Arrays;
+
+/**
+ * ArrayFibonacciHeap
+ * <p>
+ * An implementation of fibonacci heap over integers whose nodes are kept in parallel arrays
+ * (struct of arrays) instead of HeapNode objects. A node is identified by an int handle - its index in
+ * the arrays - so once the arrays have grown to the working size no operation allocates.
+ * <p>
+ * Handles of deleted nodes are recycled by later inserts and must not be used after the deletion.
+ */
+public class ArrayFibonacciHeap {
+
+    /**
+     * Handle value meaning "no node" (empty heap, missing parent/child).
+     */
+    public static final int NONE = -1;
+
+    /**
+     * A tree of rank r holds at least F(r+2) nodes, and F(47) > Integer.MAX_VALUE,
+     * so no rank can exceed 44 while the heap holds at most Integer.MAX_VALUE nodes.
+     */
+    static final int MAX_RANK = 45;
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private int[] key;
+    private int[] rank;
+    private int[] parent;
+    private int[] child;
+    private int[] next;
+    private int[] prev;
+    private boolean[] marked;
+
+    private final int[] buckets = new int[MAX_RANK + 1];
+
+    private int nodeCount;
+    private int freeHead = NONE;
+    private int minNode = NONE;
+    private int first = NONE;
+    private int last = NONE;
+    private int size;
+    private int numMarked;
+    private int numOfTrees;
+
+    public ArrayFibonacciHeap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public ArrayFibonacciHeap(int initialCapacity) {
+        int capacity = Math.max(1, initialCapacity);
+        key = new int[capacity];
+        rank = new int[capacity];
+        parent = new int[capacity];
+        child = new int[capacity];
+        next = new int[capacity];
+        prev = new int[capacity];
+        marked = new boolean[capacity];
+        Arrays.fill(buckets, NONE);
+    }
+
+    /**
+     * Makes sure the arrays can hold at least capacity nodes.
+     * Growing doubles the arrays so that inserts stay amortized O(1).
+     */
+    private void ensureCapacity(int capacity) {
+        if (capacity <= key.length) return;
+        int newCapacity = Math.max(capacity, key.length << 1);
+        if (newCapacity < 0) newCapacity = Integer.MAX_VALUE - 8;
+        key = Arrays.copyOf(key, newCapacity);
+        rank = Arrays.copyOf(rank, newCapacity);
+        parent = Arrays.copyOf(parent, newCapacity);
+        child = Arrays.copyOf(child, newCapacity);
+        next = Arrays.copyOf(next, newCapacity);
+        prev = Arrays.copyOf(prev, newCapacity);
+        marked = Arrays.copyOf(marked, newCapacity);
+    }
+
+    /**
+     * Takes a slot from the free list, or a fresh one from the end of the arrays.
+     */
+    private int allocate(int k) {
+        int node;
+        if (freeHead != NONE) {
+            node = freeHead;
+            freeHead = next[node];
+        } else {
+            ensureCapacity(nodeCount + 1);
+            node = nodeCount++;
+        }
+        key[node] = k;
+        rank[node] = 0;
+        marked[node] = false;
+        parent[node] = NONE;
+        child[node] = NONE;
+        return node;
+    }
+
+    private void release(int node) {
+        parent[node] = NONE;
+        child[node] = NONE;
+        prev[node] = NONE;
+        next[node] = freeHead;
+        freeHead = node;
+    }
+
+    /**
+     * public boolean isEmpty()
+     * <p>
+     * The method returns true if and only if the heap is empty.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * public int insert(int key)
+     * <p>
+     * Creates a node which contains the given key, inserts it into the heap and returns its handle.
+     */
+    public int insert(int k) {
+        int node = allocate(k);
+        if (size == 0) {
+            first = node;
+            last = node;
+            next[node] = node;
+            prev[node] = node;
+            minNode = node;
+            numOfTrees = 1;
+        } else {
+            addRoot(node);
+        }
+        size++;
+        return node;
+    }
+
+    /*makes node the new first of the root list and updates the minimum*/
+    private void addRoot(int node) {
+        next[node] = first;
+        prev[node] = last;
+        prev[first] = node;
+        next[last] = node;
+        first = node;
+        if (key[node] < key[minNode]) {
+            minNode = node;
+        }
+        numOfTrees++;
+    }
+
+    /**
+     * public int findMin()
+     * <p>
+     * Return the handle of the node whose key is minimal, or NONE if the heap is empty.
+     */
+    public int findMin() {
+        return minNode;
+    }
+
+    /**
+     * public int getKey(int node)
+     * <p>
+     * Return the key of the node with the given handle.
+     */
+    public int getKey(int node) {
+        return key[node];
+    }
+
+    public int getRank(int node) {
+        return rank[node];
+    }
+
+    /**
+     * Links 2 roots, the one with the smaller key becomes the root of the result.
+     * complexity: O(1)
+     */
+    private int link(int n1, int n2) {
+        if (key[n1] > key[n2]) {
+            int temp = n1;
+            n1 = n2;
+            n2 = temp;
+        }
+        int c = child[n1];
+        if (c == NONE) {
+            next[n2] = n2;
+            prev[n2] = n2;
+        } else {
+            int orgPrev = prev[c];
+            next[n2] = c;
+            prev[c] = n2;
+            next[orgPrev] = n2;
+            prev[n2] = orgPrev;
+        }
+        child[n1] = n2;
+        parent[n2] = n1;
+        rank[n1]++;
+        return n1;
+    }
+
+    /**
+     * Links roots of equal rank until all ranks are distinct and rebuilds the root list
+     * in rank order. Returns the new number of trees.
+     */
+    public int consolidate() {
+        if (size == 0) return 0;
+        int node = first;
+        next[last] = NONE;
+        while (node != NONE) {
+            int cur = node;
+            node = next[node];
+            while (buckets[rank[cur]] != NONE) {
+                int other = buckets[rank[cur]];
+                buckets[rank[cur]] = NONE;
+                cur = link(cur, other);
+            }
+            buckets[rank[cur]] = cur;
+        }
+        first = NONE;
+        last = NONE;
+        minNode = NONE;
+        int trees = 0;
+        for (int r = 0; r < buckets.length; r++) {
+            int root = buckets[r];
+            if (root == NONE) continue;
+            buckets[r] = NONE;
+            if (marked[root]) {
+                marked[root] = false;
+                numMarked--;
+            }
+            if (first == NONE) {
+                first = root;
+            } else {
+                next[last] = root;
+                prev[root] = last;
+            }
+            last = root;
+            if (minNode == NONE || key[root] < key[minNode]) {
+                minNode = root;
+            }
+            trees++;
+        }
+        next[last] = first;
+        prev[first] = last;
+        numOfTrees = trees;
+        return trees;
+    }
+
+    /**
+     * Removes a root from the root list and puts its children in its place.
+     */
+    private void removeRoot(int root) {
+        int c = child[root];
+        if (c == NONE) {
+            next[prev[root]] = next[root];
+            prev[next[root]] = prev[root];
+            if (root == first) first = next[root];
+            if (root == last) last = prev[root];
+        } else {
+            int cur = c;
+            do {
+                parent[cur] = NONE;
+                cur = next[cur];
+            } while (cur != c);
+            int rightMostChild = prev[c];
+            if (next[root] == root) {
+                first = c;
+                last = rightMostChild;
+            } else {
+                next[prev[root]] = c;
+                prev[c] = prev[root];
+                prev[next[root]] = rightMostChild;
+                next[rightMostChild] = next[root];
+                if (root == first) first = c;
+                if (root == last) last = rightMostChild;
+            }
+        }
+        numOfTrees += rank[root] - 1;
+        child[root] = NONE;
+    }
+
+    private void clear() {
+        first = NONE;
+        last = NONE;
+        minNode = NONE;
+        numOfTrees = 0;
+        numMarked = 0;
+        size = 0;
+    }
+
+    /**
+     * public void deleteMin()
+     * <p>
+     * Delete the node containing the minimum key.
+     * precondition: the heap is not empty
+     */
+    public void deleteMin() {
+        int min = minNode;
+        if (size == 1) {
+            clear();
+        } else {
+            removeRoot(min);
+            size--;
+            consolidate();
+        }
+        release(min);
+    }
+
+    /**
+     * public void decreaseKey(int node, int delta)
+     * <p>
+     * Decreases the key of the node by delta, applying cascading cuts if the heap order is violated.
+     */
+    public void decreaseKey(int node, int delta) {
+        key[node] -= delta;
+        int p = parent[node];
+        if (p != NONE && key[p] > key[node]) {
+            cascadingCut(node, p);
+        }
+        if (key[node] < key[minNode]) {
+            minNode = node;
+        }
+    }
+
+    /**
+     * public void delete(int node)
+     * <p>
+     * Deletes the node from the heap. The node is cut to the root list and removed as the minimum,
+     * so no key arithmetic is involved.
+     */
+    public void delete(int node) {
+        int p = parent[node];
+        if (p != NONE) {
+            cascadingCut(node, p);
+        }
+        minNode = node;
+        deleteMin();
+    }
+
+    private void cascadingCut(int node, int p) {
+        while (true) {
+            cut(node, p);
+            addRoot(node);
+            int grandParent = parent[p];
+            if (grandParent == NONE) return;
+            if (!marked[p]) {
+                marked[p] = true;
+                numMarked++;
+                return;
+            }
+            node = p;
+            p = grandParent;
+        }
+    }
+
+    private void cut(int node, int p) {
+        parent[node] = NONE;
+        if (marked[node]) {
+            marked[node] = false;
+            numMarked--;
+        }
+        rank[p]--;
+        if (next[node] == node) {
+            child[p] = NONE;
+        } else {
+            if (child[p] == node) child[p] = next[node];
+            prev[next[node]] = prev[node];
+            next[prev[node]] = next[node];
+        }
+    }
+
+    /**
+     * public int meld(ArrayFibonacciHeap heap2)
+     * <p>
+     * Meld the heap with heap2. The nodes of heap2 are copied into this heap's arrays, so this costs
+     * O(number of slots of heap2); a handle h of heap2 becomes handle h + offset in this heap, where
+     * offset is the returned value. heap2 is left empty. Melding a heap with itself changes nothing and
+     * returns 0.
+     */
+    public int meld(ArrayFibonacciHeap heap2) {
+        if (heap2 == this) return 0;
+        int base = nodeCount;
+        if (heap2.nodeCount == 0) return base;
+        int count = heap2.nodeCount;
+        ensureCapacity(base + count);
+        System.arraycopy(heap2.key, 0, key, base, count);
+        System.arraycopy(heap2.rank, 0, rank, base, count);
+        System.arraycopy(heap2.marked, 0, marked, base, count);
+        for (int i = 0; i < count; i++) {
+            parent[base + i] = shift(heap2.parent[i], base);
+            child[base + i] = shift(heap2.child[i], base);
+            next[base + i] = shift(heap2.next[i], base);
+            prev[base + i] = shift(heap2.prev[i], base);
+        }
+        nodeCount += count;
+        // chain heap2's free slots in front of ours
+        if (heap2.freeHead != NONE) {
+            int tail = heap2.freeHead + base;
+            while (next[tail] != NONE) {
+                tail = next[tail];
+            }
+            next[tail] = freeHead;
+            freeHead = heap2.freeHead + base;
+        }
+        if (!heap2.isEmpty()) {
+            int otherFirst = heap2.first + base;
+            int otherLast = heap2.last + base;
+            if (isEmpty()) {
+                first = otherFirst;
+                last = otherLast;
+                minNode = heap2.minNode + base;
+            } else {
+                next[last] = otherFirst;
+                prev[otherFirst] = last;
+                next[otherLast] = first;
+                prev[first] = otherLast;
+                last = otherLast;
+                if (key[heap2.minNode + base] < key[minNode]) {
+                    minNode = heap2.minNode + base;
+                }
+            }
+            size += heap2.size;
+            numOfTrees += heap2.numOfTrees;
+            numMarked += heap2.numMarked;
+        }
+        heap2.clear();
+        heap2.nodeCount = 0;
+        heap2.freeHead = NONE;
+        return base;
+    }
+
+    private static int shift(int node, int base) {
+        return node == NONE ? NONE : node + base;
+    }
+
+    /**
+     * public int size()
+     * <p>
+     * Return the number of elements in the heap
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * public int capacity()
+     * <p>
+     * Return the number of nodes the arrays can currently hold without growing.
+     */
+    public int capacity() {
+        return key.length;
+    }
+
+    /**
+     * public int[] countersRep()
+     * <p>
+     * Return a counters array, where the value of the i-th entry is the number of trees of order i in the heap.
+     */
+    public int[] countersRep() {
+        int maxRank = 0;
+        int[] counters = new int[MAX_RANK + 1];
+        int cur = first;
+        for (int i = 0; i < numOfTrees; i++) {
+            counters[rank[cur]]++;
+            maxRank = Math.max(maxRank, rank[cur]);
+            cur = next[cur];
+        }
+        return Arrays.copyOf(counters, maxRank + 1);
+    }
+
+    /**
+     * public int potential()
+     * <p>
+     * Potential = #trees + 2*#marked
+     */
+    public int potential() {
+        return numOfTrees + 2 * numMarked;
+    }
+
+    public int getNumberOfTrees() {
+        return numOfTrees;
+    }
+}
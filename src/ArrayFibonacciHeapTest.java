@@ -0,0 +1,144 @@
+import java.util.Random;
+import java.util.TreeMap;
+
+class ArrayFibonacciHeapTest {
+
+    private static void add(TreeMap<Integer, Integer> multiset, int key) {
+        multiset.merge(key, 1, Integer::sum);
+    }
+
+    private static void remove(TreeMap<Integer, Integer> multiset, int key) {
+        if (multiset.merge(key, -1, Integer::sum) == 0) {
+            multiset.remove(key);
+        }
+    }
+
+    void testInsertDeleteMin() {
+        ArrayFibonacciHeap heap = new ArrayFibonacciHeap(1);
+        assert (heap.isEmpty()) : "heap isn't empty";
+        assert (heap.findMin() == ArrayFibonacciHeap.NONE) : "empty heap has a minimum";
+
+        for (int i = 0; i < 16; i++) {
+            heap.insert(i);
+        }
+        assert (heap.getNumberOfTrees() == 16) : "number of internal trees isn't as expected";
+        assert (heap.capacity() >= 16) : "arrays did not grow";
+
+        heap.deleteMin();
+        assert (heap.getKey(heap.findMin()) == 1) : "minimal key isn't as expected after deleteMin";
+        assert (heap.getNumberOfTrees() == 4) : "number of internal trees isn't as expected after deleteMin";
+
+        for (int i = 1; i < 16; i++) {
+            assert (heap.getKey(heap.findMin()) == i) : "incorrect key";
+            heap.deleteMin();
+        }
+        assert (heap.isEmpty()) : "heap isn't empty after deleting everything";
+        System.out.println("testInsertDeleteMin Passed!");
+    }
+
+    void testHandlesAreRecycled() {
+        ArrayFibonacciHeap heap = new ArrayFibonacciHeap(4);
+        for (int i = 0; i < 4; i++) {
+            heap.insert(i);
+        }
+        int capacity = heap.capacity();
+        for (int round = 0; round < 1000; round++) {
+            heap.deleteMin();
+            heap.insert(round + 4);
+        }
+        assert (heap.capacity() == capacity) : "deleted slots were not reused";
+        System.out.println("testHandlesAreRecycled Passed!");
+    }
+
+    void testPotential() {
+        ArrayFibonacciHeap heap = new ArrayFibonacciHeap();
+        int[] nodes = new int[9];
+        for (int j = 0; j < 9; j++) {
+            nodes[j] = heap.insert(j);
+        }
+        heap.deleteMin();
+        assert (heap.potential() == 1) : "incorrect potential";
+
+        heap.decreaseKey(nodes[7], 5);
+        assert (heap.potential() == 4) : "incorrect potential";
+
+        heap.decreaseKey(nodes[6], 2);
+        assert (heap.potential() == 4) : "incorrect potential";
+        System.out.println("testPotential Passed!");
+    }
+
+    void testMeld() {
+        ArrayFibonacciHeap heap1 = new ArrayFibonacciHeap();
+        ArrayFibonacciHeap heap2 = new ArrayFibonacciHeap();
+        for (int i = 1; i <= 8; i++) {
+            heap1.insert(i);
+        }
+        heap2.insert(9);
+        heap2.insert(10);
+        int zero = heap2.insert(20);
+        int offset = heap1.meld(heap2);
+        assert (heap2.isEmpty()) : "melded heap was not emptied";
+        assert (heap1.meld(heap1) == 0 && heap1.size() == 11) : "meld with itself changed the heap";
+
+        heap1.decreaseKey(zero + offset, 20);
+        assert (heap1.getKey(heap1.findMin()) == 0) : "incorrect min";
+        assert (heap1.getNumberOfTrees() == 11) : "incorrect number of trees";
+        for (int i = 0; i < 11; i++) {
+            assert (i == heap1.getKey(heap1.findMin())) : "incorrect key";
+            heap1.deleteMin();
+        }
+        System.out.println("testMeld Passed!");
+    }
+
+    void testRandomOperations() {
+        Random random = new Random(0L);
+        ArrayFibonacciHeap heap = new ArrayFibonacciHeap();
+        TreeMap<Integer, Integer> expected = new TreeMap<>();
+        int[] live = new int[200000];
+        int liveCount = 0;
+        for (int op = 0; op < 200000; op++) {
+            int choice = random.nextInt(10);
+            if (liveCount == 0 || choice < 4) {
+                int key = random.nextInt(100000);
+                live[liveCount++] = heap.insert(key);
+                add(expected, key);
+            } else if (choice < 6) {
+                int index = random.nextInt(liveCount);
+                int node = live[index];
+                int delta = random.nextInt(1000);
+                remove(expected, heap.getKey(node));
+                heap.decreaseKey(node, delta);
+                add(expected, heap.getKey(node));
+            } else if (choice < 7) {
+                int index = random.nextInt(liveCount);
+                int node = live[index];
+                remove(expected, heap.getKey(node));
+                heap.delete(node);
+                live[index] = live[--liveCount];
+            } else {
+                int min = heap.findMin();
+                assert (heap.getKey(min) == expected.firstKey()) : "minimum is not updated correctly";
+                remove(expected, heap.getKey(min));
+                heap.deleteMin();
+                for (int i = 0; i < liveCount; i++) {
+                    if (live[i] == min) {
+                        live[i] = live[--liveCount];
+                        break;
+                    }
+                }
+            }
+            assert (heap.size() == liveCount) : "size is incorrect";
+        }
+        System.out.println("testRandomOperations Passed!");
+    }
+
+    public static void main(String[] args) {
+        ArrayFibonacciHeapTest test = new ArrayFibonacciHeapTest();
+
+        test.testInsertDeleteMin();
+        test.testHandlesAreRecycled();
+        test.testPotential();
+        test.testMeld();
+        test.testRandomOperations();
+    }
+}
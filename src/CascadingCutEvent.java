@@ -0,0 +1,28 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * CascadingCutEvent
+ * <p>
+ * Flight recorder event committed by FibonacciHeap.decreaseKey when the decrease cuts the node from its parent.
+ */
+@Name("FibonacciHeap.CascadingCut")
+@Label("Fibonacci Heap Cascading Cut")
+@Category("Fibonacci Heap")
+@Description("Chain of cuts caused by a single decreaseKey")
+class CascadingCutEvent extends jdk.jfr.Event {
+
+    static final EventType TYPE = EventType.getEventType(CascadingCutEvent.class);
+
+    @Label("Chain Length")
+    int chainLength;
+
+    @Label("Key")
+    int key;
+
+    @Label("Heap Size")
+    int heapSize;
+}
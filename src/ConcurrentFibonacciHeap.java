@@ -0,0 +1,202 @@
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * ConcurrentFibonacciHeap
+ * <p>
+ * A thread-safe fibonacci heap over integers. Writers share a FibonacciHeap guarded by one lock, but:
+ * <ul>
+ * <li>findMin, findMinKey, size and isEmpty never lock: they read a minimum published after every write.
+ * Inserts and decreaseKey publish the minimum the heap already knows, so a LAZY heap only consolidates when
+ * a deletion leaves its minimum stale.</li>
+ * <li>insert allocates its node outside the lock and pushes it on a request stack. Whoever holds the lock
+ * next inserts every waiting node (combining), so a burst of inserts from many threads costs one lock
+ * round trip instead of one per insert.</li>
+ * <li>Handles returned by insert are valid for decreaseKey and delete from any thread.</li>
+ * </ul>
+ * Every operation returns only after it was applied, so the heap is linearizable.
+ */
+public class ConcurrentFibonacciHeap {
+
+    private static final long EMPTY = Long.MAX_VALUE;
+
+    private final FibonacciHeap heap;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final AtomicReference<FibonacciHeap.HeapNode> requests = new AtomicReference<>(); // linked by next
+
+    /*published under the lock after every write*/
+    private volatile FibonacciHeap.HeapNode min;
+    private volatile long minKey = EMPTY;
+    private volatile int size;
+    private volatile long combines; // incremented last, see insert
+
+    public ConcurrentFibonacciHeap() {
+        this(FibonacciHeap.ConsolidationMode.EAGER);
+    }
+
+    public ConcurrentFibonacciHeap(FibonacciHeap.ConsolidationMode mode) {
+        heap = new FibonacciHeap(mode);
+    }
+
+    /**
+     * public HeapNode insert(int key)
+     * <p>
+     * Inserts key and returns its node once it is in the heap. If another thread holds the lock, the node
+     * is left on the request stack for it and this thread only waits until a later combine was published.
+     */
+    public FibonacciHeap.HeapNode insert(int key) {
+        FibonacciHeap.HeapNode node = new FibonacciHeap.HeapNode(key);
+        FibonacciHeap.HeapNode head;
+        do {
+            head = requests.get();
+            node.setNext(head);
+        } while (!requests.compareAndSet(head, node));
+        /*a combine that was running during the push may have taken the stack before it, but the one
+          after it started after the push and took the node*/
+        long seen = combines;
+        int spins = 0;
+        while (true) {
+            if (lock.tryLock()) {
+                try {
+                    combine();
+                } finally {
+                    publish(false);
+                    lock.unlock();
+                }
+                return node;
+            }
+            if (combines - seen >= 2) {
+                return node;
+            }
+            if (++spins % 64 == 0) {
+                Thread.yield();
+            } else {
+                Thread.onSpinWait();
+            }
+        }
+    }
+
+    /**
+     * public HeapNode findMin()
+     * <p>
+     * Return the node whose key was minimal after the last write, or null if the heap was empty, without
+     * locking. Its key may be decreased concurrently; findMinKey reads a consistent key.
+     */
+    public FibonacciHeap.HeapNode findMin() {
+        return min;
+    }
+
+    /**
+     * public int findMinKey()
+     * <p>
+     * Return the minimal key after the last write without locking.
+     * Throws NoSuchElementException if the heap is empty.
+     */
+    public int findMinKey() {
+        long key = minKey;
+        if (key == EMPTY) {
+            throw new NoSuchElementException("heap is empty");
+        }
+        return (int) key;
+    }
+
+    /**
+     * public int deleteMin()
+     * <p>
+     * Deletes the minimal key and returns it. Throws NoSuchElementException if the heap is empty.
+     */
+    public int deleteMin() {
+        lock.lock();
+        try {
+            combine();
+            FibonacciHeap.HeapNode node = heap.findMin();
+            if (node == null) {
+                throw new NoSuchElementException("heap is empty");
+            }
+            int key = node.getKey();
+            heap.deleteMin();
+            return key;
+        } finally {
+            publish(true);
+            lock.unlock();
+        }
+    }
+
+    /**
+     * public int pollMin(int k, int[] out)
+     * <p>
+     * Deletes the min(k, size) minimal keys under one lock acquisition, see FibonacciHeap.pollMin.
+     */
+    public int pollMin(int k, int[] out) {
+        lock.lock();
+        try {
+            combine();
+            return heap.pollMin(k, out);
+        } finally {
+            publish(true);
+            lock.unlock();
+        }
+    }
+
+    /**
+     * public void decreaseKey(HeapNode x, int delta)
+     * <p>
+     * Decreases the key of x by delta, see FibonacciHeap.decreaseKey.
+     */
+    public void decreaseKey(FibonacciHeap.HeapNode x, int delta) {
+        lock.lock();
+        try {
+            combine();
+            heap.decreaseKey(x, delta);
+        } finally {
+            publish(false);
+            lock.unlock();
+        }
+    }
+
+    /**
+     * public void delete(HeapNode x)
+     * <p>
+     * Deletes the node x from the heap.
+     */
+    public void delete(FibonacciHeap.HeapNode x) {
+        lock.lock();
+        try {
+            combine();
+            heap.delete(x);
+        } finally {
+            publish(true);
+            lock.unlock();
+        }
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /*inserts every waiting node, the lock must be held*/
+    private void combine() {
+        FibonacciHeap.HeapNode node = requests.getAndSet(null);
+        while (node != null) {
+            FibonacciHeap.HeapNode next = node.getNext();
+            heap.insertNode(node);
+            node = next;
+        }
+    }
+
+    /*publishes the state for lock-free readers, the lock must be held. Inserts and decreaseKey keep the
+      minimum of the heap exact, so it is published as it is; only after a deletion may a LAZY heap have a
+      stale minimum, and only then is it looked up with findMin, which consolidates*/
+    private void publish(boolean deleted) {
+        FibonacciHeap.HeapNode node = deleted ? heap.findMin() : heap.currentMin();
+        min = node;
+        minKey = node == null ? EMPTY : node.getKey();
+        size = heap.size();
+        combines = combines + 1;
+    }
+}
@@ -0,0 +1,126 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+class ConcurrentFibonacciHeapTest {
+
+    private static final int THREADS = 4;
+    private static final int PER_THREAD = 20000;
+
+    void testConcurrentInserts() throws Exception {
+        ConcurrentFibonacciHeap heap = new ConcurrentFibonacciHeap();
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            int thread = t;
+            futures.add(pool.submit(() -> {
+                Random random = new Random(thread);
+                for (int i = 0; i < PER_THREAD; i++) {
+                    // key i * THREADS + thread, decreased by THREADS * PER_THREAD for every fourth node
+                    FibonacciHeap.HeapNode node = heap.insert(i * THREADS + thread);
+                    assert (heap.findMinKey() <= node.getKey()) : "insert returned before it was published";
+                    if (random.nextInt(4) == 0) {
+                        heap.decreaseKey(node, THREADS * PER_THREAD);
+                    }
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        assert (heap.size() == THREADS * PER_THREAD) : "size is incorrect";
+
+        int[] keys = new int[heap.size()];
+        int count = 0;
+        while (!heap.isEmpty()) {
+            keys[count++] = heap.deleteMin();
+        }
+        for (int i = 1; i < count; i++) {
+            assert (keys[i - 1] <= keys[i]) : "keys aren't sorted";
+        }
+        boolean[] seen = new boolean[THREADS * PER_THREAD];
+        for (int key : keys) {
+            int original = key < 0 ? key + THREADS * PER_THREAD : key;
+            assert (!seen[original]) : "key was returned twice";
+            seen[original] = true;
+        }
+        pool.shutdown();
+        System.out.println("testConcurrentInserts Passed!");
+    }
+
+    void testConcurrentDeleteMin() throws Exception {
+        ConcurrentFibonacciHeap heap = new ConcurrentFibonacciHeap(FibonacciHeap.ConsolidationMode.INCREMENTAL);
+        int total = THREADS * PER_THREAD;
+        for (int key = 0; key < total; key++) {
+            heap.insert(key);
+        }
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        List<Future<int[]>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(pool.submit(() -> {
+                int[] taken = new int[total];
+                int count = 0;
+                int[] batch = new int[8];
+                while (true) {
+                    int polled = count % 2 == 0 ? heap.pollMin(batch.length, batch) : 0;
+                    if (polled == 0) {
+                        try {
+                            batch[0] = heap.deleteMin();
+                            polled = 1;
+                        } catch (java.util.NoSuchElementException ex) {
+                            break;
+                        }
+                    }
+                    for (int i = 0; i < polled; i++) {
+                        assert (count == 0 || taken[count - 1] < batch[i]) : "a thread saw keys out of order";
+                        taken[count++] = batch[i];
+                    }
+                }
+                return Arrays.copyOf(taken, count);
+            }));
+        }
+        boolean[] seen = new boolean[total];
+        int count = 0;
+        for (Future<int[]> future : futures) {
+            for (int key : future.get()) {
+                assert (!seen[key]) : "key was returned twice";
+                seen[key] = true;
+                count++;
+            }
+        }
+        assert (count == total && heap.isEmpty()) : "keys were lost";
+        pool.shutdown();
+        System.out.println("testConcurrentDeleteMin Passed!");
+    }
+
+    void testLazyPublish() {
+        ConcurrentFibonacciHeap heap = new ConcurrentFibonacciHeap(FibonacciHeap.ConsolidationMode.LAZY);
+        List<FibonacciHeap.HeapNode> nodes = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            nodes.add(heap.insert(1000 + i));
+        }
+        long consolidations = FibonacciHeap.totalConsolidations();
+        for (int i = 0; i < 1000; i++) {
+            heap.decreaseKey(nodes.get(i), 1000);
+            heap.insert(5000 + i);
+        }
+        assert (FibonacciHeap.totalConsolidations() == consolidations) : "a write that deletes nothing consolidated";
+        assert (heap.findMinKey() == 0) : "published minimum is incorrect";
+        assert (heap.deleteMin() == 0) : "deleteMin returned the wrong key";
+        assert (FibonacciHeap.totalConsolidations() == consolidations + 1) : "deleteMin did not consolidate once";
+        assert (heap.findMinKey() == 1 && heap.size() == 1999) : "published state after deleteMin is incorrect";
+        System.out.println("testLazyPublish Passed!");
+    }
+
+    public static void main(String[] args) throws Exception {
+        ConcurrentFibonacciHeapTest test = new ConcurrentFibonacciHeapTest();
+
+        test.testConcurrentInserts();
+        test.testConcurrentDeleteMin();
+        test.testLazyPublish();
+    }
+}
@@ -0,0 +1,31 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * ConsolidationEvent
+ * <p>
+ * Flight recorder event committed by FibonacciHeap.consolidate, its duration is the time spent linking trees.
+ */
+@Name("FibonacciHeap.Consolidation")
+@Label("Fibonacci Heap Consolidation")
+@Category("Fibonacci Heap")
+@Description("Linking of equal rank trees after deleteMin")
+class ConsolidationEvent extends jdk.jfr.Event {
+
+    static final EventType TYPE = EventType.getEventType(ConsolidationEvent.class);
+
+    @Label("Roots Before")
+    int rootsBefore;
+
+    @Label("Roots After")
+    int rootsAfter;
+
+    @Label("Links")
+    int links;
+
+    @Label("Bucket Array Size")
+    int buckets;
+}
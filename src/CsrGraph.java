@@ -0,0 +1,224 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * CsrGraph
+ * <p>
+ * An immutable directed graph with non-negative int edge weights in compressed sparse row form: the edges
+ * leaving vertex v are targets[offsets[v]..offsets[v + 1]) with the weights at the same indices, so walking
+ * the neighbours of a vertex reads two contiguous arrays. Undirected graphs store every edge in both
+ * directions.
+ */
+public final class CsrGraph {
+
+    private final int[] offsets;
+    private final int[] targets;
+    private final int[] weights;
+
+    private CsrGraph(int[] offsets, int[] targets, int[] weights) {
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+    }
+
+    /**
+     * public static CsrGraph fromEdges(int vertices, int[] sources, int[] targets, int[] weights, int edges, boolean undirected)
+     * <p>
+     * Builds the graph of vertices 0..vertices-1 with the edges sources[i] -&gt; targets[i] of weight weights[i]
+     * for i &lt; edges, added in both directions if undirected is set. Runs in O(V + E).
+     */
+    public static CsrGraph fromEdges(int vertices, int[] sources, int[] targets, int[] weights, int edges,
+                                     boolean undirected) {
+        int[] offsets = new int[vertices + 1];
+        for (int i = 0; i < edges; i++) {
+            if (sources[i] < 0 || sources[i] >= vertices || targets[i] < 0 || targets[i] >= vertices) {
+                throw new IllegalArgumentException("edge " + sources[i] + " -> " + targets[i] + " leaves the graph");
+            }
+            if (weights[i] < 0) {
+                throw new IllegalArgumentException("negative weight " + weights[i]);
+            }
+            offsets[sources[i] + 1]++;
+            if (undirected) {
+                offsets[targets[i] + 1]++;
+            }
+        }
+        for (int v = 0; v < vertices; v++) {
+            offsets[v + 1] += offsets[v];
+        }
+        int[] next = Arrays.copyOf(offsets, vertices);
+        int[] csrTargets = new int[offsets[vertices]];
+        int[] csrWeights = new int[csrTargets.length];
+        for (int i = 0; i < edges; i++) {
+            int e = next[sources[i]]++;
+            csrTargets[e] = targets[i];
+            csrWeights[e] = weights[i];
+            if (undirected) {
+                e = next[targets[i]]++;
+                csrTargets[e] = sources[i];
+                csrWeights[e] = weights[i];
+            }
+        }
+        return new CsrGraph(offsets, csrTargets, csrWeights);
+    }
+
+    /**
+     * public static CsrGraph load(Path file, boolean undirected)
+     * <p>
+     * Loads an edge-list file: one "source target weight" line per edge, separated by white space, with a
+     * missing weight meaning 1. Empty lines and lines starting with # or % are skipped. The graph has the
+     * vertices 0..max id.
+     */
+    public static CsrGraph load(Path file, boolean undirected) throws IOException {
+        int[] sources = new int[1024];
+        int[] targets = new int[1024];
+        int[] weights = new int[1024];
+        int edges = 0;
+        int vertices = 0;
+        int[] fields = new int[3];
+        try (BufferedReader reader = Files.newBufferedReader(file)) {
+            String line;
+            int number = 0;
+            while ((line = reader.readLine()) != null) {
+                number++;
+                int count = parseFields(line, fields);
+                if (count == 0) {
+                    continue;
+                }
+                if (count < 2) {
+                    throw new IOException(file + ":" + number + ": expected source, target and weight");
+                }
+                if (edges == sources.length) {
+                    sources = Arrays.copyOf(sources, 2 * edges);
+                    targets = Arrays.copyOf(targets, 2 * edges);
+                    weights = Arrays.copyOf(weights, 2 * edges);
+                }
+                sources[edges] = fields[0];
+                targets[edges] = fields[1];
+                weights[edges] = count == 3 ? fields[2] : 1;
+                vertices = Math.max(vertices, Math.max(fields[0], fields[1]) + 1);
+                edges++;
+            }
+        }
+        try {
+            return fromEdges(vertices, sources, targets, weights, edges, undirected);
+        } catch (IllegalArgumentException ex) {
+            throw new IOException(file + ": " + ex.getMessage(), ex);
+        }
+    }
+
+    /*parses up to 3 non-negative ints of a line into fields, returns how many there were, 0 for comments*/
+    private static int parseFields(String line, int[] fields) throws IOException {
+        int count = 0;
+        int i = 0;
+        int n = line.length();
+        while (i < n) {
+            char c = line.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+                continue;
+            }
+            if (count == 0 && (c == '#' || c == '%')) {
+                return 0;
+            }
+            if (count == 3) {
+                throw new IOException("more than 3 fields in line: " + line);
+            }
+            long value = 0;
+            int start = i;
+            while (i < n && line.charAt(i) >= '0' && line.charAt(i) <= '9') {
+                value = value * 10 + (line.charAt(i++) - '0');
+                if (value > Integer.MAX_VALUE) {
+                    throw new IOException("number too large in line: " + line);
+                }
+            }
+            if (i == start || (i < n && !Character.isWhitespace(line.charAt(i)))) {
+                throw new IOException("not a non-negative int in line: " + line);
+            }
+            fields[count++] = (int) value;
+        }
+        return count;
+    }
+
+    /**
+     * public static CsrGraph random(int vertices, int degree, int maxWeight, long seed)
+     * <p>
+     * A random directed graph where every vertex has degree edges to uniformly chosen vertices, with
+     * weights in 1..maxWeight. Vertex v also has an edge to v + 1, so every vertex is reachable from 0.
+     */
+    public static CsrGraph random(int vertices, int degree, int maxWeight, long seed) {
+        Random random = new Random(seed);
+        int edges = vertices * (degree + 1);
+        int[] sources = new int[edges];
+        int[] targets = new int[edges];
+        int[] weights = new int[edges];
+        int e = 0;
+        for (int v = 0; v < vertices; v++) {
+            for (int d = 0; d <= degree; d++, e++) {
+                sources[e] = v;
+                targets[e] = d == 0 ? (v + 1) % vertices : random.nextInt(vertices);
+                weights[e] = 1 + random.nextInt(maxWeight);
+            }
+        }
+        return fromEdges(vertices, sources, targets, weights, edges, false);
+    }
+
+    /**
+     * public static CsrGraph grid(int width, int height, int maxWeight, long seed)
+     * <p>
+     * An undirected width x height grid, vertex x + y * width joined to its 4 neighbours by edges of weight
+     * 1..maxWeight. Since every weight is at least 1, the manhattan distance is a consistent A* heuristic.
+     */
+    public static CsrGraph grid(int width, int height, int maxWeight, long seed) {
+        Random random = new Random(seed);
+        int edges = 2 * width * height;
+        int[] sources = new int[edges];
+        int[] targets = new int[edges];
+        int[] weights = new int[edges];
+        int e = 0;
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int v = x + y * width;
+                if (x + 1 < width) {
+                    sources[e] = v;
+                    targets[e] = v + 1;
+                    weights[e++] = 1 + random.nextInt(maxWeight);
+                }
+                if (y + 1 < height) {
+                    sources[e] = v;
+                    targets[e] = v + width;
+                    weights[e++] = 1 + random.nextInt(maxWeight);
+                }
+            }
+        }
+        return fromEdges(width * height, sources, targets, weights, e, true);
+    }
+
+    public int vertices() {
+        return offsets.length - 1;
+    }
+
+    public int edges() {
+        return targets.length;
+    }
+
+    /**
+     * public int firstEdge(int v)
+     * <p>
+     * Return the index of the first edge leaving v; the edges of v are firstEdge(v)..firstEdge(v + 1)-1.
+     */
+    public int firstEdge(int v) {
+        return offsets[v];
+    }
+
+    public int target(int edge) {
+        return targets[edge];
+    }
+
+    public int weight(int edge) {
+        return weights[edge];
+    }
+}
@@ -0,0 +1,146 @@
+import java.util.Arrays;
+
+/**
+ * DaryHeap
+ * <p>
+ * An implicit d-ary min-heap over integers in one array of nodes, 4-ary by default. A node knows its index,
+ * so decreaseKey and delete find it in O(1) and sift it in O(log_d n). Its shallow tree and contiguous array
+ * make it the fastest choice when decreaseKey is rare.
+ * <p>
+ * meld inserts the nodes of the other heap one by one, O(m log n).
+ */
+public class DaryHeap implements IntPriorityQueue<DaryHeap.Node> {
+
+    private final int arity;
+    private Node[] nodes;
+    private int size;
+
+    public DaryHeap() {
+        this(4);
+    }
+
+    public DaryHeap(int arity) {
+        if (arity < 2) {
+            throw new IllegalArgumentException("arity must be at least 2: " + arity);
+        }
+        this.arity = arity;
+        this.nodes = new Node[16];
+    }
+
+    public int arity() {
+        return arity;
+    }
+
+    public Node insert(int key) {
+        Node node = new Node(key);
+        add(node);
+        return node;
+    }
+
+    public Node findMin() {
+        return size == 0 ? null : nodes[0];
+    }
+
+    public void deleteMin() {
+        if (size > 0) {
+            removeAt(0);
+        }
+    }
+
+    public void decreaseKey(Node x, int delta) {
+        x.key -= delta;
+        siftUp(x.index, x);
+    }
+
+    public void delete(Node x) {
+        removeAt(x.index);
+    }
+
+    /**
+     * public void meld(IntPriorityQueue&lt;Node&gt; other)
+     * <p>
+     * Moves the nodes of other, which must be a DaryHeap, into this heap; other is left empty.
+     */
+    public void meld(IntPriorityQueue<Node> other) {
+        if (!(other instanceof DaryHeap)) {
+            throw new IllegalArgumentException("cannot meld a " + other.getClass().getSimpleName() + " into a DaryHeap");
+        }
+        DaryHeap heap2 = (DaryHeap) other;
+        if (heap2 == this) {
+            return;
+        }
+        for (int i = 0; i < heap2.size; i++) {
+            add(heap2.nodes[i]);
+            heap2.nodes[i] = null;
+        }
+        heap2.size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void add(Node node) {
+        if (size == nodes.length) {
+            nodes = Arrays.copyOf(nodes, 2 * size);
+        }
+        siftUp(size++, node);
+    }
+
+    private void removeAt(int i) {
+        Node removed = nodes[i];
+        Node last = nodes[--size];
+        nodes[size] = null;
+        removed.index = -1;
+        if (i < size) {
+            // last may have to move either way, it came from another subtree
+            if (i > 0 && last.key < nodes[(i - 1) / arity].key) {
+                siftUp(i, last);
+            } else {
+                siftDown(i, last);
+            }
+        }
+    }
+
+    private void siftUp(int i, Node node) {
+        while (i > 0) {
+            int parent = (i - 1) / arity;
+            if (nodes[parent].key <= node.key) break;
+            nodes[i] = nodes[parent];
+            nodes[i].index = i;
+            i = parent;
+        }
+        nodes[i] = node;
+        node.index = i;
+    }
+
+    private void siftDown(int i, Node node) {
+        while (true) {
+            int first = i * arity + 1;
+            if (first >= size) break;
+            int min = first;
+            for (int c = first + 1, end = Math.min(first + arity, size); c < end; c++) {
+                if (nodes[c].key < nodes[min].key) min = c;
+            }
+            if (node.key <= nodes[min].key) break;
+            nodes[i] = nodes[min];
+            nodes[i].index = i;
+            i = min;
+        }
+        nodes[i] = node;
+        node.index = i;
+    }
+
+    public static final class Node implements IntPriorityQueue.Handle {
+        private int key;
+        private int index;
+
+        Node(int key) {
+            this.key = key;
+        }
+
+        public int getKey() {
+            return key;
+        }
+    }
+}
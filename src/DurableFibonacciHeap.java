@@ -0,0 +1,512 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * DurableFibonacciHeap
+ * <p>
+ * A fibonacci heap over integers with the id based interface of IndexedFibonacciHeap that survives a crash
+ * of its process. Every insert, decreaseKey, delete and deleteMin is appended to a write-ahead log in its
+ * directory before it is applied; opening the directory again loads the latest snapshot and replays the
+ * log after it, which leaves exactly the heap (trees included) of the last logged operation.
+ * <p>
+ * The log is split into segments of about segmentBytes. Records are collected in a buffer and written
+ * (group committed) with one FileChannel write per batch; the FsyncPolicy decides how often the writes are
+ * forced to the device. checkpoint() writes a structural snapshot (FibonacciHeapSnapshot with the ids as
+ * node tags) and drops the segments it covers.
+ * <p>
+ * Log record (16 bytes, little-endian): op, id, key or delta, check. Recovery stops at the first record
+ * whose check does not match, which is where a crash tore the last write; the rest of that segment is cut off.
+ * A record whose check matches but that does not apply to the heap fails recovery with an IOException.
+ * <p>
+ * The directory is forced after every change to its entries (a new segment, a renamed snapshot) so that
+ * the change survives a crash of the machine. If writing the log fails, the heap can no longer tell what
+ * reached the device: every later call that writes or syncs throws IllegalStateException, and the
+ * directory has to be opened again.
+ */
+public class DurableFibonacciHeap implements AutoCloseable {
+
+    /**
+     * When log writes are forced to the device, trading the operations a crash may lose for throughput.
+     */
+    public enum FsyncPolicy {
+        /**
+         * Every operation is written and forced before it returns; a crash loses nothing.
+         */
+        ALWAYS,
+        /**
+         * Operations are written and forced batchSize at a time (and by sync, checkpoint and close);
+         * a crash loses at most the last batch.
+         */
+        BATCH,
+        /**
+         * Operations are written batchSize at a time and only forced by sync, checkpoint and close, the
+         * operating system decides the rest; a crash of the process loses at most the last batch, a crash
+         * of the machine whatever the operating system had not written back.
+         */
+        NEVER
+    }
+
+    static final int RECORD_BYTES = 16;
+    static final int DEFAULT_BATCH_SIZE = 256;
+    static final long DEFAULT_SEGMENT_BYTES = 64L << 20;
+
+    static final int INSERT = 1;
+    static final int DECREASE_KEY = 2;
+    static final int DELETE = 3;
+    static final int DELETE_MIN = 4;
+
+    private static final String LOG_PREFIX = "log-";
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+
+    private final Path directory;
+    private final FsyncPolicy policy;
+    private final long segmentBytes;
+    private final DurableNode[] nodeOfId;
+    private FibonacciHeap heap;
+
+    private final ByteBuffer batch; // records not yet written to the segment
+    private FileChannel segment;
+    private long segmentNumber;
+    private long segmentLength;
+    private boolean closed;
+    private IOException failure; // the write that failed, the log must not be appended to after it
+
+    /**
+     * Opens (or creates) the heap in directory for ids 0..capacity-1, with BATCH fsync policy.
+     */
+    public DurableFibonacciHeap(Path directory, int capacity) throws IOException {
+        this(directory, capacity, FsyncPolicy.BATCH, DEFAULT_BATCH_SIZE, DEFAULT_SEGMENT_BYTES);
+    }
+
+    /**
+     * Opens (or creates) the heap in directory for ids 0..capacity-1, recovering the state of the last
+     * operation that reached the log. Up to batchSize records are group committed at once and a segment
+     * is closed once it holds segmentBytes or more.
+     */
+    public DurableFibonacciHeap(Path directory, int capacity, FsyncPolicy policy, int batchSize, long segmentBytes)
+            throws IOException {
+        if (capacity < 0 || batchSize < 1 || segmentBytes < RECORD_BYTES) {
+            throw new IllegalArgumentException("invalid capacity, batch size or segment size");
+        }
+        this.directory = directory;
+        this.policy = policy;
+        this.segmentBytes = segmentBytes;
+        this.nodeOfId = new DurableNode[capacity];
+        int records = policy == FsyncPolicy.ALWAYS ? 1 : batchSize;
+        this.batch = ByteBuffer.allocateDirect(records * RECORD_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        Files.createDirectories(directory);
+        recover();
+    }
+
+    /**
+     * public boolean contains(int id)
+     * <p>
+     * Return true if the heap holds an entry for id.
+     */
+    public boolean contains(int id) {
+        return nodeOfId[id] != null;
+    }
+
+    /**
+     * public void insert(int id, int key)
+     * <p>
+     * Inserts an entry with the given key for id. Throws IllegalArgumentException if id is already in the heap.
+     */
+    public void insert(int id, int key) throws IOException {
+        if (nodeOfId[id] != null) {
+            throw new IllegalArgumentException("id " + id + " is already in the heap");
+        }
+        append(INSERT, id, key);
+        applyInsert(id, key);
+    }
+
+    /**
+     * public int keyOf(int id)
+     * <p>
+     * Return the key of id. Throws NoSuchElementException if id is not in the heap.
+     */
+    public int keyOf(int id) {
+        return node(id).getKey();
+    }
+
+    /**
+     * public void decreaseKey(int id, int delta)
+     * <p>
+     * Decreases the key of id by delta.
+     */
+    public void decreaseKey(int id, int delta) throws IOException {
+        DurableNode node = node(id);
+        append(DECREASE_KEY, id, delta);
+        heap.decreaseKey(node, delta);
+    }
+
+    /**
+     * public void delete(int id)
+     * <p>
+     * Deletes the entry of id from the heap.
+     */
+    public void delete(int id) throws IOException {
+        DurableNode node = node(id);
+        append(DELETE, id, 0);
+        heap.delete(node);
+        nodeOfId[id] = null;
+    }
+
+    /**
+     * public int findMin()
+     * <p>
+     * Return the id whose key is minimal, or -1 if the heap is empty.
+     */
+    public int findMin() {
+        DurableNode min = (DurableNode) heap.findMin();
+        return min == null ? -1 : min.id;
+    }
+
+    /**
+     * public int findMinKey()
+     * <p>
+     * Return the minimal key. Throws NoSuchElementException if the heap is empty.
+     */
+    public int findMinKey() {
+        FibonacciHeap.HeapNode min = heap.findMin();
+        if (min == null) {
+            throw new NoSuchElementException("heap is empty");
+        }
+        return min.getKey();
+    }
+
+    /**
+     * public int deleteMin()
+     * <p>
+     * Deletes the entry whose key is minimal and returns its id.
+     * Throws NoSuchElementException if the heap is empty.
+     */
+    public int deleteMin() throws IOException {
+        DurableNode min = (DurableNode) heap.findMin();
+        if (min == null) {
+            throw new NoSuchElementException("heap is empty");
+        }
+        // the id is logged so that the replay deletes this node even if other roots tie with its key
+        append(DELETE_MIN, min.id, 0);
+        heap.deleteMin();
+        nodeOfId[min.id] = null;
+        return min.id;
+    }
+
+    public boolean isEmpty() {
+        return heap.isEmpty();
+    }
+
+    public int size() {
+        return heap.size();
+    }
+
+    public int potential() {
+        return heap.potential();
+    }
+
+    public int capacity() {
+        return nodeOfId.length;
+    }
+
+    public FsyncPolicy getFsyncPolicy() {
+        return policy;
+    }
+
+    /**
+     * public void sync()
+     * <p>
+     * Writes the batched records and forces the log to the device, whatever the policy.
+     */
+    public void sync() throws IOException {
+        ensureOpen();
+        try {
+            flush(true);
+        } catch (IOException e) {
+            throw fail(e);
+        }
+    }
+
+    /**
+     * public void checkpoint()
+     * <p>
+     * Writes a snapshot of the heap, starts a new log segment after it and deletes the older snapshots and
+     * segments, which recovery no longer needs. The snapshot is written to a temporary file and renamed, so a
+     * crash in between leaves the previous checkpoint intact; nothing is deleted before the rename and the
+     * new segment are forced to the directory.
+     */
+    public void checkpoint() throws IOException {
+        ensureOpen();
+        try {
+            flush(true);
+            long next = segmentNumber + 1;
+            Path temporary = directory.resolve(SNAPSHOT_PREFIX + "tmp");
+            FibonacciHeapSnapshot.write(heap, temporary, node -> ((DurableNode) node).id);
+            Files.move(temporary, file(SNAPSHOT_PREFIX, next), StandardCopyOption.ATOMIC_MOVE);
+            forceDirectory();
+            segment.close();
+            openSegment(next);
+            for (long number : numbers(LOG_PREFIX)) {
+                if (number < next) {
+                    Files.delete(file(LOG_PREFIX, number));
+                }
+            }
+            for (long number : numbers(SNAPSHOT_PREFIX)) {
+                if (number < next) {
+                    Files.delete(file(SNAPSHOT_PREFIX, number));
+                }
+            }
+        } catch (IOException e) {
+            throw fail(e);
+        }
+    }
+
+    /**
+     * public void close()
+     * <p>
+     * Writes and forces the batched records and closes the log. The heap must not be used afterwards.
+     * After a failed write the batch is dropped, it is not known to be on the device.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            if (failure == null) {
+                flush(true);
+            }
+        } finally {
+            segment.close();
+        }
+    }
+
+    private DurableNode node(int id) {
+        DurableNode node = nodeOfId[id];
+        if (node == null) {
+            throw new NoSuchElementException("id " + id + " is not in the heap");
+        }
+        return node;
+    }
+
+    private void applyInsert(int id, int key) {
+        DurableNode node = new DurableNode(key, id);
+        heap.insertNode(node);
+        nodeOfId[id] = node;
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("heap is closed");
+        }
+        if (failure != null) {
+            throw new IllegalStateException("writing the log failed, the heap has to be opened again", failure);
+        }
+    }
+
+    /*marks the log as failed, so that nothing is appended after a record that may be partly written*/
+    private IOException fail(IOException e) {
+        failure = e;
+        return e;
+    }
+
+    /*adds a record to the batch, committing the batch when it is full. If the commit fails, the operation
+      is not applied and the heap refuses any further write*/
+    private void append(int op, int id, int value) throws IOException {
+        ensureOpen();
+        batch.putInt(op).putInt(id).putInt(value).putInt(check(op, id, value));
+        if (!batch.hasRemaining()) {
+            try {
+                flush(policy != FsyncPolicy.NEVER);
+            } catch (IOException e) {
+                throw fail(e);
+            }
+        }
+    }
+
+    /*writes the batch to the segment with one write, forcing it if force is set, and rolls the segment over
+      once it is long enough*/
+    private void flush(boolean force) throws IOException {
+        batch.flip();
+        segmentLength += batch.remaining();
+        while (batch.hasRemaining()) {
+            segment.write(batch);
+        }
+        batch.clear();
+        if (force) {
+            segment.force(false);
+        }
+        if (segmentLength >= segmentBytes) {
+            if (!force && policy != FsyncPolicy.NEVER) {
+                segment.force(false);
+            }
+            segment.close();
+            openSegment(segmentNumber + 1);
+        }
+    }
+
+    private static int check(int op, int id, int value) {
+        int h = op * 0x9E3779B1 ^ id * 0x85EBCA6B ^ value * 0xC2B2AE35;
+        return (h ^ (h >>> 15)) | 1; // never 0, so zero-filled space after a torn write is never a record
+    }
+
+    private void recover() throws IOException {
+        List<Long> snapshots = numbers(SNAPSHOT_PREFIX);
+        long start = 0;
+        if (snapshots.isEmpty()) {
+            heap = new FibonacciHeap();
+        } else {
+            start = snapshots.get(snapshots.size() - 1);
+            heap = FibonacciHeapSnapshot.read(file(SNAPSHOT_PREFIX, start), FibonacciHeap.ConsolidationMode.EAGER,
+                    (key, id) -> {
+                        if (id < 0 || id >= nodeOfId.length || nodeOfId[id] != null) {
+                            throw new IOException("snapshot holds an invalid id " + id);
+                        }
+                        DurableNode node = new DurableNode(key, id);
+                        nodeOfId[id] = node;
+                        return node;
+                    });
+        }
+        List<Long> logs = new ArrayList<>();
+        for (long number : numbers(LOG_PREFIX)) {
+            if (number >= start) {
+                logs.add(number);
+            }
+        }
+        for (int i = 0; i < logs.size(); i++) {
+            replay(logs.get(i), i == logs.size() - 1);
+        }
+        long last = logs.isEmpty() ? start : logs.get(logs.size() - 1);
+        openSegment(last);
+        if (segmentLength >= segmentBytes) {
+            segment.close();
+            openSegment(last + 1);
+        }
+    }
+
+    /*applies the records of a segment; a torn tail is cut off if it is the last segment and fails otherwise*/
+    private void replay(long number, boolean last) throws IOException {
+        Path path = file(LOG_PREFIX, number);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocate(4096 * RECORD_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            long valid = 0;
+            boolean torn = false;
+            while (!torn && channel.read(buffer) > 0) {
+                buffer.flip();
+                while (buffer.remaining() >= RECORD_BYTES) {
+                    int op = buffer.getInt();
+                    int id = buffer.getInt();
+                    int value = buffer.getInt();
+                    if (buffer.getInt() != check(op, id, value)) {
+                        torn = true;
+                        break;
+                    }
+                    // an intact record that does not fit the heap is not a torn write, cutting it would lose the log
+                    if (!apply(op, id, value)) {
+                        throw new IOException("log record " + (valid / RECORD_BYTES) + " of " + path
+                                + " does not apply to the recovered heap");
+                    }
+                    valid += RECORD_BYTES;
+                }
+                buffer.compact();
+            }
+            if (valid != channel.size()) {
+                if (!last) {
+                    throw new IOException("log segment is corrupt before its end: " + path);
+                }
+                channel.truncate(valid);
+            }
+        }
+    }
+
+    /*applies a logged operation without logging it again, returns false if it does not fit the heap*/
+    private boolean apply(int op, int id, int value) {
+        if (id < 0 || id >= nodeOfId.length) {
+            return false;
+        }
+        DurableNode node = nodeOfId[id];
+        switch (op) {
+            case INSERT:
+                if (node != null) return false;
+                applyInsert(id, value);
+                return true;
+            case DECREASE_KEY:
+                if (node == null) return false;
+                heap.decreaseKey(node, value);
+                return true;
+            case DELETE:
+                if (node == null) return false;
+                heap.delete(node);
+                nodeOfId[id] = null;
+                return true;
+            case DELETE_MIN:
+                // with tied keys the restored heap may have picked another minimum than the logged one
+                if (node == null || !heap.chooseMin(node)) return false;
+                heap.deleteMin();
+                nodeOfId[id] = null;
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /*opens a segment for appending; a new one is forced to the directory before anything is written to it*/
+    private void openSegment(long number) throws IOException {
+        Path path = file(LOG_PREFIX, number);
+        boolean created = !Files.exists(path);
+        segment = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        segmentLength = segment.size();
+        segment.position(segmentLength);
+        segmentNumber = number;
+        if (created) {
+            forceDirectory();
+        }
+    }
+
+    /*forces the entries of the directory (created, renamed and deleted files) to the device*/
+    private void forceDirectory() throws IOException {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        }
+    }
+
+    private Path file(String prefix, long number) {
+        return directory.resolve(prefix + String.format("%016d", number));
+    }
+
+    /*the numbers of the files with the given prefix, ascending*/
+    private List<Long> numbers(String prefix) throws IOException {
+        List<Long> numbers = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, prefix + "*")) {
+            for (Path file : files) {
+                String suffix = file.getFileName().toString().substring(prefix.length());
+                if (suffix.length() == 16 && suffix.chars().allMatch(Character::isDigit)) {
+                    numbers.add(Long.parseLong(suffix));
+                }
+            }
+        }
+        Collections.sort(numbers);
+        return numbers;
+    }
+
+    private static final class DurableNode extends FibonacciHeap.HeapNode {
+        final int id;
+
+        DurableNode(int key, int id) {
+            super(key);
+            this.id = id;
+        }
+    }
+}
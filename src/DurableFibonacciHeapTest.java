@@ -0,0 +1,240 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.Stream;
+
+class DurableFibonacciHeapTest {
+
+    private static final int CAPACITY = 2000;
+
+    /*random operations on heap and on the reference keys, -1 meaning absent*/
+    private static void randomOperations(DurableFibonacciHeap heap, int[] keys, Random random, int count) throws IOException {
+        randomOperations(heap, keys, random, count, 1 << 20);
+    }
+
+    /*inserts draw their keys from [0, keyRange)*/
+    private static void randomOperations(DurableFibonacciHeap heap, int[] keys, Random random, int count,
+                                         int keyRange) throws IOException {
+        for (int i = 0; i < count; i++) {
+            int id = random.nextInt(CAPACITY);
+            int op = random.nextInt(10);
+            if (keys[id] < 0) {
+                keys[id] = random.nextInt(keyRange);
+                heap.insert(id, keys[id]);
+            } else if (op < 3) {
+                int delta = random.nextInt(1000) + 1;
+                keys[id] = Math.max(0, keys[id] - delta);
+                heap.decreaseKey(id, heap.keyOf(id) - keys[id]);
+            } else if (op < 4) {
+                heap.delete(id);
+                keys[id] = -1;
+            } else if (op < 7 && !heap.isEmpty()) {
+                keys[heap.deleteMin()] = -1;
+            }
+        }
+    }
+
+    private static void assertSameHeap(DurableFibonacciHeap heap, DurableFibonacciHeap recovered, int[] keys) {
+        assert (recovered.size() == heap.size()) : "recovered size is incorrect";
+        assert (recovered.potential() == heap.potential()) : "recovered trees are incorrect";
+        assert (recovered.findMin() == heap.findMin()) : "recovered min is incorrect";
+        for (int id = 0; id < CAPACITY; id++) {
+            assert (recovered.contains(id) == keys[id] >= 0) : "recovered ids are incorrect";
+            assert (keys[id] < 0 || recovered.keyOf(id) == keys[id]) : "recovered key is incorrect";
+        }
+    }
+
+    void testRecovery(Path directory) throws IOException {
+        Random random = new Random(3L);
+        int[] keys = new int[CAPACITY];
+        Arrays.fill(keys, -1);
+        DurableFibonacciHeap heap = new DurableFibonacciHeap(directory, CAPACITY,
+                DurableFibonacciHeap.FsyncPolicy.BATCH, 64, 4096);
+        randomOperations(heap, keys, random, 20000);
+        heap.sync();
+        // the process dies here, without close
+        try (DurableFibonacciHeap recovered = new DurableFibonacciHeap(directory, CAPACITY)) {
+            assertSameHeap(heap, recovered, keys);
+        }
+        System.out.println("testRecovery Passed!");
+    }
+
+    void testCheckpoint(Path directory) throws IOException {
+        Random random = new Random(4L);
+        int[] keys = new int[CAPACITY];
+        Arrays.fill(keys, -1);
+        DurableFibonacciHeap heap = new DurableFibonacciHeap(directory, CAPACITY,
+                DurableFibonacciHeap.FsyncPolicy.ALWAYS, 1, 1 << 12);
+        randomOperations(heap, keys, random, 5000);
+        heap.checkpoint();
+        try (Stream<Path> files = Files.list(directory)) {
+            assert (files.count() == 2) : "checkpoint left old files behind";
+        }
+        randomOperations(heap, keys, random, 5000);
+        heap.close();
+        try (DurableFibonacciHeap recovered = new DurableFibonacciHeap(directory, CAPACITY)) {
+            assertSameHeap(heap, recovered, keys);
+            // the recovered heap keeps logging after the recovered operations
+            recovered.checkpoint();
+            randomOperations(recovered, keys, random, 2000);
+            heap = recovered;
+        }
+        try (DurableFibonacciHeap recovered = new DurableFibonacciHeap(directory, CAPACITY)) {
+            assertSameHeap(heap, recovered, keys);
+        }
+        System.out.println("testCheckpoint Passed!");
+    }
+
+    void testTornTail(Path directory) throws IOException {
+        int[] keys = new int[CAPACITY];
+        Arrays.fill(keys, -1);
+        DurableFibonacciHeap heap = new DurableFibonacciHeap(directory, CAPACITY,
+                DurableFibonacciHeap.FsyncPolicy.NEVER, 16, 1 << 20);
+        randomOperations(heap, keys, new Random(5L), 1000);
+        heap.close();
+        Path log;
+        try (Stream<Path> files = Files.list(directory)) {
+            log = files.filter(file -> file.getFileName().toString().startsWith("log-"))
+                    .max(Comparator.naturalOrder()).orElseThrow();
+        }
+        // half a record and a zero-filled block, as a crash in the middle of a write leaves them
+        try (FileChannel channel = FileChannel.open(log, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            channel.write(ByteBuffer.wrap(new byte[]{1, 0, 0, 0, 7, 0, 0, 0}));
+            channel.write(ByteBuffer.allocate(4096));
+        }
+        long length = Files.size(log);
+        try (DurableFibonacciHeap recovered = new DurableFibonacciHeap(directory, CAPACITY)) {
+            assertSameHeap(heap, recovered, keys);
+            assert (Files.size(log) == length - 4096 - 8) : "torn tail was not cut off";
+        }
+        System.out.println("testTornTail Passed!");
+    }
+
+    void testTiedKeys(Path directory) throws IOException {
+        DurableFibonacciHeap heap = new DurableFibonacciHeap(directory, CAPACITY);
+        heap.insert(0, 5);
+        heap.insert(1, 5);
+        heap.insert(2, 9);
+        heap.checkpoint();
+        int deleted = heap.deleteMin();
+        heap.insert(3, 1);
+        heap.close();
+        try (DurableFibonacciHeap recovered = new DurableFibonacciHeap(directory, CAPACITY)) {
+            assert (recovered.size() == 3) : "recovered size is incorrect";
+            assert (!recovered.contains(deleted) && recovered.contains(1 - deleted)) : "replay deleted another tied minimum";
+            assert (recovered.contains(3) && recovered.findMin() == 3) : "records after the tie were lost";
+        }
+        System.out.println("testTiedKeys Passed!");
+    }
+
+    void testCheckpointTiedKeys(Path directory) throws IOException {
+        // with two keys almost every minimum is tied, the restored heap must keep the very minimum root
+        for (long seed = 0; seed < 100; seed++) {
+            Random random = new Random(seed);
+            int[] keys = new int[CAPACITY];
+            Arrays.fill(keys, -1);
+            Path seedDirectory = directory.resolve(Long.toString(seed));
+            DurableFibonacciHeap heap = new DurableFibonacciHeap(seedDirectory, CAPACITY,
+                    DurableFibonacciHeap.FsyncPolicy.NEVER, 64, 1 << 20);
+            for (int round = 0; round < 20; round++) {
+                randomOperations(heap, keys, random, random.nextInt(100), 2);
+                heap.checkpoint();
+                randomOperations(heap, keys, random, random.nextInt(20), 2);
+                heap.close();
+                DurableFibonacciHeap recovered = new DurableFibonacciHeap(seedDirectory, CAPACITY,
+                        DurableFibonacciHeap.FsyncPolicy.NEVER, 64, 1 << 20);
+                assertSameHeap(heap, recovered, keys);
+                heap = recovered;
+            }
+            heap.close();
+        }
+        System.out.println("testCheckpointTiedKeys Passed!");
+    }
+
+    void testRecordThatDoesNotApply(Path directory) throws IOException {
+        DurableFibonacciHeap heap = new DurableFibonacciHeap(directory, CAPACITY);
+        heap.insert(0, 5);
+        heap.delete(0);
+        heap.insert(1, 7);
+        heap.close();
+        Path log;
+        try (Stream<Path> files = Files.list(directory)) {
+            log = files.filter(file -> file.getFileName().toString().startsWith("log-")).findFirst().orElseThrow();
+        }
+        // drop the insert of id 0, so its intact delete record refers to an id the heap does not hold
+        byte[] records = Files.readAllBytes(log);
+        Files.write(log, Arrays.copyOfRange(records, DurableFibonacciHeap.RECORD_BYTES, records.length));
+        try {
+            new DurableFibonacciHeap(directory, CAPACITY).close();
+            assert false : "recovery applied a record that does not fit the heap";
+        } catch (IOException expected) {
+        }
+        assert (Files.size(log) == records.length - DurableFibonacciHeap.RECORD_BYTES) : "recovery cut off intact records";
+        System.out.println("testRecordThatDoesNotApply Passed!");
+    }
+
+    void testFailedWrite(Path directory) throws IOException {
+        DurableFibonacciHeap heap = new DurableFibonacciHeap(directory, CAPACITY,
+                DurableFibonacciHeap.FsyncPolicy.ALWAYS, 1, 4096);
+        heap.insert(0, 5);
+        heap.insert(1, 3);
+        // the device goes away under the log
+        try {
+            java.lang.reflect.Field segment = DurableFibonacciHeap.class.getDeclaredField("segment");
+            segment.setAccessible(true);
+            ((FileChannel) segment.get(heap)).close();
+        } catch (ReflectiveOperationException e) {
+            throw new AssertionError(e);
+        }
+        try {
+            heap.insert(2, 1);
+            assert false : "a failed log write was not reported";
+        } catch (IOException expected) {
+        }
+        assert (!heap.contains(2) && heap.findMin() == 1) : "an operation that was not logged was applied";
+        try {
+            heap.insert(3, 1);
+            assert false : "the heap appended to the log after a failed write";
+        } catch (IllegalStateException expected) {
+        }
+        heap.close();
+        try (DurableFibonacciHeap recovered = new DurableFibonacciHeap(directory, CAPACITY)) {
+            assert (recovered.size() == 2 && recovered.findMin() == 1) : "logged operations were lost";
+        }
+        System.out.println("testFailedWrite Passed!");
+    }
+
+    private static Path emptyDirectory() throws IOException {
+        return Files.createTempDirectory("durable-heap");
+    }
+
+    private static void deleteDirectory(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        DurableFibonacciHeapTest test = new DurableFibonacciHeapTest();
+        Path directory = emptyDirectory();
+        try {
+            test.testRecovery(directory.resolve("recovery"));
+            test.testCheckpoint(directory.resolve("checkpoint"));
+            test.testTornTail(directory.resolve("torn"));
+            test.testTiedKeys(directory.resolve("tied"));
+            test.testCheckpointTiedKeys(directory.resolve("tiedCheckpoint"));
+            test.testRecordThatDoesNotApply(directory.resolve("invalid"));
+            test.testFailedWrite(directory.resolve("failed"));
+        } finally {
+            deleteDirectory(directory);
+        }
+    }
+}
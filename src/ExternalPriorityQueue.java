@@ -0,0 +1,390 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * ExternalPriorityQueue
+ * <p>
+ * A priority queue over integers that may hold more keys than fit in memory. Up to memoryLimit keys live
+ * in a FibonacciHeap; when it grows past that, its upper half is written to a sorted run file in the spill
+ * directory and the lower half stays in memory, so the hot low keys are served from the heap. findMin and
+ * deleteMin compare the heap minimum with the heads of the runs and consume a run, block by block, once its
+ * keys are the smallest.
+ * <p>
+ * All disk access is sequential and batched: runs are written and read through direct buffers of BLOCK_KEYS
+ * keys. Runs are merged size-tiered: a spilled run is on level 0, and once maxRuns runs share a level they
+ * are merged into one run on the next level. Every key is thus rewritten O(log_maxRuns(spilled keys)) times
+ * and at most maxRuns - 1 runs are kept per level. I/O errors are thrown as UncheckedIOException, so insert,
+ * findMin and deleteMin keep the signatures of the in-memory heap; a failed spill or merge leaves the queue
+ * as it was and deletes the file it was writing.
+ */
+public class ExternalPriorityQueue implements AutoCloseable {
+
+    static final int BLOCK_KEYS = 8192;
+    static final int DEFAULT_MAX_RUNS = 16;
+
+    private final Path directory;
+    private final int memoryLimit;
+    private final int maxRuns;
+    private FibonacciHeap heap = new FibonacciHeap();
+    private final List<Run> runs = new ArrayList<>();
+    private Run minRun; // the run with the smallest head, null if there are no runs
+    private long size;
+    private long runFiles; // names the run files
+    private long spilled; // keys written to runs, merges included
+
+    public ExternalPriorityQueue(Path directory, int memoryLimit) {
+        this(directory, memoryLimit, DEFAULT_MAX_RUNS);
+    }
+
+    /**
+     * Creates a queue keeping at most memoryLimit keys in memory, spilling to run files in directory and
+     * merging maxRuns runs of a level into one.
+     */
+    public ExternalPriorityQueue(Path directory, int memoryLimit, int maxRuns) {
+        if (memoryLimit < 2 || maxRuns < 2) {
+            throw new IllegalArgumentException("memoryLimit and maxRuns must be at least 2");
+        }
+        this.directory = directory;
+        this.memoryLimit = memoryLimit;
+        this.maxRuns = maxRuns;
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * public void insert(int key)
+     * <p>
+     * Inserts key, spilling the upper half of the in-memory keys first if the heap is full.
+     */
+    public void insert(int key) {
+        if (heap.size() == memoryLimit) {
+            spill();
+        }
+        heap.insert(key);
+        size++;
+    }
+
+    /**
+     * public int findMin()
+     * <p>
+     * Return the minimal key. Throws NoSuchElementException if the queue is empty.
+     */
+    public int findMin() {
+        FibonacciHeap.HeapNode min = heap.findMin();
+        if (minRun != null && (min == null || minRun.head < min.getKey())) {
+            return minRun.head;
+        }
+        if (min == null) {
+            throw new NoSuchElementException("queue is empty");
+        }
+        return min.getKey();
+    }
+
+    /**
+     * public void deleteMin()
+     * <p>
+     * Deletes the minimal key, if the queue is not empty.
+     */
+    public void deleteMin() {
+        FibonacciHeap.HeapNode min = heap.findMin();
+        if (minRun != null && (min == null || minRun.head < min.getKey())) {
+            try {
+                if (!minRun.advance()) {
+                    runs.remove(minRun);
+                    minRun.delete();
+                }
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+            minRun = smallestRun(runs);
+            size--;
+        } else if (min != null) {
+            heap.deleteMin();
+            size--;
+        }
+    }
+
+    public long size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * public int memorySize()
+     * <p>
+     * Return the number of keys held in memory.
+     */
+    public int memorySize() {
+        return heap.size();
+    }
+
+    public int runs() {
+        return runs.size();
+    }
+
+    /**
+     * public long spilledKeys()
+     * <p>
+     * Return the number of keys written to run files so far, keys rewritten by merges included.
+     */
+    public long spilledKeys() {
+        return spilled;
+    }
+
+    /**
+     * public void close()
+     * <p>
+     * Deletes the run files. The queue must not be used afterwards.
+     */
+    @Override
+    public void close() {
+        try {
+            for (Run run : runs) {
+                run.delete();
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        } finally {
+            runs.clear();
+            minRun = null;
+            heap = new FibonacciHeap();
+            size = 0;
+        }
+    }
+
+    /*writes the upper half of the in-memory keys to a new run, merging the levels that are full. The run is
+      written before the heap gives up its keys, so a failure loses nothing*/
+    private void spill() {
+        int n = heap.size();
+        int[] keys = new int[n];
+        heap.pollMin(n, keys);
+        int keep = n / 2;
+        Run run;
+        try {
+            run = writeRun(keys, keep, n);
+        } catch (IOException ex) {
+            heap.insertAll(keys, 0, n);
+            throw new UncheckedIOException(ex);
+        }
+        heap = new FibonacciHeap();
+        heap.insertAll(keys, 0, keep);
+        runs.add(run);
+        try {
+            for (int level = 0; merge(level); level++) {
+                // a merge fills the next level, which may be full in turn
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        } finally {
+            minRun = smallestRun(runs);
+        }
+    }
+
+    /*writes keys[from..to), which are sorted, to a new level 0 run*/
+    private Run writeRun(int[] keys, int from, int to) throws IOException {
+        Path file = nextFile();
+        try {
+            try (RunWriter writer = new RunWriter(file)) {
+                for (int i = from; i < to; i++) {
+                    writer.write(keys[i]);
+                }
+            }
+            Run run = new Run(file, 0, 0);
+            spilled += to - from;
+            return run;
+        } catch (IOException ex) {
+            deleteAfterFailure(file, ex);
+            throw ex;
+        }
+    }
+
+    /*merges the runs of level into one run on the next level if there are maxRuns of them, returns whether
+      it did. The runs are read through readers of their own and only deleted once the merged run is written*/
+    private boolean merge(int level) throws IOException {
+        List<Run> sources = new ArrayList<>();
+        for (Run run : runs) {
+            if (run.level == level) {
+                sources.add(run);
+            }
+        }
+        if (sources.size() < maxRuns) {
+            return false;
+        }
+        Path file = nextFile();
+        List<Run> readers = new ArrayList<>();
+        Run merged;
+        long written = 0;
+        try {
+            try (RunWriter writer = new RunWriter(file)) {
+                for (Run run : sources) {
+                    readers.add(run.reopen());
+                }
+                Run run;
+                while ((run = smallestRun(readers)) != null) {
+                    writer.write(run.head);
+                    written++;
+                    if (!run.advance()) {
+                        readers.remove(run);
+                        run.close();
+                    }
+                }
+            }
+            merged = new Run(file, 0, level + 1);
+        } catch (IOException ex) {
+            for (Run reader : readers) {
+                try {
+                    reader.close();
+                } catch (IOException closing) {
+                    ex.addSuppressed(closing);
+                }
+            }
+            deleteAfterFailure(file, ex);
+            throw ex;
+        }
+        spilled += written;
+        runs.add(merged);
+        runs.removeAll(sources);
+        for (Run run : sources) {
+            run.delete();
+        }
+        return true;
+    }
+
+    /*deletes a file that could not be written, keeping the original failure*/
+    private static void deleteAfterFailure(Path file, IOException failure) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ex) {
+            failure.addSuppressed(ex);
+        }
+    }
+
+    private static Run smallestRun(List<Run> runs) {
+        Run min = null;
+        for (Run run : runs) {
+            if (min == null || run.head < min.head) {
+                min = run;
+            }
+        }
+        return min;
+    }
+
+    private Path nextFile() {
+        return directory.resolve("run-" + runFiles++);
+    }
+
+    /*sequential writer of a run file, one FileChannel write per BLOCK_KEYS keys*/
+    private final class RunWriter implements AutoCloseable {
+        private final FileChannel channel;
+        private final ByteBuffer block = ByteBuffer.allocateDirect(BLOCK_KEYS * Integer.BYTES).order(ByteOrder.nativeOrder());
+        private final IntBuffer keys = block.asIntBuffer();
+
+        RunWriter(Path file) throws IOException {
+            channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        }
+
+        void write(int key) throws IOException {
+            keys.put(key);
+            if (!keys.hasRemaining()) {
+                flush();
+            }
+        }
+
+        private void flush() throws IOException {
+            block.position(0).limit(keys.position() * Integer.BYTES);
+            while (block.hasRemaining()) {
+                channel.write(block);
+            }
+            block.clear();
+            keys.clear();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                flush();
+            } finally {
+                channel.close();
+            }
+        }
+    }
+
+    /*a run file read sequentially, BLOCK_KEYS keys per FileChannel read; head is the smallest unread key and
+      index its position in the file*/
+    private static final class Run {
+        private final Path file;
+        private final FileChannel channel;
+        private final ByteBuffer block = ByteBuffer.allocateDirect(BLOCK_KEYS * Integer.BYTES).order(ByteOrder.nativeOrder());
+        private final IntBuffer keys = block.asIntBuffer();
+        final int level;
+        int head;
+        long index;
+
+        /*opens file for reading from the key at start*/
+        Run(Path file, long start, int level) throws IOException {
+            this.file = file;
+            this.level = level;
+            this.channel = FileChannel.open(file, StandardOpenOption.READ);
+            try {
+                channel.position(start * Integer.BYTES);
+                keys.limit(0);
+                index = start - 1;
+                if (!advance()) {
+                    throw new IOException("empty run file: " + file);
+                }
+            } catch (IOException ex) {
+                channel.close();
+                throw ex;
+            }
+        }
+
+        /*a second reader of the unread keys of this run, leaving this one where it is*/
+        Run reopen() throws IOException {
+            return new Run(file, index, level);
+        }
+
+        /*moves head to the next key, returns false at the end of the run*/
+        boolean advance() throws IOException {
+            if (!keys.hasRemaining()) {
+                block.clear();
+                int read;
+                do {
+                    read = channel.read(block);
+                } while (read >= 0 && block.hasRemaining());
+                keys.clear();
+                keys.limit(block.position() / Integer.BYTES);
+                if (!keys.hasRemaining()) {
+                    return false;
+                }
+            }
+            head = keys.get();
+            index++;
+            return true;
+        }
+
+        void close() throws IOException {
+            channel.close();
+        }
+
+        void delete() throws IOException {
+            channel.close();
+            Files.deleteIfExists(file);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.stream.Stream;
+
+class ExternalPriorityQueueTest {
+
+    void testSpillAndRefill(Path directory) {
+        try (ExternalPriorityQueue queue = new ExternalPriorityQueue(directory, 1000, 4)) {
+            Random random = new Random(1L);
+            PriorityQueue<Integer> expected = new PriorityQueue<>();
+            for (int i = 0; i < 50000; i++) {
+                int key = random.nextInt();
+                queue.insert(key);
+                expected.add(key);
+            }
+            assert (queue.memorySize() <= 1000) : "memory limit was exceeded";
+            // 98 spills of 500 keys are 1202 in base 4: one run on level 3, two on level 2 and two on level 0,
+            // written by 24, 6 and 1 merges; merging everything would rewrite the large runs again and again
+            assert (queue.runs() == 5) : "runs were not merged by level";
+            assert (queue.spilledKeys() == 98 * 500 + 24 * 2000 + 6 * 8000 + 32000) : "runs were rewritten";
+            assert (queue.size() == expected.size()) : "size is incorrect";
+            while (!expected.isEmpty()) {
+                assert (queue.findMin() == expected.peek()) : "incorrect min";
+                queue.deleteMin();
+                expected.poll();
+            }
+            assert (queue.isEmpty() && queue.runs() == 0) : "queue is not empty";
+        }
+        System.out.println("testSpillAndRefill Passed!");
+    }
+
+    void testRandomOperations(Path directory) {
+        try (ExternalPriorityQueue queue = new ExternalPriorityQueue(directory, 64, 3)) {
+            Random random = new Random(2L);
+            PriorityQueue<Integer> expected = new PriorityQueue<>();
+            for (int i = 0; i < 100000; i++) {
+                if (random.nextInt(3) > 0 || expected.isEmpty()) {
+                    // keys drift upwards, as with timestamps, so spilled runs are also read back
+                    int key = i + random.nextInt(5000);
+                    queue.insert(key);
+                    expected.add(key);
+                } else {
+                    assert (queue.findMin() == expected.poll()) : "incorrect min";
+                    queue.deleteMin();
+                }
+            }
+            assert (queue.size() == expected.size()) : "size is incorrect";
+            assert (queue.spilledKeys() > 0) : "nothing was spilled";
+        }
+        System.out.println("testRandomOperations Passed!");
+    }
+
+    void testFailedSpill(Path directory) throws IOException {
+        Path spills = directory.resolve("failing");
+        try (ExternalPriorityQueue queue = new ExternalPriorityQueue(spills, 100)) {
+            for (int key = 99; key >= 0; key--) {
+                queue.insert(key);
+            }
+            Files.delete(spills);
+            try {
+                queue.insert(100);
+                assert false : "the spill did not fail";
+            } catch (UncheckedIOException expected) {
+            }
+            assert (queue.size() == 100 && queue.memorySize() == 100 && queue.runs() == 0) : "keys were lost";
+            for (int key = 0; key < 100; key++) {
+                assert (queue.findMin() == key) : "incorrect min";
+                queue.deleteMin();
+            }
+        }
+        System.out.println("testFailedSpill Passed!");
+    }
+
+    void testEmpty(Path directory) {
+        try (ExternalPriorityQueue queue = new ExternalPriorityQueue(directory, 2)) {
+            queue.deleteMin();
+            boolean thrown = false;
+            try {
+                queue.findMin();
+            } catch (NoSuchElementException ex) {
+                thrown = true;
+            }
+            assert (thrown) : "empty queue has a min";
+        }
+        System.out.println("testEmpty Passed!");
+    }
+
+    public static void main(String[] args) throws IOException {
+        ExternalPriorityQueueTest test = new ExternalPriorityQueueTest();
+        Path directory = Files.createTempDirectory("external-queue");
+        try {
+            test.testSpillAndRefill(directory);
+            test.testRandomOperations(directory);
+            test.testFailedSpill(directory);
+            test.testEmpty(directory);
+            try (Stream<Path> files = Files.list(directory)) {
+                assert (files.count() == 0) : "run files were left behind";
+            }
+        } finally {
+            Files.deleteIfExists(directory);
+        }
+    }
+}
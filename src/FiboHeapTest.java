@@ -210,16 +210,20 @@ public class FiboHeapTest {
         CreateHeapResult res = createHeap(upperBound, upperBound + 20, false);
         FibonacciHeap heap2 = res.getHeap();
         int size = heap.size(), numOfTrees = heap.getNumberOfTrees(), numMarked = getNumMarked(heap);
+        int size2 = heap2.size(), numOfTrees2 = heap2.getNumberOfTrees(), numMarked2 = getNumMarked(heap2);
         heap.meld(heap2);
-        if (heap.size() != size + heap2.size()) {
+        if (heap.size() != size + size2) {
             throw new RuntimeException("size after meld is not sum of both heaps");
         }
-        if (heap.getNumberOfTrees() != numOfTrees + heap2.getNumberOfTrees()) {
+        if (heap.getNumberOfTrees() != numOfTrees + numOfTrees2) {
             throw new RuntimeException("numOfTrees after meld is not sum of both heaps");
         }
-        if (getNumMarked(heap) != numMarked + getNumMarked(heap2)) {
+        if (getNumMarked(heap) != numMarked + numMarked2) {
             throw new RuntimeException("numMarked after meld is not sum of both heaps");
         }
+        if (!heap2.isEmpty()) {
+            throw new RuntimeException("melded heap was not emptied");
+        }
         testFibHeap(heap);
     }
 
@@ -1,3 +1,9 @@
+/**
+ * FiboMeasurements
+ * <p>
+ * Prints the link, cut and potential counters of the two measurement scenarios.
+ * Timings of these scenarios are taken by FibonacciHeapBenchmark (firstMeasurement, secondMeasurement).
+ */
 public class FiboMeasurements {
 
     public static double log2(int n) {
@@ -12,19 +18,16 @@ public class FiboMeasurements {
         return sum;
     }
 
-    public static void firstMeasurement() throws Exception {
+    public static void firstMeasurement() {
         System.out.println("######################## Measurement 1 ########################");
         FibonacciHeap.HeapNode node;
         int nodeIndex;
         for (int pow = 5; pow <= 12; pow++) {
             int m = (int) Math.pow(2, pow);
-            FibonacciHeap.totalCuts = 0;
-            FibonacciHeap.totalLinks = 0;
             System.out.println("-----------------");
             System.out.println("run for m=" + m);
             FibonacciHeap.HeapNode[] nodes = new FibonacciHeap.HeapNode[m + 1];
             FibonacciHeap heap = new FibonacciHeap();
-            long start = System.nanoTime();
             for (int j = m; j >= 0; j--) {
                 node = heap.insert(j);
                 nodes[j] = node;
@@ -35,11 +38,9 @@ public class FiboMeasurements {
                 heap.decreaseKey(nodes[nodeIndex], 150);
             }
             heap.decreaseKey(nodes[m - 1], 10);
-            System.out.println("time ms: " + ((System.nanoTime() - start)) / 1000000.0);
-            System.out.println("totalLinks=" + FibonacciHeap.totalLinks());
-            System.out.println("totalCuts=" + FibonacciHeap.totalCuts());
+            System.out.println("totalLinks=" + heap.getLinks());
+            System.out.println("totalCuts=" + heap.getCuts());
             System.out.println("potential=" + heap.potential());
-            Thread.sleep(1000);
         }
     }
 
@@ -47,13 +48,10 @@ public class FiboMeasurements {
         System.out.println("######################## Measurement 2 ########################");
         FibonacciHeap.HeapNode node;
         for (int m = 1000; m <= 3000; m += 1000) {
-            FibonacciHeap.totalCuts = 0;
-            FibonacciHeap.totalLinks = 0;
             System.out.println("-----------------");
             System.out.println("run for m=" + m);
             FibonacciHeap.HeapNode[] nodes = new FibonacciHeap.HeapNode[m];
             FibonacciHeap heap = new FibonacciHeap();
-            long start = System.nanoTime();
             for (int j = m - 1; j >= 0; j--) {
                 node = heap.insert(j);
                 nodes[j] = node;
@@ -61,14 +59,13 @@ public class FiboMeasurements {
             for (int j = 0; j < m / 2; j++) {
                 heap.deleteMin();
             }
-            System.out.println("time ms: " + ((System.nanoTime() - start) / 1000000.0));
-            System.out.println("totalLinks=" + FibonacciHeap.totalLinks());
-            System.out.println("totalCuts=" + FibonacciHeap.totalCuts());
+            System.out.println("totalLinks=" + heap.getLinks());
+            System.out.println("totalCuts=" + heap.getCuts());
             System.out.println("potential=" + heap.potential());
         }
     }
 
-    public static void main(String[] args) throws Exception {
+    public static void main(String[] args) {
         firstMeasurement();
         secondMeasurement();
     }
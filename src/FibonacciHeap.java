@@ -1,29 +1,115 @@
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
 import java.util.HashMap;
 import java.util.List;
-import java.util.logging.Logger;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.PrimitiveIterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntConsumer;
 
 /**
  * FibonacciHeap
  * <p>
  * An implementation of fibonacci heap over integers.
  */
-public class FibonacciHeap {
+public class FibonacciHeap implements IntPriorityQueue<FibonacciHeap.HeapNode> {
 
     public static final double GOLDEN = (1 + Math.sqrt(5)) / 2;
-    protected static final Logger logger = Logger.getLogger("FibonacciHeap");
 
-    private HeapNode minNode;
+    /**
+     * A tree of rank r holds at least F(r+2) nodes, and F(47) > Integer.MAX_VALUE,
+     * so no rank can exceed 44 while size fits in an int.
+     */
+    static final int MAX_RANK = 45;
+
+    /*linking steps an INCREMENTAL heap takes per operation: a fixed share for leftover roots plus a share
+      for every root the operation added. Placing a root costs at most one step plus the links it causes,
+      and every link removes a root, so 2 steps per added root keep the leftover from growing.*/
+    static final int INCREMENTAL_BASE_WORK = 2;
+    static final int INCREMENTAL_WORK_PER_ROOT = 2;
+    static final int BUILD_MIN_CHUNK = 1 << 14; // smallest chunk buildParallel hands to a task
+    static final int FRONTIER_KEEP = 1 << 12; // largest frontier pollMin keeps for the next call
+
+    /*program-wide totals over all heaps, updated once per operation.
+      links and cuts are read by FibonacciHeapMetrics, which reports them as longs*/
+    static final LongAdder TOTAL_LINKS = new LongAdder();
+    static final LongAdder TOTAL_CUTS = new LongAdder();
+    private static final LongAdder TOTAL_CONSOLIDATIONS = new LongAdder();
+    private static final LongAdder TOTAL_INSERTS = new LongAdder();
+    private static final LongAdder TOTAL_DELETE_MINS = new LongAdder();
+    private static final LongAdder TOTAL_DECREASE_KEYS = new LongAdder();
+    private static final LongAdder TOTAL_DELETES = new LongAdder();
+    private static final LongAdder TOTAL_MELDS = new LongAdder();
+
+    private HeapNode minNode; // null while size > 0 means stale: a lazy deleteMin left it to be recomputed
     private HeapNode first;
     private HeapNode last;
     private int size;
-    public static int totalLinks;
-    public static int totalCuts;
     private int numMarked;
     private int numOfTrees;
+    private HeapNode[] buckets; // reused by every consolidation, allocated on first use
+    private HeapNode[] frontier; // reused by pollMin and drainTo while small, allocated on first use
+
+    /*operation counters of this heap, written only by the thread operating on it. Writes go through the
+      VarHandles below in opaque mode and the getters read them the same way, so a monitoring thread sees
+      every update eventually and never a torn long, while the owner still reads them plainly*/
+    private long links;
+    private long cuts;
+    private long consolidations;
+    private long inserts;
+    private long deleteMins;
+    private long decreaseKeys;
+    private long deletes;
+    private long melds;
+
+    private static final VarHandle LINKS;
+    private static final VarHandle CUTS;
+    private static final VarHandle CONSOLIDATIONS;
+    private static final VarHandle INSERTS;
+    private static final VarHandle DELETE_MINS;
+    private static final VarHandle DECREASE_KEYS;
+    private static final VarHandle DELETES;
+    private static final VarHandle MELDS;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            LINKS = lookup.findVarHandle(FibonacciHeap.class, "links", long.class);
+            CUTS = lookup.findVarHandle(FibonacciHeap.class, "cuts", long.class);
+            CONSOLIDATIONS = lookup.findVarHandle(FibonacciHeap.class, "consolidations", long.class);
+            INSERTS = lookup.findVarHandle(FibonacciHeap.class, "inserts", long.class);
+            DELETE_MINS = lookup.findVarHandle(FibonacciHeap.class, "deleteMins", long.class);
+            DECREASE_KEYS = lookup.findVarHandle(FibonacciHeap.class, "decreaseKeys", long.class);
+            DELETES = lookup.findVarHandle(FibonacciHeap.class, "deletes", long.class);
+            MELDS = lookup.findVarHandle(FibonacciHeap.class, "melds", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private volatile HeapTracer tracer; // null unless tracing was switched on, see setTracer
+
+    private final ConsolidationMode mode;
+
+    /*state of INCREMENTAL consolidation. Every root is either placed (one root per rank, nothing left to
+      link), the carry being linked up through the ranks, or pending in a binary heap by key that the heap
+      works off a few steps per operation. The top of the pending heap is the minimum of the pending roots,
+      so findMin stays exact without scanning them, whichever pending root is deleted*/
+    private HeapNode[] placed;
+    private HeapNode carry;
+    private HeapNode[] pending; // entries [0, pendingCount), every node knows its index
+    private int pendingCount;
+    private long pushes;
 
     public FibonacciHeap(HeapNode node, int size) {
+        this.mode = ConsolidationMode.EAGER;
         this.minNode = node;
         this.first = node;
         this.last = node;
@@ -32,6 +118,19 @@ public class FibonacciHeap {
     }
 
     public FibonacciHeap() {
+        this(ConsolidationMode.EAGER);
+    }
+
+    public FibonacciHeap(ConsolidationMode mode) {
+        this.mode = Objects.requireNonNull(mode);
+        if (mode == ConsolidationMode.INCREMENTAL) {
+            placed = new HeapNode[MAX_RANK + 1];
+            pending = new HeapNode[16];
+        }
+    }
+
+    public ConsolidationMode getConsolidationMode() {
+        return mode;
     }
 
     /**
@@ -59,16 +158,22 @@ public class FibonacciHeap {
         n1.setChild(n2);
         n2.setParent(n1);
         n1.setRank(n1.getRank() + 1);
-        totalLinks++;
+        LINKS.setOpaque(this, links + 1);
         numOfTrees = numOfTrees - 1;
         return n1;
     }
 
-    private void toBuckets(HeapNode[] cells) {
+    /**
+     * Puts every root in the bucket of its rank, linking trees of equal rank on the way.
+     * Returns the amount of roots that were walked.
+     */
+    private int toBuckets(HeapNode[] cells) {
         HeapNode node = this.first;
         node.getPrev().setNext(null);
         HeapNode cur;
+        int roots = 0;
         while (node != null) {
+            roots++;
             cur = node;
             node = node.getNext();
             while (cells[cur.getRank()] != null) {
@@ -77,6 +182,7 @@ public class FibonacciHeap {
             }
             cells[cur.getRank()] = cur;
         }
+        return roots;
     }
 
     /**
@@ -93,23 +199,25 @@ public class FibonacciHeap {
     /**
      * calls fromBuckets with default param unmarkRoots = true
      */
-    private HeapNode[] fromBuckets(HeapNode[] cells) {
+    private int fromBuckets(HeapNode[] cells) {
         return fromBuckets(cells, true);
     }
 
     /**
-     * returns array with first root, last root, minimum root and amount of trees we have
+     * Rebuilds the root list from the buckets and empties them for the next consolidation.
+     * Sets first, last and minNode, and returns the amount of trees.
      */
-    private HeapNode[] fromBuckets(HeapNode[] cells, boolean unmarkRoots) {
+    private int fromBuckets(HeapNode[] cells, boolean unmarkRoots) {
         HeapNode minNode = null;
         HeapNode firstNode = null;
         HeapNode lastNode = null;
         boolean insertedNotMin = false;
         HeapNode cur;
         int treesAmount = 0;
-        for (HeapNode cell : cells) {
-            if (cell != null) {
-                cur = cell;
+        for (int i = 0; i < cells.length; i++) {
+            if (cells[i] != null) {
+                cur = cells[i];
+                cells[i] = null;
                 treesAmount++;
                 if (unmarkRoots) {
                     if (cur.isMarked) {
@@ -140,23 +248,60 @@ public class FibonacciHeap {
             // 0 or 1 trees found in bucket, last will be first
             lastNode = firstNode;
         }
-        // treesAmount encapsualted by HeapNode just to avoid creating a new class
-        // for this function's result
-        HeapNode[] result = {firstNode, lastNode, minNode, new HeapNode(treesAmount)};
-        return result;
+        this.first = firstNode;
+        this.last = lastNode;
+        this.minNode = minNode;
+        return treesAmount;
     }
 
+    /**
+     * Links trees of equal rank until all ranks are distinct. Uses the heap's bucket array, so
+     * apart from its first call it does not allocate.
+     * Returns the new amount of trees.
+     */
     public int consolidate() {
-        int cellsAmount = (int) (1 + Math.ceil(Math.log(size()) / Math.log(GOLDEN)));
-        HeapNode[] cells = new HeapNode[cellsAmount];
-        toBuckets(cells);
-        HeapNode[] res = fromBuckets(cells);
-        this.first = res[0];
-        this.last = res[1];
-        this.minNode = res[2];
+        if (this.first == null) return 0;
+        HeapNode[] cells = this.buckets;
+        if (cells == null) {
+            cells = new HeapNode[MAX_RANK + 1];
+            this.buckets = cells;
+        }
+        if (mode == ConsolidationMode.INCREMENTAL) {
+            resetIncremental();
+        }
+        ConsolidationEvent event = null;
+        if (ConsolidationEvent.TYPE.isEnabled()) {
+            event = new ConsolidationEvent();
+            event.begin();
+        }
+        long linksBefore = links;
+        int rootsBefore = toBuckets(cells);
+        int treesAmount = fromBuckets(cells);
+        CONSOLIDATIONS.setOpaque(this, consolidations + 1);
+        TOTAL_CONSOLIDATIONS.increment();
+        TOTAL_LINKS.add(links - linksBefore);
         this.first.setPrev(this.last);
         this.last.setNext(this.first);
-        return res[3].getKey();
+        if (mode == ConsolidationMode.INCREMENTAL) {
+            HeapNode root = first;
+            do {
+                placed[root.rank] = root;
+                root = root.next;
+            } while (root != first);
+        }
+        if (event != null) {
+            event.end();
+            event.rootsBefore = rootsBefore;
+            event.rootsAfter = treesAmount;
+            event.links = (int) (links - linksBefore);
+            event.buckets = cells.length;
+            event.commit();
+        }
+        HeapTracer tracer = this.tracer;
+        if (tracer != null) {
+            tracer.record(HeapTracer.Op.CONSOLIDATE, minNode.getKey(), maxRootRank(), (int) (links - linksBefore));
+        }
+        return treesAmount;
     }
 
     /**
@@ -177,8 +322,16 @@ public class FibonacciHeap {
      * Creates a node (of type HeapNode) which contains the given key, and inserts it into the heap.
      */
     public HeapNode insert(int key) {
-        HeapNode newNode = new HeapNode(key);
-        logger.fine("inserting key: " + key);
+        return insertNode(new HeapNode(key));
+    }
+
+    /**
+     * Inserts a new node that was created outside the heap, e.g. by ConcurrentFibonacciHeap outside its lock.
+     */
+    HeapNode insertNode(HeapNode newNode) {
+        int key = newNode.key;
+        INSERTS.setOpaque(this, inserts + 1);
+        TOTAL_INSERTS.increment();
         //if heap is empty
         if (size == 0) {
             first = newNode;
@@ -193,12 +346,87 @@ public class FibonacciHeap {
             swapFirst(newNode);
         }
         size++;
-        return first;
+        if (mode == ConsolidationMode.INCREMENTAL) {
+            push(newNode);
+            step(INCREMENTAL_BASE_WORK + INCREMENTAL_WORK_PER_ROOT);
+        }
+        HeapTracer tracer = this.tracer;
+        if (tracer != null) {
+            tracer.record(HeapTracer.Op.INSERT, key, 0, size);
+        }
+        return newNode;
+    }
+
+    /**
+     * public HeapNode[] insertAll(int[] keys, int from, int to)
+     * <p>
+     * Inserts keys[from..to) and returns their nodes, nodes[i - from] holding keys[i]. The new nodes are
+     * chained in one pass and spliced into the root list once, in the same order a loop of insert calls
+     * would leave them.
+     */
+    public HeapNode[] insertAll(int[] keys, int from, int to) {
+        Objects.checkFromToIndex(from, to, keys.length);
+        int n = to - from;
+        HeapNode[] nodes = new HeapNode[n];
+        if (n == 0) {
+            return nodes;
+        }
+        HeapNode head = null;
+        HeapNode tail = null;
+        HeapNode min = null;
+        for (int i = to - 1; i >= from; i--) {
+            HeapNode node = new HeapNode(keys[i]);
+            nodes[i - from] = node;
+            if (head == null) {
+                head = node;
+            } else {
+                tail.next = node;
+                node.prev = tail;
+            }
+            tail = node;
+            if (min == null || node.key <= min.key) { //on ties the earliest key wins, as with insert
+                min = node;
+            }
+        }
+        if (size == 0) {
+            first = head;
+            last = tail;
+            minNode = min;
+        } else {
+            tail.next = first;
+            first.prev = tail;
+            first = head;
+            if (minNode != null && min.key < minNode.key) {
+                minNode = min;
+            }
+        }
+        last.next = first;
+        first.prev = last;
+        numOfTrees += n;
+        size += n;
+        INSERTS.setOpaque(this, inserts + n);
+        TOTAL_INSERTS.add(n);
+        if (mode == ConsolidationMode.INCREMENTAL) {
+            for (HeapNode node : nodes) {
+                push(node);
+            }
+            step(INCREMENTAL_BASE_WORK + INCREMENTAL_WORK_PER_ROOT * n);
+        }
+        HeapTracer tracer = this.tracer;
+        if (tracer != null) {
+            for (int i = from; i < to; i++) {
+                tracer.record(HeapTracer.Op.INSERT, keys[i], 0, size - (to - 1 - i));
+            }
+        }
+        return nodes;
     }
 
     /*insert a non new node to beginning*/
     private void insertNodeAtStart(HeapNode node) {
         swapFirst(node);
+        if (mode == ConsolidationMode.INCREMENTAL) {
+            push(node);
+        }
     }
 
     /*makes node the new first of the heap, pushes old first ahead of it*/
@@ -209,7 +437,7 @@ public class FibonacciHeap {
         first.prev = last;
         oldFirst.prev = first;
         last.next = first;
-        if (node.getKey() < minNode.getKey()) { //check if new key will be new minimum
+        if (minNode != null && node.getKey() < minNode.getKey()) { //check if new key will be new minimum
             minNode = first;
         }
         numOfTrees++;
@@ -222,21 +450,32 @@ public class FibonacciHeap {
         this.numOfTrees = 0;
         this.size = 0;
         this.numMarked = 0;
-        totalCuts = 0;
-        totalLinks = 0;
+        if (mode == ConsolidationMode.INCREMENTAL) {
+            resetIncremental();
+        }
     }
 
-    private static void untieChildren(HeapNode node) {
+    /*detaches the children of node, which become roots and so lose their marks*/
+    private void untieChildren(HeapNode node) {
         if (node.getChild() != null) {
             HeapNode cur = node.getChild();
             do {
                 cur.setParent(null);
+                if (cur.isMarked) {
+                    cur.unmark();
+                    numMarked--;
+                }
                 cur = cur.getNext();
             } while (cur != node.getChild());
         }
     }
 
+    /*removes root from the root list, splicing its children in its place*/
     private void deleteRoot(HeapNode root) {
+        if (root.isMarked) {
+            root.unmark();
+            numMarked--;
+        }
         HeapNode child = root.getChild();
         if (root == this.first) {
             this.first = child == null ? root.getNext() : child;
@@ -266,15 +505,37 @@ public class FibonacciHeap {
      * Delete the node containing the minimum key.
      */
     public void deleteMin() {
+        ensureMin();
         HeapNode minNode = this.minNode;
-        logger.fine("Deleting min node " + minNode.getKey());
+        HeapTracer tracer = this.tracer;
+        int minRank = minNode.getRank();
+        DELETE_MINS.setOpaque(this, deleteMins + 1);
+        TOTAL_DELETE_MINS.increment();
         if (this.size == 1) {
             clear();
         } else {
+            HeapNode child = minNode.getChild();
+            if (mode == ConsolidationMode.INCREMENTAL) {
+                forget(minNode);
+            }
             deleteRoot(minNode);
-            int newTreesAmount = consolidate();
-            this.numOfTrees = newTreesAmount;
+            this.numOfTrees += minRank - 1;
             this.size--;
+            if (mode == ConsolidationMode.LAZY) {
+                this.minNode = null;
+            } else if (mode == ConsolidationMode.INCREMENTAL) {
+                for (int i = 0; i < minRank; i++) {
+                    push(child);
+                    child = child.getNext();
+                }
+                step(INCREMENTAL_BASE_WORK + INCREMENTAL_WORK_PER_ROOT * minRank);
+                recomputeMin();
+            } else {
+                this.numOfTrees = consolidate();
+            }
+        }
+        if (tracer != null) {
+            tracer.record(HeapTracer.Op.DELETE_MIN, minNode.getKey(), minRank, numOfTrees);
         }
     }
 
@@ -284,38 +545,416 @@ public class FibonacciHeap {
      * Return the node of the heap whose key is minimal.
      */
     public HeapNode findMin() {
+        ensureMin();
         return minNode;
     }
 
+    /*consolidates if a lazy deleteMin left the minimum stale*/
+    private void ensureMin() {
+        if (minNode == null && size > 0) {
+            this.numOfTrees = consolidate();
+        }
+    }
+
+    /*adds a root to the pending heap of an INCREMENTAL heap*/
+    private void push(HeapNode root) {
+        if (pendingCount == pending.length) {
+            pending = Arrays.copyOf(pending, 2 * pending.length);
+        }
+        pending[pendingCount] = root;
+        root.pendingIndex = pendingCount++;
+        pushes++;
+        siftUpPending(root.pendingIndex);
+    }
+
+    /*removes and returns a pending root, or null if none is left. The last one is taken, so the pending
+      heap does not have to be reordered*/
+    private HeapNode pollPending() {
+        if (pendingCount == 0) {
+            return null;
+        }
+        HeapNode root = pending[--pendingCount];
+        pending[pendingCount] = null;
+        root.pendingIndex = -1;
+        return root;
+    }
+
+    /*removes a root that is about to be deleted from the pending heap*/
+    private void removePending(HeapNode root) {
+        int i = root.pendingIndex;
+        HeapNode moved = pending[--pendingCount];
+        pending[pendingCount] = null;
+        root.pendingIndex = -1;
+        if (i < pendingCount) {
+            pending[i] = moved;
+            moved.pendingIndex = i;
+            siftDownPending(i);
+            siftUpPending(moved.pendingIndex);
+        }
+    }
+
+    private void siftUpPending(int i) {
+        HeapNode node = pending[i];
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (pending[parent].key <= node.key) break;
+            pending[i] = pending[parent];
+            pending[i].pendingIndex = i;
+            i = parent;
+        }
+        pending[i] = node;
+        node.pendingIndex = i;
+    }
+
+    private void siftDownPending(int i) {
+        HeapNode node = pending[i];
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= pendingCount) break;
+            if (child + 1 < pendingCount && pending[child + 1].key < pending[child].key) child++;
+            if (node.key <= pending[child].key) break;
+            pending[i] = pending[child];
+            pending[i].pendingIndex = i;
+            i = child;
+        }
+        pending[i] = node;
+        node.pendingIndex = i;
+    }
+
+    /**
+     * Takes up to work consolidation steps of an INCREMENTAL heap. A step either links the carry with the
+     * placed root of the same rank or places it in its empty bucket; a new carry is taken from the pending
+     * roots when needed. The minimum stays valid since linking never removes the smallest of two roots.
+     */
+    private void step(int work) {
+        long linksBefore = links;
+        while (work > 0) {
+            HeapNode cur = carry;
+            if (cur == null) {
+                cur = pollPending();
+                if (cur == null) break;
+                if (cur.isMarked) {
+                    cur.unmark();
+                    numMarked--;
+                }
+            }
+            HeapNode other = placed[cur.getRank()];
+            if (other == null) {
+                placed[cur.getRank()] = cur;
+                carry = null;
+            } else {
+                placed[cur.getRank()] = null;
+                carry = linkRoots(cur, other);
+            }
+            work--;
+        }
+        TOTAL_LINKS.add(links - linksBefore);
+    }
+
+    /*links 2 roots of the root list, the loser leaves the root list*/
+    private HeapNode linkRoots(HeapNode n1, HeapNode n2) {
+        HeapNode loser = n1.getKey() > n2.getKey() ? n1 : n2;
+        loser.getPrev().setNext(loser.getNext());
+        loser.getNext().setPrev(loser.getPrev());
+        if (loser == first) first = loser.getNext();
+        if (loser == last) last = loser.getPrev();
+        HeapNode winner = link(n1, n2);
+        if (minNode == loser) { //only on equal keys
+            minNode = winner;
+        }
+        return winner;
+    }
+
+    /*drops a root that is about to be deleted from the INCREMENTAL state*/
+    private void forget(HeapNode root) {
+        if (placed[root.getRank()] == root) {
+            placed[root.getRank()] = null;
+        }
+        if (carry == root) {
+            carry = null;
+        }
+        if (root.pendingIndex >= 0) {
+            removePending(root);
+        }
+    }
+
+    /**
+     * Finds the minimum of an INCREMENTAL heap among the placed roots, the carry and the top of the pending
+     * heap, so no call scans the pending roots or links more than its step budget.
+     */
+    private void recomputeMin() {
+        HeapNode min = carry;
+        for (HeapNode root : placed) {
+            if (root != null && (min == null || root.getKey() < min.getKey())) {
+                min = root;
+            }
+        }
+        if (pendingCount > 0 && (min == null || pending[0].getKey() < min.getKey())) {
+            min = pending[0];
+        }
+        this.minNode = min;
+    }
+
+    /*makes the roots from..to (already spliced into the root list) pending without linking them, returns
+      their minimum. A batch at least as large as the pending heap is appended and heapified in one pass*/
+    private HeapNode absorbRoots(HeapNode from, HeapNode to) {
+        int before = pendingCount;
+        HeapNode min = from;
+        HeapNode root = from;
+        while (true) {
+            if (pendingCount == pending.length) {
+                pending = Arrays.copyOf(pending, 2 * pending.length);
+            }
+            pending[pendingCount] = root;
+            root.pendingIndex = pendingCount++;
+            if (root.getKey() < min.getKey()) {
+                min = root;
+            }
+            if (root == to) break;
+            root = root.getNext();
+        }
+        pushes += pendingCount - before;
+        if (pendingCount - before >= before) {
+            for (int i = (pendingCount >>> 1) - 1; i >= 0; i--) {
+                siftDownPending(i);
+            }
+        } else {
+            for (int i = before; i < pendingCount; i++) {
+                siftUpPending(i);
+            }
+        }
+        return min;
+    }
+
+    private void resetIncremental() {
+        Arrays.fill(placed, null);
+        carry = null;
+        for (int i = 0; i < pendingCount; i++) {
+            pending[i].pendingIndex = -1;
+            pending[i] = null;
+        }
+        pendingCount = 0;
+    }
+    /**
+     * public int pollMin(int k, int[] out)
+     * <p>
+     * Deletes the min(k, size) minimal keys and writes them to out in ascending order.
+     * Returns the amount of keys that were deleted.
+     */
+    public int pollMin(int k, int[] out) {
+        int n = Math.min(k, size);
+        Objects.checkFromIndexSize(0, n, out.length);
+        return poll(n, out, null);
+    }
+
+    /**
+     * public int drainTo(IntConsumer action, int k)
+     * <p>
+     * Deletes the min(k, size) minimal keys and passes them to action in ascending order.
+     * Returns the amount of keys that were deleted.
+     */
+    public int drainTo(IntConsumer action, int k) {
+        Objects.requireNonNull(action);
+        return poll(Math.min(k, size), null, action);
+    }
+
+    /**
+     * Deletes the n minimal keys with a single consolidation. The roots are kept in a binary heap (the
+     * frontier); every deleted root is unlinked without consolidating and its children join the frontier,
+     * so the batch costs O(n log(n + #trees)) plus one consolidation instead of n of them. A key is handed
+     * out only after its node was deleted, and if action throws, the keys handed out so far stay deleted
+     * and the heap is left consistent.
+     */
+    private int poll(int n, int[] out, IntConsumer action) {
+        if (n < 0) {
+            throw new IllegalArgumentException("negative amount: " + n);
+        }
+        if (n == 0) {
+            return 0;
+        }
+        boolean drainsAll = n == size;
+        // the frontier only ever holds live nodes: the roots plus at most MAX_RANK children per deletion
+        int capacity = (int) Math.min(size, numOfTrees + (long) n * MAX_RANK);
+        HeapNode[] heap = this.frontier;
+        if (heap == null || heap.length < capacity) {
+            heap = new HeapNode[capacity];
+        }
+        int count = 0;
+        HeapNode root = first;
+        do {
+            heap[count++] = root;
+            root = root.next;
+        } while (root != first);
+        for (int i = (count >>> 1) - 1; i >= 0; i--) {
+            siftDown(heap, i, count);
+        }
+        HeapTracer tracer = this.tracer;
+        int removed = 0;
+        try {
+            while (removed < n) {
+                HeapNode node = heap[0];
+                heap[0] = heap[--count];
+                heap[count] = null;
+                siftDown(heap, 0, count);
+                HeapNode child = node.child;
+                int rank = node.rank;
+                if (node.isMarked) {
+                    node.unmark();
+                    numMarked--;
+                }
+                if (!drainsAll) {
+                    deleteRoot(node);
+                    numOfTrees += rank - 1;
+                }
+                for (int c = 0; c < rank; c++) {
+                    heap[count] = child;
+                    siftUp(heap, count++);
+                    child = child.next;
+                }
+                removed++;
+                if (tracer != null) {
+                    tracer.record(HeapTracer.Op.DELETE_MIN, node.key, rank, count);
+                }
+                if (out != null) {
+                    out[removed - 1] = node.key;
+                } else {
+                    action.accept(node.key);
+                }
+            }
+        } finally {
+            if (drainsAll && removed < n) {
+                relinkRoots(heap, count);
+            }
+            Arrays.fill(heap, 0, count, null);
+            this.frontier = heap.length <= FRONTIER_KEEP ? heap : null;
+            DELETE_MINS.setOpaque(this, deleteMins + removed);
+            TOTAL_DELETE_MINS.add(removed);
+            if (removed == size) {
+                clear();
+            } else if (removed > 0) {
+                this.size -= removed;
+                if (mode == ConsolidationMode.LAZY) {
+                    this.minNode = null;
+                } else {
+                    this.numOfTrees = consolidate();
+                }
+            }
+        }
+        return n;
+    }
+
+    /*makes the count nodes of the frontier the root list, after a drain of the whole heap stopped early
+      without unlinking the nodes it deleted*/
+    private void relinkRoots(HeapNode[] heap, int count) {
+        for (int i = 0; i < count; i++) {
+            HeapNode node = heap[i];
+            node.parent = null;
+            if (node.isMarked) {
+                node.unmark();
+                numMarked--;
+            }
+            HeapNode next = heap[i + 1 == count ? 0 : i + 1];
+            node.next = next;
+            next.prev = node;
+        }
+        first = heap[0];
+        last = heap[count - 1];
+        numOfTrees = count;
+    }
+
+    private static void siftUp(HeapNode[] heap, int i) {
+        HeapNode node = heap[i];
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (heap[parent].key <= node.key) break;
+            heap[i] = heap[parent];
+            i = parent;
+        }
+        heap[i] = node;
+    }
+
+    private static void siftDown(HeapNode[] heap, int i, int count) {
+        HeapNode node = heap[i];
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= count) break;
+            if (child + 1 < count && heap[child + 1].key < heap[child].key) child++;
+            if (node.key <= heap[child].key) break;
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = node;
+    }
+
     /**
      * public void meld (FibonacciHeap heap2)
      * <p>
-     * Meld the heap with heap2
+     * Meld the heap with heap2, which is left empty; nodes of heap2 now belong to this heap.
      */
     public void meld(FibonacciHeap heap2) {
-        //if heap1 is empty
-        if (this.isEmpty()) {
-            heap1EmptyMeld(heap2);
+        if (heap2 == this) {
             return;
         }
+        MELDS.setOpaque(this, melds + 1);
+        TOTAL_MELDS.increment();
         //if heap2 is empty do nothing
         if (heap2.isEmpty()) {
             return;
         }
+        HeapNode first2 = heap2.first;
+        HeapNode last2 = heap2.last;
+        int size2 = heap2.size;
+        heap2.consume();
+        //if heap1 is empty
+        if (this.isEmpty()) {
+            heap1EmptyMeld(heap2);
+            if (mode == ConsolidationMode.INCREMENTAL) {
+                minNode = absorbRoots(first2, last2);
+                step(INCREMENTAL_BASE_WORK);
+            }
+            heap2.clear();
+            return;
+        }
         //else, connect last of heap1 to first of heap2
-        this.last.next = heap2.first;
-        heap2.first.prev = this.last;
-        heap2.last.next = first;
-        first.prev = heap2.last;
-        this.last = heap2.last;
+        this.last.next = first2;
+        first2.prev = this.last;
+        last2.next = first;
+        first.prev = last2;
+        this.last = last2;
         /*update size,numOftrees,numOfMarked*/
-        size += heap2.size;
+        size += size2;
         numOfTrees += heap2.numOfTrees;
         numMarked += heap2.numMarked;
-        //updateMin
-        if (this.minNode.getKey() > heap2.minNode.getKey()) {
+        //updateMin, a stale minimum on either side leaves the melded one stale
+        if (mode == ConsolidationMode.INCREMENTAL) {
+            HeapNode min2 = absorbRoots(first2, last2);
+            if (min2.getKey() < minNode.getKey()) {
+                minNode = min2;
+            }
+            step(INCREMENTAL_BASE_WORK);
+        } else if (this.minNode == null || heap2.minNode == null) {
+            minNode = null;
+        } else if (this.minNode.getKey() > heap2.minNode.getKey()) {
             minNode = heap2.minNode;
         }
+        heap2.clear();
+        HeapTracer tracer = this.tracer;
+        if (tracer != null) {
+            tracer.record(HeapTracer.Op.MELD, minNode == null ? Integer.MIN_VALUE : minNode.getKey(), 0, size2);
+        }
+    }
+
+    /**
+     * public void meld(IntPriorityQueue&lt;HeapNode&gt; other)
+     * <p>
+     * Meld the heap with other, which must be a FibonacciHeap, see meld(FibonacciHeap).
+     */
+    @Override
+    public void meld(IntPriorityQueue<HeapNode> other) {
+        if (!(other instanceof FibonacciHeap)) {
+            throw new IllegalArgumentException("cannot meld a " + other.getClass().getSimpleName() + " into a FibonacciHeap");
+        }
+        meld((FibonacciHeap) other);
     }
 
     //melds with heap2 ig this heap is empty
@@ -328,6 +967,167 @@ public class FibonacciHeap {
         numOfTrees = heap2.numOfTrees;
     }
 
+    /*detaches the incremental state of a heap whose nodes are about to move to another heap, and counts the
+      move as a modification so that iterators over this heap fail. The caller clears the heap afterwards*/
+    private void consume() {
+        if (mode == ConsolidationMode.INCREMENTAL) {
+            resetIncremental();
+        }
+        MELDS.setOpaque(this, melds + 1);
+    }
+
+    /**
+     * public static FibonacciHeap meldAll(Collection&lt;FibonacciHeap&gt; heaps)
+     * <p>
+     * Melds all the heaps into a new heap in the consolidation mode of the first one (EAGER if there is none),
+     * leaving every one of them empty. The root lists are spliced one after the other and size, #trees,
+     * #marked and the minimum are taken from each heap once, so no pass over the result is needed.
+     */
+    public static FibonacciHeap meldAll(Collection<FibonacciHeap> heaps) {
+        FibonacciHeap result = new FibonacciHeap(heaps.isEmpty() ? ConsolidationMode.EAGER : heaps.iterator().next().mode);
+        boolean stale = false;
+        for (FibonacciHeap heap : heaps) {
+            MELDS.setOpaque(result, result.melds + 1);
+            TOTAL_MELDS.increment();
+            // a heap listed twice is already empty the second time
+            if (heap.isEmpty()) {
+                continue;
+            }
+            heap.consume();
+            if (result.first == null) {
+                result.first = heap.first;
+            } else {
+                result.last.next = heap.first;
+                heap.first.prev = result.last;
+            }
+            result.last = heap.last;
+            result.size += heap.size;
+            result.numOfTrees += heap.numOfTrees;
+            result.numMarked += heap.numMarked;
+            if (heap.minNode == null) {
+                stale = true;
+            } else if (result.minNode == null || heap.minNode.getKey() < result.minNode.getKey()) {
+                result.minNode = heap.minNode;
+            }
+            heap.clear();
+        }
+        if (result.first == null) {
+            return result;
+        }
+        result.last.next = result.first;
+        result.first.prev = result.last;
+        if (result.mode == ConsolidationMode.INCREMENTAL) {
+            result.minNode = result.absorbRoots(result.first, result.last);
+            result.step(INCREMENTAL_BASE_WORK);
+        } else if (stale) {
+            result.minNode = null;
+        }
+        return result;
+    }
+
+
+    /**
+     * public static FibonacciHeap buildParallel(int[] keys, ForkJoinPool pool)
+     * <p>
+     * Builds a heap of the keys on pool, see buildParallel(int[], ForkJoinPool, boolean). Every chunk is
+     * consolidated, so the linking work of the first deleteMin is done in parallel too.
+     */
+    public static FibonacciHeap buildParallel(int[] keys, ForkJoinPool pool) {
+        return buildParallel(keys, pool, true);
+    }
+
+    /**
+     * public static FibonacciHeap buildParallel(int[] keys, ForkJoinPool pool, boolean consolidate)
+     * <p>
+     * Builds an EAGER heap of the keys. The array is split into about 4 chunks per worker of pool, each chunk
+     * is loaded with insertAll (and consolidated into binomial trees if consolidate is set) by its own task,
+     * and the chunk heaps are joined with one meldAll, in O(#chunks).
+     */
+    public static FibonacciHeap buildParallel(int[] keys, ForkJoinPool pool, boolean consolidate) {
+        int n = keys.length;
+        if (n == 0) {
+            return new FibonacciHeap();
+        }
+        int chunks = (int) Math.min(4L * pool.getParallelism(), (n + BUILD_MIN_CHUNK - 1) / BUILD_MIN_CHUNK);
+        int chunkSize = (n + chunks - 1) / chunks;
+        FibonacciHeap[] parts = new FibonacciHeap[(n + chunkSize - 1) / chunkSize];
+        pool.invoke(new BuildTask(keys, chunkSize, consolidate, parts, 0, parts.length));
+        return meldAll(Arrays.asList(parts));
+    }
+
+    /*builds the chunk heaps parts[lo..hi), splitting the range in halves down to single chunks*/
+    private static final class BuildTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] keys;
+        private final int chunkSize;
+        private final boolean consolidate;
+        private final FibonacciHeap[] parts;
+        private final int lo;
+        private final int hi;
+
+        BuildTask(int[] keys, int chunkSize, boolean consolidate, FibonacciHeap[] parts, int lo, int hi) {
+            this.keys = keys;
+            this.chunkSize = chunkSize;
+            this.consolidate = consolidate;
+            this.parts = parts;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo > 1) {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new BuildTask(keys, chunkSize, consolidate, parts, lo, mid),
+                        new BuildTask(keys, chunkSize, consolidate, parts, mid, hi));
+                return;
+            }
+            int from = lo * chunkSize;
+            FibonacciHeap heap = new FibonacciHeap();
+            heap.insertAll(keys, from, Math.min(keys.length, from + chunkSize));
+            if (consolidate) {
+                heap.numOfTrees = heap.consolidate();
+            }
+            parts[lo] = heap;
+        }
+    }
+
+    /*the minimum root without consolidating, null if a lazy deleteMin left it stale*/
+    HeapNode currentMin() {
+        return minNode;
+    }
+
+    /*makes root the minimum if it is a root holding the minimal key, so that a replayed log deletes the
+      same node as the heap that wrote it when keys are tied. Returns false if root cannot be the minimum*/
+    boolean chooseMin(HeapNode root) {
+        ensureMin();
+        if (minNode == null || root.getParent() != null || root.getKey() != minNode.getKey()) {
+            return false;
+        }
+        minNode = root;
+        return true;
+    }
+
+    /*adopts the circular root list first..last of trees built outside a heap, with the given counters and
+      minimum root, as FibonacciHeapSnapshot does on read. An INCREMENTAL heap starts with every root pending*/
+    static FibonacciHeap restore(ConsolidationMode mode, HeapNode first, HeapNode last, HeapNode min,
+                                 int size, int numOfTrees, int numMarked) {
+        FibonacciHeap heap = new FibonacciHeap(mode);
+        if (first == null) {
+            return heap;
+        }
+        heap.first = first;
+        heap.last = last;
+        heap.minNode = min;
+        heap.size = size;
+        heap.numOfTrees = numOfTrees;
+        heap.numMarked = numMarked;
+        if (mode == ConsolidationMode.INCREMENTAL) {
+            heap.absorbRoots(first, last);
+        }
+        return heap;
+    }
 
     /**
      * public int size()
@@ -370,11 +1170,42 @@ public class FibonacciHeap {
     /**
      * public void delete(HeapNode x)
      * <p>
-     * Deletes the node x from the heap.
+     * Deletes the node x from the heap. x is cut from its parent with cascading cuts and its children are
+     * spliced into the root list; only when x is the minimum does this go through deleteMin. Otherwise the
+     * minimum stays valid and nothing is consolidated before the next deleteMin, so a delete costs O(1)
+     * amortized and no key arithmetic is involved.
      */
     public void delete(HeapNode x) {
-        decreaseKey(x, x.getKey() + 1 + Math.abs(minNode.getKey()));
-        deleteMin();
+        if (x == minNode || size == 1) {
+            deleteMin();
+            return;
+        }
+        DELETES.setOpaque(this, deletes + 1);
+        TOTAL_DELETES.increment();
+        int chainLength = 0;
+        long pushesBefore = pushes;
+        if (x.getParent() != null) {
+            chainLength = cascadingCut(x, x.getParent());
+        }
+        int rank = x.getRank();
+        HeapNode child = x.getChild();
+        if (mode == ConsolidationMode.INCREMENTAL) {
+            forget(x);
+        }
+        deleteRoot(x);
+        this.numOfTrees += rank - 1;
+        this.size--;
+        if (mode == ConsolidationMode.INCREMENTAL) {
+            for (int i = 0; i < rank; i++) {
+                push(child);
+                child = child.getNext();
+            }
+            step(INCREMENTAL_BASE_WORK + INCREMENTAL_WORK_PER_ROOT * (int) (pushes - pushesBefore));
+        }
+        HeapTracer tracer = this.tracer;
+        if (tracer != null) {
+            tracer.record(HeapTracer.Op.DELETE, x.getKey(), rank, chainLength);
+        }
     }
 
     /**
@@ -384,37 +1215,67 @@ public class FibonacciHeap {
      * to reflect this change (for example, the cascading cuts procedure should be applied if needed).
      */
     public void decreaseKey(HeapNode x, int delta) {
-        logger.finest("decreasing key " + x.getKey() + " by " + delta);
+        DECREASE_KEYS.setOpaque(this, decreaseKeys + 1);
+        TOTAL_DECREASE_KEYS.increment();
         x.setKey(x.getKey() - delta);
-        if (x.getKey() < minNode.getKey()) {
+        if (minNode != null && x.getKey() < minNode.getKey()) {
             minNode = x;
         }
+        int chainLength = 0;
+        long pushesBefore = pushes;
         /*if x is not a root check if we need to cut*/
         if (x.getParent() != null) {
             /*if the decrease cause a heap violation*/
             if (x.getParent().getKey() > x.getKey()) {
-                cascadingCut(x, x.getParent());
+                chainLength = cascadingCut(x, x.getParent());
             }
         }
-
+        if (mode == ConsolidationMode.INCREMENTAL) {
+            if (x.pendingIndex >= 0) {
+                siftUpPending(x.pendingIndex);
+            }
+            step(INCREMENTAL_BASE_WORK + INCREMENTAL_WORK_PER_ROOT * (int) (pushes - pushesBefore));
+        }
+        HeapTracer tracer = this.tracer;
+        if (tracer != null) {
+            tracer.record(HeapTracer.Op.DECREASE_KEY, x.getKey(), x.getRank(), chainLength);
+        }
     }
 
-    private void cascadingCut(HeapNode node, HeapNode parent) {
+    /**
+     * Cuts node from parent and keeps cutting marked ancestors.
+     * Returns the length of the cut chain.
+     */
+    private int cascadingCut(HeapNode node, HeapNode parent) {
+        CascadingCutEvent event = null;
+        if (CascadingCutEvent.TYPE.isEnabled()) {
+            event = new CascadingCutEvent();
+            event.begin();
+            event.key = node.getKey();
+        }
+        long cutsBefore = cuts;
         /*while node is not a root*/
         while (node.getParent() != null) {
-            logger.finest("cutting " + node.getKey() + " from parent " + parent.getKey());
             cut(node, parent);
             insertNodeAtStart(node);
             /*parent is not marked, cut and break form cuts*/
             if (!parent.isMarked && parent.getParent() != null) {
                 parent.mark();
                 numMarked++;
-                return;
+                break;
             } else { /*keep cutting, node is now old parent, parent is old parents parent*/
                 node = parent;
                 parent = node.getParent();
             }
         }
+        TOTAL_CUTS.add(cuts - cutsBefore);
+        if (event != null) {
+            event.end();
+            event.chainLength = (int) (cuts - cutsBefore);
+            event.heapSize = size;
+            event.commit();
+        }
+        return (int) (cuts - cutsBefore);
     }
 
 
@@ -424,7 +1285,16 @@ public class FibonacciHeap {
             node.unmark();
             numMarked--;
         }
+        //a placed root that loses a child no longer fits its bucket and has to be placed again
+        boolean replace = mode == ConsolidationMode.INCREMENTAL
+                && parent.getParent() == null && placed[parent.getRank()] == parent;
+        if (replace) {
+            placed[parent.getRank()] = null;
+        }
         parent.setRank(parent.getRank() - 1);
+        if (replace) {
+            push(parent);
+        }
         if (node.getNext() == node) {
             parent.child = null;
         } else {
@@ -434,7 +1304,7 @@ public class FibonacciHeap {
             node.next = null;
             node.prev = null;
         }
-        totalCuts++;
+        CUTS.setOpaque(this, cuts + 1);
 
     }
 
@@ -459,7 +1329,7 @@ public class FibonacciHeap {
      * in its root.
      */
     public static int totalLinks() {
-        return totalLinks;
+        return (int) TOTAL_LINKS.sum();
     }
 
     /**
@@ -469,36 +1339,139 @@ public class FibonacciHeap {
      * A cut operation is the operation which diconnects a subtree from its parent (during decreaseKey/delete methods).
      */
     public static int totalCuts() {
-        return totalCuts;
+        return (int) TOTAL_CUTS.sum();
+    }
+
+    /*totals over all heaps of the program, see the matching per-heap getters below*/
+
+    public static long totalConsolidations() {
+        return TOTAL_CONSOLIDATIONS.sum();
+    }
+
+    public static long totalInserts() {
+        return TOTAL_INSERTS.sum();
+    }
+
+    public static long totalDeleteMins() {
+        return TOTAL_DELETE_MINS.sum();
+    }
+
+    public static long totalDecreaseKeys() {
+        return TOTAL_DECREASE_KEYS.sum();
+    }
+
+    public static long totalDeletes() {
+        return TOTAL_DELETES.sum();
+    }
+
+    public static long totalMelds() {
+        return TOTAL_MELDS.sum();
+    }
+
+    /**
+     * public long getLinks()
+     * <p>
+     * Return the number of link operations made by this heap. The per-heap counters are updated by the
+     * thread operating on the heap and may be read from any other thread (e.g. through FibonacciHeapMetrics).
+     */
+    public long getLinks() {
+        return (long) LINKS.getOpaque(this);
+    }
+
+    /**
+     * public long getCuts()
+     * <p>
+     * Return the number of cut operations made by this heap.
+     */
+    public long getCuts() {
+        return (long) CUTS.getOpaque(this);
+    }
+
+    public long getConsolidations() {
+        return (long) CONSOLIDATIONS.getOpaque(this);
+    }
+
+    public long getInserts() {
+        return (long) INSERTS.getOpaque(this);
+    }
+
+    public long getDeleteMins() {
+        return (long) DELETE_MINS.getOpaque(this);
+    }
+
+    public long getDecreaseKeys() {
+        return (long) DECREASE_KEYS.getOpaque(this);
+    }
+
+    /**
+     * public long getDeletes()
+     * <p>
+     * Return the number of deletes of nodes other than the minimum, which delete handles without deleteMin.
+     */
+    public long getDeletes() {
+        return (long) DELETES.getOpaque(this);
+    }
+
+    public long getMelds() {
+        return (long) MELDS.getOpaque(this);
     }
 
     /**
      * public static int[] kMin(FibonacciHeap H, int k)
      * <p>
-     * This static function returns the k minimal elements in a binomial tree H.
-     * The function should run in O(k(logk + deg(H)).
+     * This static function returns the min(k, size) minimal keys of H in ascending order, leaving H unchanged.
+     * It runs in O(#trees + k log(k + #trees)), see sortedIterator.
      */
     public static int[] kMin(FibonacciHeap H, int k) {
-        int[] arr = new int[k];
-        if (k > 0 && H.size > 0) {
-            FibonacciHeap helperHeap = new FibonacciHeap();
-            helperHeap.insert(H.findMin().getKey());
-            helperHeap.first.setPointerToOriginalTree(H.findMin());
-            for (int i = 0; i < k; i++) {
-                HeapNode currentMin = helperHeap.findMin();
-                arr[i] = currentMin.getKey();
-                HeapNode child = currentMin.pointerToOriginalTree.getChild();
-                helperHeap.deleteMin();
-                for (int j = 0; j < currentMin.pointerToOriginalTree.getRank(); j++) {
-                    helperHeap.insert(child.getKey());
-                    helperHeap.first.setPointerToOriginalTree(child);
-                    child = child.getNext();
-                }
-            }
+        int[] arr = new int[Math.max(0, Math.min(k, H.size))];
+        SortedIterator iterator = H.sortedIterator();
+        for (int i = 0; i < arr.length; i++) {
+            arr[i] = iterator.nextInt();
         }
         return arr;
     }
 
+    /**
+     * public SortedIterator sortedIterator()
+     * <p>
+     * Returns an iterator over the keys of the heap in ascending order that leaves the heap unchanged.
+     * The heap must not be changed while iterating, the iterator then throws ConcurrentModificationException.
+     */
+    public SortedIterator sortedIterator() {
+        return new SortedIterator(this);
+    }
+
+    /*changes whenever an operation may have changed the structure of the heap*/
+    private long modifications() {
+        return inserts + deleteMins + decreaseKeys + deletes + melds + consolidations;
+    }
+
+
+    private int maxRootRank() {
+        int maxRank = 0;
+        HeapNode cur = first;
+        do {
+            maxRank = Math.max(maxRank, cur.getRank());
+            cur = cur.getNext();
+        } while (cur != first);
+        return maxRank;
+    }
+
+    /**
+     * public void setTracer(HeapTracer tracer)
+     * <p>
+     * Starts recording the heap's operations into tracer, or stops tracing when tracer is null.
+     * The field is volatile, so a tracer attached from another thread (e.g. a monitoring one) is seen fully
+     * built by the thread that uses the heap. The events are recorded on that thread, which owns the tracer:
+     * read them there, or after detaching the tracer and handing the heap over to the reading thread.
+     */
+    public void setTracer(HeapTracer tracer) {
+        this.tracer = tracer;
+    }
+
+    public HeapTracer getTracer() {
+        return tracer;
+    }
 
     public int getNumberOfTrees() {
         return numOfTrees;
@@ -513,6 +1486,106 @@ public class FibonacciHeap {
     }
 
 
+    /**
+     * public static class SortedIterator
+     * <p>
+     * Walks the keys of a heap in ascending order through a frontier: a binary heap of the nodes whose
+     * parents were already returned, starting from the roots. Returning a node replaces it by its children,
+     * so the first k keys cost O(#trees + k log(k + #trees)) and the frontier never holds more than
+     * #trees + k * MAX_RANK nodes. reset() restarts from the current minimum and reuses the frontier.
+     */
+    public static final class SortedIterator implements PrimitiveIterator.OfInt {
+
+        private final FibonacciHeap heap;
+        private HeapNode[] frontier = new HeapNode[16];
+        private int count;
+        private long expectedModifications;
+
+        private SortedIterator(FibonacciHeap heap) {
+            this.heap = heap;
+            reset();
+        }
+
+        /**
+         * public void reset()
+         * <p>
+         * Restarts the iteration from the smallest key of the heap in its current state.
+         */
+        public void reset() {
+            Arrays.fill(frontier, 0, count, null);
+            count = 0;
+            expectedModifications = heap.modifications();
+            HeapNode first = heap.first;
+            if (first == null) {
+                return;
+            }
+            HeapNode root = first;
+            do {
+                if (count == frontier.length) {
+                    frontier = Arrays.copyOf(frontier, 2 * count);
+                }
+                frontier[count++] = root;
+                root = root.next;
+            } while (root != first);
+            for (int i = (count >>> 1) - 1; i >= 0; i--) {
+                siftDown(frontier, i, count);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            checkForComodification();
+            return count > 0;
+        }
+
+        @Override
+        public int nextInt() {
+            checkForComodification();
+            if (count == 0) {
+                throw new NoSuchElementException();
+            }
+            HeapNode[] frontier = this.frontier;
+            HeapNode node = frontier[0];
+            frontier[0] = frontier[--count];
+            frontier[count] = null;
+            siftDown(frontier, 0, count);
+            int rank = node.rank;
+            if (count + rank > frontier.length) {
+                frontier = Arrays.copyOf(frontier, Math.max(2 * frontier.length, count + rank));
+                this.frontier = frontier;
+            }
+            HeapNode child = node.child;
+            for (int c = 0; c < rank; c++) {
+                frontier[count] = child;
+                siftUp(frontier, count++);
+                child = child.next;
+            }
+            return node.key;
+        }
+
+        private void checkForComodification() {
+            if (heap.modifications() != expectedModifications) {
+                throw new ConcurrentModificationException();
+            }
+        }
+    }
+
+    /**
+     * public enum ConsolidationMode
+     * <p>
+     * When a heap links its trees. EAGER consolidates inside every deleteMin. LAZY only unlinks the deleted
+     * root and leaves the minimum stale; the next findMin or deleteMin consolidates, so a burst of
+     * operations shares one consolidation. Both have the same amortized bounds.
+     * <p>
+     * INCREMENTAL bounds the linking done by a single call instead: roots are linked a few steps per
+     * operation (in proportion to the roots it adds), so a burst of inserts or a meld no longer leaves one
+     * deleteMin with O(n) links. findMin stays exact at all times. consolidate() and pollMin still link
+     * everything at once.
+     */
+    public enum ConsolidationMode {
+        EAGER, LAZY, INCREMENTAL
+    }
+
     /**
      * public class HeapNode
      * <p>
@@ -520,7 +1593,7 @@ public class FibonacciHeap {
      * (for example HeapNode), do it in this file, not in
      * another file
      */
-    public class HeapNode {
+    public static class HeapNode implements IntPriorityQueue.Handle {
 
         private int key;
         private int rank;
@@ -529,7 +1602,7 @@ public class FibonacciHeap {
         private HeapNode next;
         private HeapNode prev;
         private HeapNode parent;
-        private HeapNode pointerToOriginalTree; //only used for kMin
+        private int pendingIndex = -1; //index in the pending heap, only used by INCREMENTAL heaps
 
         public HeapNode(int key) {
             this.key = key;
@@ -584,6 +1657,10 @@ public class FibonacciHeap {
             this.child = child;
         }
 
+        public boolean isMarked() {
+            return isMarked;
+        }
+
         public void mark() {
             this.isMarked = true;
         }
@@ -591,9 +1668,5 @@ public class FibonacciHeap {
         public void unmark() {
             this.isMarked = false;
         }
-
-        public void setPointerToOriginalTree(HeapNode pointerToOriginalTree) {
-            this.pointerToOriginalTree = pointerToOriginalTree;
-        }
     }
 }
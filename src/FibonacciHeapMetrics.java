@@ -0,0 +1,154 @@
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+import java.lang.management.ManagementFactory;
+
+/**
+ * FibonacciHeapMetrics
+ * <p>
+ * Publishes FibonacciHeap counters on the platform MBean server, so they can be watched live
+ * (jconsole, JMC, any JMX client) under the "FibonacciHeap" domain. The per-heap counters are read through
+ * the heap's getters, in the same opaque mode the heap writes them, so a live view never stalls or tears.
+ */
+public class FibonacciHeapMetrics implements FibonacciHeapMetricsMBean {
+
+    public static final String DOMAIN = "FibonacciHeap";
+
+    private final FibonacciHeap heap;
+
+    public FibonacciHeapMetrics(FibonacciHeap heap) {
+        this.heap = heap;
+    }
+
+    /**
+     * public static ObjectName register(FibonacciHeap heap, String name)
+     * <p>
+     * Registers the counters of heap as FibonacciHeap:type=Heap,name=[name] and returns the object name.
+     * The registration keeps the heap reachable until unregister is called.
+     */
+    public static ObjectName register(FibonacciHeap heap, String name) throws JMException {
+        ObjectName objectName = new ObjectName(DOMAIN + ":type=Heap,name=" + ObjectName.quote(name));
+        server().registerMBean(new StandardMBean(new FibonacciHeapMetrics(heap), FibonacciHeapMetricsMBean.class), objectName);
+        return objectName;
+    }
+
+    /**
+     * public static ObjectName registerTotals()
+     * <p>
+     * Registers the program-wide totals as FibonacciHeap:type=Totals, once.
+     */
+    public static synchronized ObjectName registerTotals() throws JMException {
+        ObjectName objectName = new ObjectName(DOMAIN, "type", "Totals");
+        if (!server().isRegistered(objectName)) {
+            server().registerMBean(new StandardMBean(new Totals(), FibonacciHeapTotalsMBean.class), objectName);
+        }
+        return objectName;
+    }
+
+    public static void unregister(ObjectName objectName) throws JMException {
+        server().unregisterMBean(objectName);
+    }
+
+    private static MBeanServer server() {
+        return ManagementFactory.getPlatformMBeanServer();
+    }
+
+    @Override
+    public int getSize() {
+        return heap.size();
+    }
+
+    @Override
+    public int getNumberOfTrees() {
+        return heap.getNumberOfTrees();
+    }
+
+    @Override
+    public int getPotential() {
+        return heap.potential();
+    }
+
+    @Override
+    public long getLinks() {
+        return heap.getLinks();
+    }
+
+    @Override
+    public long getCuts() {
+        return heap.getCuts();
+    }
+
+    @Override
+    public long getConsolidations() {
+        return heap.getConsolidations();
+    }
+
+    @Override
+    public long getInserts() {
+        return heap.getInserts();
+    }
+
+    @Override
+    public long getDeleteMins() {
+        return heap.getDeleteMins();
+    }
+
+    @Override
+    public long getDecreaseKeys() {
+        return heap.getDecreaseKeys();
+    }
+
+    @Override
+    public long getDeletes() {
+        return heap.getDeletes();
+    }
+
+    @Override
+    public long getMelds() {
+        return heap.getMelds();
+    }
+
+    private static class Totals implements FibonacciHeapTotalsMBean {
+
+        @Override
+        public long getTotalLinks() {
+            return FibonacciHeap.TOTAL_LINKS.sum();
+        }
+
+        @Override
+        public long getTotalCuts() {
+            return FibonacciHeap.TOTAL_CUTS.sum();
+        }
+
+        @Override
+        public long getTotalConsolidations() {
+            return FibonacciHeap.totalConsolidations();
+        }
+
+        @Override
+        public long getTotalInserts() {
+            return FibonacciHeap.totalInserts();
+        }
+
+        @Override
+        public long getTotalDeleteMins() {
+            return FibonacciHeap.totalDeleteMins();
+        }
+
+        @Override
+        public long getTotalDecreaseKeys() {
+            return FibonacciHeap.totalDecreaseKeys();
+        }
+
+        @Override
+        public long getTotalDeletes() {
+            return FibonacciHeap.totalDeletes();
+        }
+
+        @Override
+        public long getTotalMelds() {
+            return FibonacciHeap.totalMelds();
+        }
+    }
+}
@@ -0,0 +1,29 @@
+/**
+ * FibonacciHeapMetricsMBean
+ * <p>
+ * JMX view of a single FibonacciHeap, registered through FibonacciHeapMetrics.register.
+ */
+public interface FibonacciHeapMetricsMBean {
+
+    int getSize();
+
+    int getNumberOfTrees();
+
+    int getPotential();
+
+    long getLinks();
+
+    long getCuts();
+
+    long getConsolidations();
+
+    long getInserts();
+
+    long getDeleteMins();
+
+    long getDecreaseKeys();
+
+    long getDeletes();
+
+    long getMelds();
+}
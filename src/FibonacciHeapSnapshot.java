@@ -0,0 +1,340 @@
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.function.ToIntFunction;
+
+/**
+ * FibonacciHeapSnapshot
+ * <p>
+ * Writes the tree structure of a FibonacciHeap to a file and restores it, so a restarted process gets back
+ * the same trees, marks and potential() instead of re-inserting every key and paying for a full
+ * consolidation on the first deleteMin. Files are written and read through memory-mapped windows of
+ * a FileChannel; reading allocates the heap nodes and a small explicit stack, nothing per node besides.
+ * <p>
+ * Layout, little-endian: a 28 byte header (magic, version, size, #trees, #marked, flags, min) followed by one
+ * 8 byte record per node in pre-order, roots in root-list order and children in child-list order. A record
+ * is the key int and an int holding rank &lt;&lt; 1 | mark; the rank is the number of children, so it also
+ * gives the shape of the tree. If flags has TAGGED set, an int tag per node follows the records in the same
+ * order, written and read by the package-private overloads for heaps whose nodes carry an id.
+ * <p>
+ * min is the position of the minimum root in the root list, or -1 if a lazy deleteMin left the minimum
+ * stale. Keeping the very root matters when keys are tied: delete and deleteMin take other paths for the
+ * minimum node, so a heap that picked another root of the same key would build other trees.
+ */
+public final class FibonacciHeapSnapshot {
+
+    static final int MAGIC = 0x46494253; // "FIBS"
+    static final int VERSION = 2;
+    static final int HEADER_BYTES = 28;
+    static final int RECORD_BYTES = 8;
+    static final int TAG_BYTES = 4;
+    static final int TAGGED = 1;
+
+    /*bytes mapped at once, a multiple of RECORD_BYTES and TAG_BYTES so no record straddles two windows*/
+    static final long WINDOW_BYTES = 1L << 30;
+
+    private FibonacciHeapSnapshot() {
+    }
+
+    /**
+     * public static void write(FibonacciHeap heap, Path path)
+     * <p>
+     * Writes the structure of heap to path, replacing the file. The heap is not changed, a stale LAZY
+     * minimum is not consolidated first.
+     */
+    public static void write(FibonacciHeap heap, Path path) throws IOException {
+        write(heap, path, null);
+    }
+
+    /*writes a tag per node as well if tags is not null*/
+    static void write(FibonacciHeap heap, Path path, ToIntFunction<FibonacciHeap.HeapNode> tags) throws IOException {
+        int size = heap.size();
+        int trees = heap.getNumberOfTrees();
+        int marked = (heap.potential() - trees) / 2;
+        FibonacciHeap.HeapNode min = heap.currentMin();
+        int minIndex = -1;
+        FibonacciHeap.HeapNode cur = heap.getFirst();
+        for (int t = 0; min != null && t < trees; t++, cur = cur.getNext()) {
+            if (cur == min) {
+                minIndex = t;
+                break;
+            }
+        }
+        if (min != null && minIndex < 0) {
+            throw new IllegalStateException("minimum of the heap is not one of its roots");
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            long recordsEnd = HEADER_BYTES + (long) RECORD_BYTES * size;
+            Window out = new Window(channel, FileChannel.MapMode.READ_WRITE, 0, recordsEnd);
+            Window tagsOut = tags == null ? null : new Window(channel, FileChannel.MapMode.READ_WRITE,
+                    recordsEnd, recordsEnd + (long) TAG_BYTES * size);
+            out.buffer.putInt(MAGIC).putInt(VERSION).putInt(size).putInt(trees).putInt(marked)
+                    .putInt(tags == null ? 0 : TAGGED).putInt(minIndex);
+
+            /*pre-order walk, cursor[d] is the next node to write among the siblings at depth d, which ends
+              before start[d]*/
+            FibonacciHeap.HeapNode[] cursor = new FibonacciHeap.HeapNode[FibonacciHeap.MAX_RANK + 2];
+            FibonacciHeap.HeapNode[] start = new FibonacciHeap.HeapNode[cursor.length];
+            int written = 0;
+            FibonacciHeap.HeapNode root = heap.getFirst();
+            for (int t = 0; t < trees; t++, root = root.getNext()) {
+                writeNode(out, tagsOut, tags, root);
+                written++;
+                int depth = 0;
+                if (root.getChild() != null) {
+                    cursor[0] = start[0] = root.getChild();
+                    depth = 1;
+                }
+                while (depth > 0) {
+                    FibonacciHeap.HeapNode node = cursor[depth - 1];
+                    cursor[depth - 1] = node.getNext();
+                    if (node.getNext() == start[depth - 1]) {
+                        depth--;
+                    }
+                    writeNode(out, tagsOut, tags, node);
+                    written++;
+                    if (node.getChild() != null) {
+                        if (depth == cursor.length) {
+                            cursor = Arrays.copyOf(cursor, 2 * depth);
+                            start = Arrays.copyOf(start, 2 * depth);
+                        }
+                        cursor[depth] = start[depth] = node.getChild();
+                        depth++;
+                    }
+                }
+            }
+            if (written != size) {
+                throw new IllegalStateException("heap holds " + written + " nodes but its size is " + size);
+            }
+            out.force();
+            if (tagsOut != null) {
+                tagsOut.force();
+            }
+        }
+    }
+
+    private static void writeNode(Window out, Window tagsOut, ToIntFunction<FibonacciHeap.HeapNode> tags,
+                                  FibonacciHeap.HeapNode node) throws IOException {
+        out.ensure(RECORD_BYTES);
+        out.buffer.putInt(node.getKey()).putInt(node.getRank() << 1 | (node.isMarked() ? 1 : 0));
+        if (tagsOut != null) {
+            tagsOut.ensure(TAG_BYTES);
+            tagsOut.buffer.putInt(tags.applyAsInt(node));
+        }
+    }
+
+    /**
+     * public static FibonacciHeap read(Path path)
+     * <p>
+     * Restores an EAGER heap from a snapshot written by write.
+     */
+    public static FibonacciHeap read(Path path) throws IOException {
+        return read(path, FibonacciHeap.ConsolidationMode.EAGER);
+    }
+
+    /**
+     * public static FibonacciHeap read(Path path, FibonacciHeap.ConsolidationMode mode)
+     * <p>
+     * Restores a heap in the given mode from a snapshot written by write. The restored heap has the
+     * trees, marks, potential and minimum root of the written one. A stale minimum stays stale in LAZY
+     * mode and is taken as the first root of minimal key otherwise.
+     * Throws IOException if the file is not a valid snapshot.
+     */
+    public static FibonacciHeap read(Path path, FibonacciHeap.ConsolidationMode mode) throws IOException {
+        return read(path, mode, null);
+    }
+
+    /*creates the node of a tagged snapshot record*/
+    interface NodeFactory {
+        FibonacciHeap.HeapNode create(int key, int tag) throws IOException;
+    }
+
+    /*reads a snapshot through nodes if it is not null, which then must be tagged*/
+    static FibonacciHeap read(Path path, FibonacciHeap.ConsolidationMode mode, NodeFactory nodes) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long length = channel.size();
+            if (length < HEADER_BYTES) {
+                throw new IOException("snapshot is truncated: " + path);
+            }
+            Window in = new Window(channel, FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES);
+            if (in.buffer.getInt() != MAGIC) {
+                throw new IOException("not a heap snapshot: " + path);
+            }
+            int version = in.buffer.getInt();
+            if (version != VERSION) {
+                throw new IOException("unsupported snapshot version " + version + ": " + path);
+            }
+            int size = in.buffer.getInt();
+            int trees = in.buffer.getInt();
+            int marked = in.buffer.getInt();
+            int flags = in.buffer.getInt();
+            int minIndex = in.buffer.getInt();
+            boolean tagged = (flags & TAGGED) != 0;
+            long recordsEnd = HEADER_BYTES + (long) RECORD_BYTES * size;
+            if (size < 0 || trees < 0 || trees > size || minIndex < -1 || minIndex >= trees
+                    || length != recordsEnd + (tagged ? (long) TAG_BYTES * size : 0)) {
+                throw new IOException("snapshot header does not match its length: " + path);
+            }
+            if (nodes != null && !tagged) {
+                throw new IOException("snapshot has no node tags: " + path);
+            }
+            if (size > 0) {
+                in = new Window(channel, FileChannel.MapMode.READ_ONLY, HEADER_BYTES, recordsEnd);
+            }
+            Window tagsIn = nodes == null || size == 0 ? null
+                    : new Window(channel, FileChannel.MapMode.READ_ONLY, recordsEnd, length);
+
+            /*parents[d] still expects remaining[d] more children*/
+            FibonacciHeap.HeapNode[] parents = new FibonacciHeap.HeapNode[FibonacciHeap.MAX_RANK + 2];
+            int[] remaining = new int[parents.length];
+            FibonacciHeap.HeapNode first = null;
+            FibonacciHeap.HeapNode last = null;
+            FibonacciHeap.HeapNode min = null;
+            FibonacciHeap.HeapNode smallest = null;
+            int read = 0;
+            int markedRead = 0;
+            for (int t = 0; t < trees; t++) {
+                FibonacciHeap.HeapNode root = readNode(in, tagsIn, nodes);
+                read++;
+                markedRead += root.isMarked() ? 1 : 0;
+                if (first == null) {
+                    first = root;
+                } else {
+                    last.setNext(root);
+                    root.setPrev(last);
+                }
+                last = root;
+                if (smallest == null || root.getKey() < smallest.getKey()) {
+                    smallest = root;
+                }
+                if (t == minIndex) {
+                    min = root;
+                }
+                int depth = 0;
+                if (root.getRank() > 0) {
+                    parents[0] = root;
+                    remaining[0] = root.getRank();
+                    depth = 1;
+                }
+                while (depth > 0) {
+                    if (read == size) {
+                        throw new IOException("snapshot has fewer nodes than its ranks need: " + path);
+                    }
+                    FibonacciHeap.HeapNode parent = parents[depth - 1];
+                    if (--remaining[depth - 1] == 0) {
+                        depth--;
+                    }
+                    FibonacciHeap.HeapNode node = readNode(in, tagsIn, nodes);
+                    read++;
+                    markedRead += node.isMarked() ? 1 : 0;
+                    appendChild(parent, node);
+                    if (node.getRank() > 0) {
+                        if (depth == parents.length) {
+                            parents = Arrays.copyOf(parents, 2 * depth);
+                            remaining = Arrays.copyOf(remaining, 2 * depth);
+                        }
+                        parents[depth] = node;
+                        remaining[depth] = node.getRank();
+                        depth++;
+                    }
+                }
+            }
+            if (read != size || markedRead != marked) {
+                throw new IOException("snapshot records do not match its header: " + path);
+            }
+            if (min != null && min.getKey() != smallest.getKey()) {
+                throw new IOException("snapshot minimum is not a root of minimal key: " + path);
+            }
+            if (first != null) {
+                last.setNext(first);
+                first.setPrev(last);
+                if (min == null && mode != FibonacciHeap.ConsolidationMode.LAZY) {
+                    min = smallest;
+                }
+            }
+            return FibonacciHeap.restore(mode, first, last, min, size, trees, marked);
+        }
+    }
+
+    private static FibonacciHeap.HeapNode readNode(Window in, Window tagsIn, NodeFactory nodes) throws IOException {
+        in.ensure(RECORD_BYTES);
+        int key = in.buffer.getInt();
+        int flags = in.buffer.getInt();
+        FibonacciHeap.HeapNode node;
+        if (nodes == null) {
+            node = new FibonacciHeap.HeapNode(key);
+        } else {
+            tagsIn.ensure(TAG_BYTES);
+            node = nodes.create(key, tagsIn.buffer.getInt());
+        }
+        node.setRank(flags >>> 1);
+        if ((flags & 1) != 0) {
+            node.mark();
+        }
+        return node;
+    }
+
+    /*adds node at the end of the child list of parent, the rank of parent is already set*/
+    private static void appendChild(FibonacciHeap.HeapNode parent, FibonacciHeap.HeapNode node) {
+        FibonacciHeap.HeapNode child = parent.getChild();
+        node.setParent(parent);
+        if (child == null) {
+            parent.setChild(node);
+            node.setNext(node);
+            node.setPrev(node);
+        } else {
+            FibonacciHeap.HeapNode tail = child.getPrev();
+            tail.setNext(node);
+            node.setPrev(tail);
+            node.setNext(child);
+            child.setPrev(node);
+        }
+    }
+
+    /*the mapped part of the section [start, end) of a snapshot file, moved forward WINDOW_BYTES at a time*/
+    private static final class Window {
+        private final FileChannel channel;
+        private final FileChannel.MapMode mode;
+        private final long length;
+        private long position;
+        MappedByteBuffer buffer;
+
+        Window(FileChannel channel, FileChannel.MapMode mode, long start, long end) throws IOException {
+            this.channel = channel;
+            this.mode = mode;
+            this.length = end;
+            map(start);
+        }
+
+        private void map(long at) throws IOException {
+            if (buffer != null && mode == FileChannel.MapMode.READ_WRITE) {
+                buffer.force();
+            }
+            position = at;
+            buffer = channel.map(mode, at, Math.min(WINDOW_BYTES, length - at));
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+        }
+
+        /*makes sure the next bytes can be read or written through buffer*/
+        void ensure(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                long next = position + buffer.position();
+                if (next + bytes > length) {
+                    throw new IOException("snapshot is truncated");
+                }
+                map(next);
+            }
+        }
+
+        void force() {
+            if (mode == FileChannel.MapMode.READ_WRITE) {
+                buffer.force();
+            }
+        }
+    }
+}
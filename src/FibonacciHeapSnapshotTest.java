@@ -0,0 +1,107 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+class FibonacciHeapSnapshotTest {
+
+    void testRoundTrip(Path file) throws IOException {
+        Random random = new Random(5L);
+        FibonacciHeap heap = new FibonacciHeap();
+        List<FibonacciHeap.HeapNode> nodes = new ArrayList<>();
+        for (int i = 0; i < 20000; i++) {
+            nodes.add(heap.insert(random.nextInt(1 << 24)));
+        }
+        heap.deleteMin();
+        // decreaseKeys cut subtrees and leave marked parents behind
+        for (int i = 0; i < 3000; i++) {
+            FibonacciHeap.HeapNode node = nodes.get(random.nextInt(nodes.size()));
+            if (node != heap.findMin() && node.getParent() != null) {
+                heap.decreaseKey(node, random.nextInt(1000) + 1);
+            }
+        }
+        heap.deleteMin();
+        for (int i = 0; i < 100; i++) {
+            heap.insert(random.nextInt(1 << 24));
+        }
+        FibonacciHeapSnapshot.write(heap, file);
+        assert (Files.size(file) == FibonacciHeapSnapshot.HEADER_BYTES
+                + (long) FibonacciHeapSnapshot.RECORD_BYTES * heap.size()) : "unexpected snapshot length";
+
+        for (FibonacciHeap.ConsolidationMode mode : FibonacciHeap.ConsolidationMode.values()) {
+            FibonacciHeap restored = FibonacciHeapSnapshot.read(file, mode);
+            assert (restored.getConsolidationMode() == mode) : "restored heap has the wrong mode";
+            assert (restored.size() == heap.size()) : "restored size is incorrect";
+            assert (restored.potential() == heap.potential()) : "restored potential is incorrect";
+            assert (Arrays.equals(restored.countersRep(), heap.countersRep())) : "restored trees are incorrect";
+            assert (restored.findMin().getKey() == heap.findMin().getKey()) : "restored min is incorrect";
+            if (mode == FibonacciHeap.ConsolidationMode.EAGER) {
+                assert (restored.getLinks() == 0) : "restoring linked trees";
+            }
+            int[] expected = FibonacciHeap.kMin(heap, heap.size());
+            for (int key : expected) {
+                assert (restored.findMin().getKey() == key) : "incorrect key";
+                restored.deleteMin();
+            }
+            assert (restored.isEmpty()) : "restored heap is not empty";
+        }
+        System.out.println("testRoundTrip Passed!");
+    }
+
+    void testEmptyHeap(Path file) throws IOException {
+        FibonacciHeapSnapshot.write(new FibonacciHeap(), file);
+        FibonacciHeap restored = FibonacciHeapSnapshot.read(file);
+        assert (restored.isEmpty() && restored.findMin() == null) : "restored heap is not empty";
+        restored.insert(3);
+        assert (restored.findMin().getKey() == 3) : "restored heap is not usable";
+        System.out.println("testEmptyHeap Passed!");
+    }
+
+    void testCorruptSnapshot(Path file) throws IOException {
+        FibonacciHeap heap = new FibonacciHeap();
+        for (int i = 0; i < 64; i++) {
+            heap.insert(i);
+        }
+        heap.deleteMin();
+        FibonacciHeapSnapshot.write(heap, file);
+        byte[] bytes = Files.readAllBytes(file);
+
+        // a root claiming more children than the file holds
+        ByteBuffer buffer = ByteBuffer.wrap(bytes.clone()).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(FibonacciHeapSnapshot.HEADER_BYTES + 4, 40 << 1);
+        assert (rejects(file, buffer.array())) : "corrupt ranks were accepted";
+        buffer = ByteBuffer.wrap(bytes.clone()).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(24, (buffer.getInt(24) + 1) % buffer.getInt(12));
+        assert (rejects(file, buffer.array())) : "a minimum of a larger key was accepted";
+        assert (rejects(file, Arrays.copyOf(bytes, bytes.length - 8))) : "truncated snapshot was accepted";
+        assert (rejects(file, new byte[FibonacciHeapSnapshot.HEADER_BYTES])) : "missing magic was accepted";
+        System.out.println("testCorruptSnapshot Passed!");
+    }
+
+    private static boolean rejects(Path file, byte[] bytes) throws IOException {
+        Files.write(file, bytes);
+        try {
+            FibonacciHeapSnapshot.read(file);
+            return false;
+        } catch (IOException ex) {
+            return true;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        FibonacciHeapSnapshotTest test = new FibonacciHeapSnapshotTest();
+        Path file = Files.createTempFile("heap", ".snapshot");
+        try {
+            test.testRoundTrip(file);
+            test.testEmptyHeap(file);
+            test.testCorruptSnapshot(file);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
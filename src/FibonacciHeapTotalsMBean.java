@@ -0,0 +1,24 @@
+/**
+ * FibonacciHeapTotalsMBean
+ * <p>
+ * JMX view of the operation counters summed over every FibonacciHeap of the program,
+ * registered through FibonacciHeapMetrics.registerTotals.
+ */
+public interface FibonacciHeapTotalsMBean {
+
+    long getTotalLinks();
+
+    long getTotalCuts();
+
+    long getTotalConsolidations();
+
+    long getTotalInserts();
+
+    long getTotalDeleteMins();
+
+    long getTotalDecreaseKeys();
+
+    long getTotalDeletes();
+
+    long getTotalMelds();
+}
@@ -0,0 +1,152 @@
+import java.util.Arrays;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * GraphAlgorithms
+ * <p>
+ * Shortest paths and minimum spanning trees on a CsrGraph, with an IndexedFibonacciHeap keyed by vertex.
+ * A vertex is inserted once and improved in place with decreaseKey, so the heap never holds more than V
+ * entries and the running time is O(E + V log V).
+ * <p>
+ * Distances are ints; INFINITY marks unreachable vertices, and path lengths must stay below it.
+ */
+public final class GraphAlgorithms {
+
+    public static final int INFINITY = Integer.MAX_VALUE;
+
+    private GraphAlgorithms() {
+    }
+
+    /**
+     * public static int[] dijkstra(CsrGraph graph, int source)
+     * <p>
+     * Return the distances from source to every vertex, INFINITY for the unreachable ones.
+     */
+    public static int[] dijkstra(CsrGraph graph, int source) {
+        return dijkstra(graph, source, null);
+    }
+
+    /**
+     * public static int[] dijkstra(CsrGraph graph, int source, int[] parent)
+     * <p>
+     * Return the distances from source to every vertex, and writes the predecessor of every vertex on a
+     * shortest path to parent (-1 for source and the unreachable ones) if parent is not null.
+     */
+    public static int[] dijkstra(CsrGraph graph, int source, int[] parent) {
+        int n = graph.vertices();
+        int[] dist = new int[n];
+        Arrays.fill(dist, INFINITY);
+        if (parent != null) {
+            Arrays.fill(parent, 0, n, -1);
+        }
+        IndexedFibonacciHeap heap = new IndexedFibonacciHeap(n);
+        dist[source] = 0;
+        heap.insert(source, 0);
+        while (!heap.isEmpty()) {
+            int u = heap.deleteMin();
+            int du = dist[u];
+            for (int e = graph.firstEdge(u), end = graph.firstEdge(u + 1); e < end; e++) {
+                int v = graph.target(e);
+                long candidate = (long) du + graph.weight(e);
+                if (candidate < dist[v]) {
+                    relax(heap, dist, v, (int) candidate);
+                    if (parent != null) {
+                        parent[v] = u;
+                    }
+                }
+            }
+        }
+        return dist;
+    }
+
+    /**
+     * public static int aStar(CsrGraph graph, int source, int target, IntUnaryOperator heuristic)
+     * <p>
+     * Return the distance from source to target, or INFINITY if target is unreachable. heuristic gives a
+     * lower bound of the distance from a vertex to target and must be consistent (h(u) &lt;= w(u, v) + h(v)),
+     * so that no vertex has to be expanded twice. The heap is keyed by distance + heuristic.
+     */
+    public static int aStar(CsrGraph graph, int source, int target, IntUnaryOperator heuristic) {
+        int n = graph.vertices();
+        int[] dist = new int[n];
+        Arrays.fill(dist, INFINITY);
+        boolean[] closed = new boolean[n];
+        IndexedFibonacciHeap heap = new IndexedFibonacciHeap(n);
+        dist[source] = 0;
+        heap.insert(source, heuristic.applyAsInt(source));
+        while (!heap.isEmpty()) {
+            int u = heap.deleteMin();
+            if (u == target) {
+                return dist[u];
+            }
+            closed[u] = true;
+            int du = dist[u];
+            for (int e = graph.firstEdge(u), end = graph.firstEdge(u + 1); e < end; e++) {
+                int v = graph.target(e);
+                long candidate = (long) du + graph.weight(e);
+                if (!closed[v] && candidate < dist[v]) {
+                    if (dist[v] == INFINITY) {
+                        heap.insert(v, (int) candidate + heuristic.applyAsInt(v));
+                    } else {
+                        // the heuristic of v is fixed, so its key drops by as much as its distance
+                        heap.decreaseKey(v, dist[v] - (int) candidate);
+                    }
+                    dist[v] = (int) candidate;
+                }
+            }
+        }
+        return INFINITY;
+    }
+
+    /**
+     * public static long prim(CsrGraph graph, int[] parent)
+     * <p>
+     * Return the weight of a minimum spanning forest of the undirected graph, and writes the parent of every
+     * vertex in its tree (-1 for the roots) to parent if it is not null. Every edge must be stored in both
+     * directions, as CsrGraph.fromEdges does for undirected graphs.
+     */
+    public static long prim(CsrGraph graph, int[] parent) {
+        int n = graph.vertices();
+        int[] key = new int[n];
+        Arrays.fill(key, INFINITY);
+        boolean[] inTree = new boolean[n];
+        if (parent != null) {
+            Arrays.fill(parent, 0, n, -1);
+        }
+        IndexedFibonacciHeap heap = new IndexedFibonacciHeap(n);
+        long total = 0;
+        for (int root = 0; root < n; root++) {
+            if (inTree[root]) {
+                continue;
+            }
+            key[root] = 0;
+            heap.insert(root, 0);
+            while (!heap.isEmpty()) {
+                int u = heap.deleteMin();
+                inTree[u] = true;
+                total += key[u];
+                for (int e = graph.firstEdge(u), end = graph.firstEdge(u + 1); e < end; e++) {
+                    int v = graph.target(e);
+                    int w = graph.weight(e);
+                    if (!inTree[v] && w < key[v]) {
+                        relax(heap, key, v, w);
+                        if (parent != null) {
+                            parent[v] = u;
+                        }
+                    }
+                }
+            }
+        }
+        return total;
+    }
+
+    /*lowers the key of v to value, inserting v if it has no key yet*/
+    private static void relax(IndexedFibonacciHeap heap, int[] key, int v, int value) {
+        if (key[v] == INFINITY) {
+            heap.insert(v, value);
+        } else {
+            heap.decreaseKey(v, key[v] - value);
+        }
+        key[v] = value;
+    }
+}
@@ -0,0 +1,170 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+class GraphAlgorithmsTest {
+
+    /*O(V * E) reference distances*/
+    private static int[] bellmanFord(CsrGraph graph, int source) {
+        int[] dist = new int[graph.vertices()];
+        Arrays.fill(dist, GraphAlgorithms.INFINITY);
+        dist[source] = 0;
+        for (boolean changed = true; changed; ) {
+            changed = false;
+            for (int u = 0; u < graph.vertices(); u++) {
+                if (dist[u] == GraphAlgorithms.INFINITY) continue;
+                for (int e = graph.firstEdge(u); e < graph.firstEdge(u + 1); e++) {
+                    if (dist[u] + graph.weight(e) < dist[graph.target(e)]) {
+                        dist[graph.target(e)] = dist[u] + graph.weight(e);
+                        changed = true;
+                    }
+                }
+            }
+        }
+        return dist;
+    }
+
+    /*Kruskal with union-find over all stored edges, the reference forest weight*/
+    private static long kruskal(CsrGraph graph) {
+        int n = graph.vertices();
+        Integer[] order = new Integer[graph.edges()];
+        int[] sourceOf = new int[graph.edges()];
+        for (int u = 0; u < n; u++) {
+            for (int e = graph.firstEdge(u); e < graph.firstEdge(u + 1); e++) {
+                sourceOf[e] = u;
+                order[e] = e;
+            }
+        }
+        Arrays.sort(order, (a, b) -> Integer.compare(graph.weight(a), graph.weight(b)));
+        int[] root = new int[n];
+        for (int v = 0; v < n; v++) root[v] = v;
+        long total = 0;
+        for (int e : order) {
+            int a = find(root, sourceOf[e]);
+            int b = find(root, graph.target(e));
+            if (a != b) {
+                root[a] = b;
+                total += graph.weight(e);
+            }
+        }
+        return total;
+    }
+
+    private static int find(int[] root, int v) {
+        while (root[v] != v) {
+            root[v] = root[root[v]];
+            v = root[v];
+        }
+        return v;
+    }
+
+    void testDijkstra() {
+        for (int seed = 0; seed < 5; seed++) {
+            CsrGraph graph = CsrGraph.random(2000, 3, 1000, seed);
+            int[] parent = new int[graph.vertices()];
+            int[] dist = GraphAlgorithms.dijkstra(graph, seed, parent);
+            assert (Arrays.equals(dist, bellmanFord(graph, seed))) : "incorrect distances";
+            for (int v = 0; v < graph.vertices(); v++) {
+                if (parent[v] < 0) {
+                    assert (v == seed) : "reachable vertex without a parent";
+                    continue;
+                }
+                boolean found = false;
+                for (int e = graph.firstEdge(parent[v]); e < graph.firstEdge(parent[v] + 1); e++) {
+                    found |= graph.target(e) == v && dist[parent[v]] + graph.weight(e) == dist[v];
+                }
+                assert (found) : "parent is not on a shortest path";
+            }
+        }
+        // an unreachable vertex
+        CsrGraph graph = CsrGraph.fromEdges(3, new int[]{0}, new int[]{1}, new int[]{5}, 1, false);
+        assert (Arrays.equals(GraphAlgorithms.dijkstra(graph, 0), new int[]{0, 5, GraphAlgorithms.INFINITY}))
+                : "incorrect distances";
+        System.out.println("testDijkstra Passed!");
+    }
+
+    void testAStar() {
+        int width = 120, height = 80;
+        CsrGraph grid = CsrGraph.grid(width, height, 9, 3L);
+        Random random = new Random(4L);
+        for (int i = 0; i < 20; i++) {
+            int source = random.nextInt(grid.vertices());
+            int target = random.nextInt(grid.vertices());
+            int tx = target % width, ty = target / width;
+            int distance = GraphAlgorithms.aStar(grid, source, target,
+                    v -> Math.abs(v % width - tx) + Math.abs(v / width - ty));
+            assert (distance == GraphAlgorithms.dijkstra(grid, source)[target]) : "incorrect A* distance";
+        }
+        CsrGraph graph = CsrGraph.fromEdges(3, new int[]{0}, new int[]{1}, new int[]{5}, 1, false);
+        assert (GraphAlgorithms.aStar(graph, 0, 2, v -> 0) == GraphAlgorithms.INFINITY) : "unreachable target was reached";
+        System.out.println("testAStar Passed!");
+    }
+
+    void testPrim() {
+        for (int seed = 0; seed < 5; seed++) {
+            Random random = new Random(seed);
+            int n = 1500, m = 4000;
+            int[] sources = new int[m], targets = new int[m], weights = new int[m];
+            for (int e = 0; e < m; e++) {
+                sources[e] = random.nextInt(n);
+                targets[e] = random.nextInt(n);
+                weights[e] = random.nextInt(100);
+            }
+            // a sparse graph, so the forest has several trees
+            CsrGraph graph = CsrGraph.fromEdges(n, sources, targets, weights, m, true);
+            int[] parent = new int[n];
+            long weight = GraphAlgorithms.prim(graph, parent);
+            assert (weight == kruskal(graph)) : "incorrect spanning forest weight";
+            int roots = 0;
+            for (int v = 0; v < n; v++) {
+                roots += parent[v] < 0 ? 1 : 0;
+            }
+            int[] root = new int[n];
+            for (int v = 0; v < n; v++) root[v] = v;
+            int components = n;
+            for (int e = 0; e < m; e++) {
+                int a = find(root, sources[e]), b = find(root, targets[e]);
+                if (a != b) {
+                    root[a] = b;
+                    components--;
+                }
+            }
+            assert (roots == components) : "one root per component expected";
+        }
+        System.out.println("testPrim Passed!");
+    }
+
+    void testLoad() throws IOException {
+        Path file = Files.createTempFile("graph", ".edges");
+        try {
+            Files.write(file, Arrays.asList("# source target weight", "0 1 4", "", "1 2\t3", "% comment", "0 2 9", "3 0"));
+            CsrGraph graph = CsrGraph.load(file, false);
+            assert (graph.vertices() == 4 && graph.edges() == 4) : "incorrect graph size";
+            assert (Arrays.equals(GraphAlgorithms.dijkstra(graph, 3), new int[]{1, 5, 8, 0})) : "incorrect distances";
+            assert (CsrGraph.load(file, true).edges() == 8) : "undirected edges are not doubled";
+
+            Files.write(file, Arrays.asList("0 1 -4"));
+            boolean thrown = false;
+            try {
+                CsrGraph.load(file, false);
+            } catch (IOException ex) {
+                thrown = true;
+            }
+            assert (thrown) : "negative weight was accepted";
+        } finally {
+            Files.deleteIfExists(file);
+        }
+        System.out.println("testLoad Passed!");
+    }
+
+    public static void main(String[] args) throws IOException {
+        GraphAlgorithmsTest test = new GraphAlgorithmsTest();
+
+        test.testDijkstra();
+        test.testAStar();
+        test.testPrim();
+        test.testLoad();
+    }
+}
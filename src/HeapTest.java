@@ -1,5 +1,18 @@
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
@@ -38,11 +51,6 @@ class HeapTest {
         return heap;
     }
 
-    private static void restartCutsLink() {
-        FibonacciHeap.totalCuts = 0;
-        FibonacciHeap.totalLinks = 0;
-    }
-
     void testEmpty() {
         FibonacciHeap heap = new FibonacciHeap();
 
@@ -116,6 +124,176 @@ class HeapTest {
 
     }
 
+    /*walks the trees of heap checking heap order, parents and ranks, and compares the trees, marks and size
+      found with the heap's counters*/
+    static void assertConsistent(FibonacciHeap heap, String where) {
+        int[] counts = new int[3]; // trees, marked, size
+        FibonacciHeap.HeapNode root = heap.getFirst();
+        if (root != null) {
+            do {
+                assert (root.getParent() == null) : "root with a parent " + where;
+                counts[0]++;
+                walkTree(root, counts, where);
+                root = root.getNext();
+            } while (root != heap.getFirst());
+        }
+        assert (counts[0] == heap.getNumberOfTrees()) : "numOfTrees " + heap.getNumberOfTrees() + " vs actual " + counts[0] + " " + where;
+        assert (heap.potential() == counts[0] + 2 * counts[1]) : "numMarked " + (heap.potential() - heap.getNumberOfTrees()) / 2
+                + " vs actual " + counts[1] + " " + where;
+        assert (counts[2] == heap.size()) : "size " + heap.size() + " vs actual " + counts[2] + " " + where;
+    }
+
+    private static void walkTree(FibonacciHeap.HeapNode node, int[] counts, String where) {
+        counts[2]++;
+        if (node.isMarked()) {
+            counts[1]++;
+        }
+        int rank = 0;
+        FibonacciHeap.HeapNode child = node.getChild();
+        if (child != null) {
+            do {
+                assert (child.getParent() == node) : "child with a wrong parent " + where;
+                assert (child.getKey() >= node.getKey()) : "heap order violated " + where;
+                rank++;
+                walkTree(child, counts, where);
+                child = child.getNext();
+            } while (child != node.getChild());
+        }
+        assert (rank == node.getRank()) : "rank " + node.getRank() + " vs actual " + rank + " " + where;
+    }
+
+    /*random inserts, decreaseKeys, deletes, deleteMins and melds against a sorted multiset, checking the
+      structure after every operation and a snapshot round trip every few hundred*/
+    void testRandomDeletes() throws Exception {
+        Path file = Files.createTempFile("fibonacci-heap", ".snapshot");
+        for (FibonacciHeap.ConsolidationMode mode : FibonacciHeap.ConsolidationMode.values()) {
+            for (long seed = 0; seed < 4; seed++) {
+                Random random = new Random(seed);
+                FibonacciHeap heap = new FibonacciHeap(mode);
+                List<FibonacciHeap.HeapNode> nodes = new ArrayList<>();
+                java.util.TreeMap<Integer, Integer> keys = new java.util.TreeMap<>();
+                for (int op = 0; op < 5000; op++) {
+                    String where = mode + " seed " + seed + " op " + op;
+                    int choice = random.nextInt(20);
+                    if (nodes.isEmpty() || choice < 7) {
+                        // extreme keys used to overflow the decrease below the minimum of the old delete
+                        int key = choice == 0 ? Integer.MIN_VALUE : choice == 1 ? Integer.MAX_VALUE : random.nextInt(1 << 16);
+                        nodes.add(heap.insert(key));
+                        keys.merge(key, 1, Integer::sum);
+                    } else if (choice < 12) {
+                        FibonacciHeap.HeapNode node = nodes.get(random.nextInt(nodes.size()));
+                        int delta = (int) Math.min(random.nextInt(1 << 12), (long) node.getKey() - Integer.MIN_VALUE);
+                        keys.merge(node.getKey(), -1, Integer::sum);
+                        keys.remove(node.getKey(), 0);
+                        heap.decreaseKey(node, delta);
+                        keys.merge(node.getKey(), 1, Integer::sum);
+                    } else if (choice < 17) {
+                        FibonacciHeap.HeapNode node = nodes.remove(random.nextInt(nodes.size()));
+                        long consolidations = heap.getConsolidations();
+                        boolean min = heap.size() == 1 || node.getKey() == keys.firstKey();
+                        heap.delete(node);
+                        keys.merge(node.getKey(), -1, Integer::sum);
+                        keys.remove(node.getKey(), 0);
+                        assert (min || mode == FibonacciHeap.ConsolidationMode.INCREMENTAL
+                                || heap.getConsolidations() == consolidations) : "delete consolidated the heap " + where;
+                    } else if (choice < 19) {
+                        FibonacciHeap.HeapNode node = heap.findMin();
+                        assert (node.getKey() == keys.firstKey()) : "incorrect minimum " + where;
+                        nodes.remove(node);
+                        heap.deleteMin();
+                        keys.merge(node.getKey(), -1, Integer::sum);
+                        keys.remove(node.getKey(), 0);
+                    } else {
+                        // a heap of any mode with many unlinked roots, stale in LAZY mode
+                        FibonacciHeap other = new FibonacciHeap(FibonacciHeap.ConsolidationMode.values()[random.nextInt(3)]);
+                        for (int i = random.nextInt(40); i > 0; i--) {
+                            int key = random.nextInt(1 << 16);
+                            nodes.add(other.insert(key));
+                            keys.merge(key, 1, Integer::sum);
+                        }
+                        if (other.size() > 1 && other.getConsolidationMode() == FibonacciHeap.ConsolidationMode.LAZY) {
+                            FibonacciHeap.HeapNode node = other.findMin();
+                            nodes.remove(node);
+                            other.deleteMin();
+                            keys.merge(node.getKey(), -1, Integer::sum);
+                            keys.remove(node.getKey(), 0);
+                        }
+                        heap.meld(other);
+                    }
+                    assertConsistent(heap, where);
+                    if (mode != FibonacciHeap.ConsolidationMode.LAZY && !heap.isEmpty()) {
+                        assert (heap.findMin().getKey() == keys.firstKey()) : "incorrect minimum " + where;
+                    }
+                    if (op % 500 == 499) {
+                        FibonacciHeapSnapshot.write(heap, file);
+                        FibonacciHeap restored = FibonacciHeapSnapshot.read(file, mode);
+                        assertConsistent(restored, "restored " + where);
+                        assert (restored.potential() == heap.potential()) : "restored potential is incorrect " + where;
+                    }
+                }
+                while (!heap.isEmpty()) {
+                    assert (heap.findMin().getKey() == keys.firstKey()) : "incorrect minimum while draining";
+                    keys.merge(keys.firstKey(), -1, Integer::sum);
+                    keys.remove(keys.firstKey(), 0);
+                    heap.deleteMin();
+                    assertConsistent(heap, mode + " seed " + seed + " drain");
+                }
+            }
+        }
+        Files.delete(file);
+        System.out.println("testRandomDeletes Passed!");
+    }
+
+    void testDeleteWithoutConsolidation() {
+        FibonacciHeap heap = new FibonacciHeap();
+        FibonacciHeap.HeapNode[] nodes = new FibonacciHeap.HeapNode[9];
+        for (int j = 0; j < 9; j++) {
+            nodes[j] = heap.insert(j);
+        }
+        heap.deleteMin();
+        long consolidations = heap.getConsolidations();
+        long totalDeletes = FibonacciHeap.totalDeletes();
+
+        HeapTracer tracer = new HeapTracer(4);
+        heap.setTracer(tracer);
+        heap.delete(nodes[5]);
+        heap.setTracer(null);
+        heap.delete(nodes[2]);
+        List<String> events = new ArrayList<>();
+        tracer.forEach((op, key, rank, length, nanoTime) -> events.add(op + ":" + key + ":" + rank));
+        assert (events.equals(List.of("DELETE:5:2"))) : "incorrect delete event " + events;
+        assert (heap.getConsolidations() == consolidations) : "delete consolidated the heap";
+        assert (heap.getDeleteMins() == 1 && heap.getDeletes() == 2) : "incorrect delete counters";
+        assert (FibonacciHeap.totalDeletes() - totalDeletes == 2) : "totalDeletes is not updated";
+        assert (heap.getNumberOfTrees() > 1) : "children were not moved to the root list";
+        assert (heap.size() == 6 && heap.findMin() == nodes[1]) : "minimum is not kept";
+        assert (Arrays.equals(FibonacciHeap.kMin(heap, 6), new int[]{1, 3, 4, 6, 7, 8})) : "incorrect keys after delete";
+
+        // deleting the minimum still goes through deleteMin
+        heap.delete(nodes[1]);
+        assert (heap.getDeleteMins() == 2 && heap.findMin() == nodes[3]) : "minimum is not updated correctly";
+
+        // extreme keys, whose decrease below the minimum used to overflow
+        for (FibonacciHeap.ConsolidationMode mode : FibonacciHeap.ConsolidationMode.values()) {
+            FibonacciHeap extreme = new FibonacciHeap(mode);
+            int[] keys = {Integer.MIN_VALUE, Integer.MAX_VALUE, -1, Integer.MIN_VALUE + 1, 0, Integer.MAX_VALUE - 1, 1,
+                    Integer.MAX_VALUE};
+            FibonacciHeap.HeapNode[] extremeNodes = new FibonacciHeap.HeapNode[keys.length];
+            for (int j = 0; j < keys.length; j++) {
+                extremeNodes[j] = extreme.insert(keys[j]);
+            }
+            extreme.deleteMin();
+            extreme.delete(extremeNodes[1]);
+            extreme.delete(extremeNodes[3]);
+            extreme.delete(extremeNodes[5]);
+            assert (Arrays.equals(FibonacciHeap.kMin(extreme, 8), new int[]{-1, 0, 1, Integer.MAX_VALUE}))
+                    : "incorrect keys after deleting extreme keys in " + mode;
+            assert (extreme.findMin() == extremeNodes[2]) : "minimum is not updated correctly in " + mode;
+        }
+
+        System.out.println("testDeleteWithoutConsolidation Passed!");
+    }
+
     void testDecreaseKey() {
 
         int[] arr = {5, 6, 7, 8, 9, 10, 11, 12, 13, 14};
@@ -149,9 +327,8 @@ class HeapTest {
 
     void testTotalCuts() {
 
-        assert (FibonacciHeap.totalCuts == 0) : "reset cuts";
-
         FibonacciHeap heap = new FibonacciHeap();
+        assert (heap.getCuts() == 0) : "new heap has cuts";
 
         int[] arr2 = {0, 1, 2, 3, 4, 5, 6, 7, 8};
         FibonacciHeap.HeapNode[] nodes = new FibonacciHeap.HeapNode[9];
@@ -162,14 +339,14 @@ class HeapTest {
 
 
         heap.decreaseKey(nodes[7], 5);
-        assert (FibonacciHeap.totalCuts == 1) : "incorrect cuts count";
+        assert (heap.getCuts() == 1) : "incorrect cuts count";
 
         heap.decreaseKey(nodes[6], 2);
 
-        assert (FibonacciHeap.totalCuts == 3) : "incorrect cuts count";
+        assert (heap.getCuts() == 3) : "incorrect cuts count";
 
         heap.decreaseKey(nodes[3], 3);
-        assert (FibonacciHeap.totalCuts == 4) : "incorrect cuts count";
+        assert (heap.getCuts() == 4) : "incorrect cuts count";
 
 
         System.out.println("testTotalCuts Passed!");
@@ -205,9 +382,8 @@ class HeapTest {
     }
 
     void testPotential() {
-        assert (FibonacciHeap.totalCuts == 0) : "reset cuts";
-
         FibonacciHeap heap = new FibonacciHeap();
+        assert (heap.getCuts() == 0) : "new heap has cuts";
 
         int[] arr2 = {0, 1, 2, 3, 4, 5, 6, 7, 8};
         FibonacciHeap.HeapNode[] nodes = new FibonacciHeap.HeapNode[9];
@@ -254,9 +430,50 @@ class HeapTest {
             }
         }
 
+        heap = arrayToHeap(new int[]{5, 3, 9, 1, 7});
+        result = FibonacciHeap.kMin(heap, 10);
+        assert (Arrays.equals(result, new int[]{1, 3, 5, 7, 9})) : "kMin did not stop at heap size";
+        assert (heap.getNumberOfTrees() == 5) : "kMin changed the heap";
+
         System.out.println("testKMin Passed!");
     }
 
+    void testSortedIterator() {
+        int[] arr = randomArray(500, 0, 5000);
+        FibonacciHeap heap = arrayToHeap(arr);
+        heap.deleteMin();
+        FibonacciHeap.HeapNode node = heap.insert(6000);
+        for (int i = 0; i < 50; i++) {
+            heap.decreaseKey(heap.getFirst().getNext(), 1);
+        }
+        int[] before = heap.countersRep();
+
+        FibonacciHeap.SortedIterator iterator = heap.sortedIterator();
+        int previous = Integer.MIN_VALUE;
+        int count = 0;
+        while (iterator.hasNext()) {
+            int key = iterator.nextInt();
+            assert (key >= previous) : "keys aren't sorted";
+            previous = key;
+            count++;
+        }
+        assert (count == heap.size() && previous == 6000) : "iterator missed keys";
+        assert (Arrays.equals(before, heap.countersRep()) && heap.size() == 500) : "iterator changed the heap";
+
+        iterator.reset();
+        assert (iterator.nextInt() == heap.findMin().getKey()) : "reset did not restart";
+        heap.decreaseKey(node, 1);
+        boolean thrown = false;
+        try {
+            iterator.nextInt();
+        } catch (java.util.ConcurrentModificationException ex) {
+            thrown = true;
+        }
+        assert (thrown) : "iterator did not notice the change";
+        assert (!new FibonacciHeap().sortedIterator().hasNext()) : "empty heap has keys";
+        System.out.println("testSortedIterator Passed!");
+    }
+
     void testMeld() {
         int[] arr1 = {1, 2, 3, 4, 5, 6, 7, 8};
         int[] arr2 = {9, 10, 0};
@@ -296,25 +513,441 @@ class HeapTest {
             heap1.deleteMin();
         }
 
+        heap1 = arrayToHeap(arr1);
+        heap2 = arrayToHeap(arr2);
+        FibonacciHeap.SortedIterator iterator = heap2.sortedIterator();
+        heap1.meld(heap2);
+        assert (heap2.isEmpty() && heap2.size() == 0 && heap2.findMin() == null) : "melded heap was not emptied";
+        boolean thrown = false;
+        try {
+            iterator.nextInt();
+        } catch (java.util.ConcurrentModificationException ex) {
+            thrown = true;
+        }
+        assert (thrown) : "iterator over the melded heap did not notice the meld";
+        heap2.insert(42);
+        assert (heap1.size() == 11 && heap2.size() == 1) : "melded heap still shares nodes";
+
         System.out.println("testMeld Passed!");
     }
 
+    void testMeldAll() {
+        Random random = new Random(7);
+        for (FibonacciHeap.ConsolidationMode mode : FibonacciHeap.ConsolidationMode.values()) {
+            List<FibonacciHeap> heaps = new ArrayList<>();
+            int[] keys = new int[5000];
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = random.nextInt(100000);
+            }
+            int trees = 0, potential = 0;
+            for (int h = 0; h < 10; h++) {
+                FibonacciHeap heap = new FibonacciHeap(FibonacciHeap.ConsolidationMode.values()[h % 3]);
+                for (int i = h; i < keys.length; i += 10) {
+                    heap.insert(keys[i]);
+                }
+                if (h % 2 == 0) {
+                    int min = heap.findMin().getKey();
+                    heap.deleteMin();
+                    heap.insert(min);
+                }
+                trees += heap.getNumberOfTrees();
+                potential += heap.potential();
+                heaps.add(heap);
+            }
+            heaps.add(new FibonacciHeap());
+            heaps.add(heaps.get(0));
+            FibonacciHeap first = new FibonacciHeap(mode);
+            heaps.add(0, first);
+
+            FibonacciHeap melded = FibonacciHeap.meldAll(heaps);
+            assert (melded.getConsolidationMode() == mode) : "meldAll took the wrong mode";
+            assert (melded.size() == keys.length) : "size after meldAll is not the sum of the heaps";
+            if (mode != FibonacciHeap.ConsolidationMode.INCREMENTAL) {
+                assert (melded.getNumberOfTrees() == trees) : "numOfTrees after meldAll is not the sum of the heaps";
+                assert (melded.potential() == potential) : "potential after meldAll is not the sum of the heaps";
+            }
+            for (FibonacciHeap heap : heaps) {
+                assert (heap.isEmpty()) : "a melded heap was not emptied";
+            }
+            Arrays.sort(keys);
+            for (int key : keys) {
+                assert (melded.findMin().getKey() == key) : "incorrect key";
+                melded.deleteMin();
+            }
+            assert (melded.isEmpty()) : "melded heap is not empty";
+        }
+        assert (FibonacciHeap.meldAll(new ArrayList<>()).isEmpty()) : "meldAll of nothing is not empty";
+        System.out.println("testMeldAll Passed!");
+    }
+
+    void testBuildParallel() {
+        Random random = new Random(11);
+        int[] keys = new int[100_000];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = random.nextInt();
+        }
+        ForkJoinPool pool = new ForkJoinPool(4);
+        int[] sorted = keys.clone();
+        Arrays.sort(sorted);
+        for (boolean consolidate : new boolean[]{false, true}) {
+            FibonacciHeap heap = FibonacciHeap.buildParallel(keys, pool, consolidate);
+            assert (heap.size() == keys.length) : "incorrect size";
+            if (consolidate) {
+                // at most 16 chunks, each a set of binomial trees of distinct ranks
+                assert (heap.getNumberOfTrees() <= 16 * 17) : "chunks were not consolidated";
+            } else {
+                assert (heap.getNumberOfTrees() == keys.length) : "incorrect number of trees";
+            }
+            for (int key : sorted) {
+                assert (heap.findMin().getKey() == key) : "incorrect key";
+                heap.deleteMin();
+            }
+        }
+        assert (FibonacciHeap.buildParallel(new int[0], pool).isEmpty()) : "heap of no keys is not empty";
+        assert (FibonacciHeap.buildParallel(new int[]{3}, pool).findMin().getKey() == 3) : "incorrect min";
+        pool.shutdown();
+        System.out.println("testBuildParallel Passed!");
+    }
+
+    void testInsertAll() {
+        int[] keys = {7, 3, 9, 3, 12, 5, 1, 8, 6, 4, 11, 2, 10};
+        FibonacciHeap looped = arrayToHeap(new int[]{20, 0});
+        FibonacciHeap bulk = arrayToHeap(new int[]{20, 0});
+        for (int i = 2; i < 11; i++) {
+            looped.insert(keys[i]);
+        }
+        FibonacciHeap.HeapNode[] nodes = bulk.insertAll(keys, 2, 11);
+
+        assert (nodes.length == 9 && nodes[4].getKey() == 1) : "returned nodes don't match the keys";
+        assert (bulk.size() == 11 && bulk.getNumberOfTrees() == 11) : "incorrect size or number of trees";
+        assert (bulk.findMin().getKey() == 0) : "incorrect min";
+        for (int i = 0; i < 4; i++) {
+            assert (bulk.findMin().getKey() == looped.findMin().getKey()) : "incorrect key";
+            assert (Arrays.equals(bulk.countersRep(), looped.countersRep())) : "trees differ from looped inserts";
+            bulk.deleteMin();
+            looped.deleteMin();
+        }
+
+        bulk.decreaseKey(nodes[6], 100);
+        assert (bulk.findMin() == nodes[6]) : "minimum is not updated correctly";
+        assert (new FibonacciHeap().insertAll(keys, 3, 3).length == 0) : "empty range inserted nodes";
+        System.out.println("testInsertAll Passed!");
+    }
+
+    void testPollMin() {
+        int[] arr = randomArray(200, 0, 1000);
+        FibonacciHeap polled = arrayToHeap(arr);
+        FibonacciHeap looped = arrayToHeap(arr);
+        FibonacciHeap.HeapNode[] nodes = new FibonacciHeap.HeapNode[10];
+        for (int i = 0; i < nodes.length; i++) {
+            nodes[i] = polled.insert(2000 + i);
+            looped.insert(2000 + i);
+        }
+        int[] out = new int[50];
+        for (int batch : new int[]{1, 17, 50, 3}) {
+            assert (polled.pollMin(batch, out) == batch) : "incorrect amount of polled keys";
+            for (int i = 0; i < batch; i++) {
+                assert (out[i] == looped.findMin().getKey()) : "incorrect key";
+                looped.deleteMin();
+            }
+            assert (polled.size() == looped.size()) : "new size is incorrect";
+            assert (polled.findMin().getKey() == looped.findMin().getKey()) : "minimum is not updated correctly";
+            assert (Arrays.equals(polled.countersRep(), looped.countersRep())) : "incorrect number of trees";
+        }
+        assert (polled.getDeleteMins() == 71) : "incorrect deleteMin count";
+
+        polled.decreaseKey(nodes[3], 2000);
+        assert (polled.findMin() == nodes[3]) : "minimum is not updated correctly";
+
+        List<Integer> drained = new ArrayList<>();
+        int remaining = polled.size();
+        assert (polled.drainTo(drained::add, Integer.MAX_VALUE) == remaining) : "incorrect amount of drained keys";
+        assert (polled.isEmpty() && polled.potential() == 0) : "drained heap isn't empty";
+        assert (drained.get(0) == 3 && drained.get(remaining - 1) == 2009) : "incorrect key";
+        for (int i = 1; i < remaining; i++) {
+            assert (drained.get(i - 1) <= drained.get(i)) : "drained keys aren't sorted";
+        }
+        assert (polled.pollMin(5, out) == 0) : "empty heap returned keys";
+
+        // an action that throws keeps the keys it got deleted, whether the call drains part or all of the heap
+        for (int k : new int[]{30, Integer.MAX_VALUE}) {
+            FibonacciHeap heap = new FibonacciHeap();
+            FibonacciHeap.HeapNode[] inserted = heap.insertAll(sortedArray(100, 0), 0, 100);
+            heap.deleteMin();
+            for (int i = 90; i < 100; i++) {
+                heap.delete(inserted[i]);
+            }
+            assert (heap.potential() > heap.getNumberOfTrees()) : "no marked nodes to drain";
+            List<Integer> accepted = new ArrayList<>();
+            try {
+                heap.drainTo(key -> {
+                    if (accepted.size() == 10) throw new IllegalStateException("full");
+                    accepted.add(key);
+                }, k);
+                assert false : "drainTo swallowed the exception";
+            } catch (IllegalStateException expected) {
+                // the 11th key was deleted before the action refused it
+            }
+            assertConsistent(heap, "after a failed drainTo");
+            assert (heap.size() == 78) : "size is incorrect after a failed drainTo";
+            assert (heap.getDeleteMins() == 12) : "incorrect deleteMin count";
+            assert (accepted.get(0) == 1 && heap.findMin().getKey() == 12) : "incorrect key";
+            assert (heap.drainTo(accepted::add, Integer.MAX_VALUE) == 78 && heap.isEmpty()) : "heap did not drain";
+        }
+        System.out.println("testPollMin Passed!");
+    }
+
+    /*runs the same random operations on an EAGER heap and a heap of the given mode*/
+    private static void compareWithEager(FibonacciHeap.ConsolidationMode mode) {
+        java.util.Random random = new java.util.Random(0L);
+        FibonacciHeap eager = new FibonacciHeap();
+        FibonacciHeap other = new FibonacciHeap(mode);
+        List<FibonacciHeap.HeapNode> eagerNodes = new ArrayList<>();
+        List<FibonacciHeap.HeapNode> otherNodes = new ArrayList<>();
+        for (int op = 0; op < 20000; op++) {
+            int choice = random.nextInt(10);
+            // keys are distinct modulo 32768 so that both heaps agree on every minimum
+            int key = random.nextInt(1 << 14) * 32768 + op;
+            if (eagerNodes.isEmpty() || choice < 4) {
+                eagerNodes.add(eager.insert(key));
+                otherNodes.add(other.insert(key));
+            } else if (choice < 6) {
+                int i = random.nextInt(eagerNodes.size());
+                int delta = random.nextInt(64) * 32768;
+                eager.decreaseKey(eagerNodes.get(i), delta);
+                other.decreaseKey(otherNodes.get(i), delta);
+            } else if (choice < 7) {
+                int i = random.nextInt(eagerNodes.size());
+                eager.delete(eagerNodes.remove(i));
+                other.delete(otherNodes.remove(i));
+            } else if (choice < 8) {
+                FibonacciHeap melded = new FibonacciHeap(mode);
+                melded.insert(key - 32768);
+                otherNodes.add(melded.insert(key));
+                eagerNodes.add(eager.insert(key));
+                melded.deleteMin();
+                other.meld(melded);
+            } else {
+                int i = eagerNodes.indexOf(eager.findMin());
+                assert (other.findMin() == otherNodes.get(i)) : "minimum is not updated correctly";
+                eagerNodes.remove(i);
+                otherNodes.remove(i);
+                eager.deleteMin();
+                other.deleteMin();
+            }
+            assert (other.size() == eager.size()) : "size is incorrect";
+            if (mode == FibonacciHeap.ConsolidationMode.INCREMENTAL && !eager.isEmpty()) {
+                assert (other.findMin().getKey() == eager.findMin().getKey()) : "minimum is not updated correctly";
+                assert (other.findMin().getParent() == null) : "minimum is not a root";
+            }
+        }
+    }
+
+    void testLazyMode() {
+        FibonacciHeap lazy = new FibonacciHeap(FibonacciHeap.ConsolidationMode.LAZY);
+        for (int key : sortedArray(16, 0)) {
+            lazy.insert(key);
+        }
+        lazy.deleteMin();
+        assert (lazy.getNumberOfTrees() == 15) : "lazy deleteMin consolidated";
+        assert (lazy.getConsolidations() == 0) : "lazy deleteMin consolidated";
+        lazy.insert(20);
+        assert (lazy.findMin().getKey() == 1) : "minimal key isn't as expected after deleteMin";
+        assert (lazy.getNumberOfTrees() == 1 && lazy.getConsolidations() == 1) : "findMin did not consolidate";
+
+        compareWithEager(FibonacciHeap.ConsolidationMode.LAZY);
+        System.out.println("testLazyMode Passed!");
+    }
+
+    void testIncrementalMode() {
+        FibonacciHeap heap = new FibonacciHeap(FibonacciHeap.ConsolidationMode.INCREMENTAL);
+        for (int key : randomArray(10000, 0, 100000)) {
+            heap.insert(key);
+        }
+        assert (heap.getNumberOfTrees() <= Integer.bitCount(10000) + 1) : "inserts were not linked along the way";
+
+        FibonacciHeap singletons = arrayToHeap(sortedArray(10000, 200000));
+        heap.meld(singletons);
+        int bound = FibonacciHeap.INCREMENTAL_BASE_WORK + FibonacciHeap.INCREMENTAL_WORK_PER_ROOT * FibonacciHeap.MAX_RANK;
+        int previous = -1;
+        while (!heap.isEmpty()) {
+            long links = heap.getLinks();
+            int key = heap.findMin().getKey();
+            heap.deleteMin();
+            assert (heap.getLinks() - links <= bound) : "deleteMin linked too many trees";
+            assert (key >= previous) : "incorrect key";
+            previous = key;
+        }
+        assert (previous == 209999) : "incorrect key";
+        assert (heap.getConsolidations() == 0) : "incremental heap consolidated";
+
+        compareWithEager(FibonacciHeap.ConsolidationMode.INCREMENTAL);
+        System.out.println("testIncrementalMode Passed!");
+    }
+
+    /*melding many unlinked roots with smaller keys into an INCREMENTAL heap, by meld and by meldAll, and
+      deleting their minimum right away must not link more than the step budget in any single call*/
+    void testIncrementalMeldThenDrain() {
+        int n = 1 << 20;
+        int bound = FibonacciHeap.INCREMENTAL_BASE_WORK + FibonacciHeap.INCREMENTAL_WORK_PER_ROOT * FibonacciHeap.MAX_RANK;
+        for (boolean all : new boolean[]{false, true}) {
+            FibonacciHeap heap = new FibonacciHeap(FibonacciHeap.ConsolidationMode.INCREMENTAL);
+            for (int key : randomArray(1000, n, 2 * n)) {
+                heap.insert(key);
+            }
+            FibonacciHeap roots = new FibonacciHeap();
+            roots.insertAll(randomArray(n, 0, n - 1), 0, n);
+            long links = all ? 0 : heap.getLinks(); // meldAll counts on the heap it creates
+            if (all) {
+                heap = FibonacciHeap.meldAll(Arrays.asList(heap, roots));
+            } else {
+                heap.meld(roots);
+            }
+            assert (heap.getLinks() - links <= bound) : "meld linked too many trees";
+            for (int i = 0; i < 20000; i++) {
+                assert (heap.findMin().getKey() == i) : "incorrect key";
+                links = heap.getLinks();
+                heap.deleteMin();
+                assert (heap.getLinks() - links <= bound) : "deleteMin linked " + (heap.getLinks() - links) + " trees";
+            }
+            assert (heap.getConsolidations() == 0) : "incremental heap consolidated";
+        }
+        System.out.println("testIncrementalMeldThenDrain Passed!");
+    }
+
+    void testCounters() throws Exception {
+        int totalLinks = FibonacciHeap.totalLinks();
+        long totalInserts = FibonacciHeap.totalInserts();
+        FibonacciHeap heap1 = arrayToHeap(sortedArray(9, 0));
+        FibonacciHeap heap2 = arrayToHeap(sortedArray(5, 0));
+        heap1.deleteMin();
+        heap2.deleteMin();
+
+        assert (heap1.getInserts() == 9 && heap2.getInserts() == 5) : "inserts are shared between heaps";
+        assert (heap1.getLinks() == 7 && heap2.getLinks() == 3) : "links are shared between heaps";
+        assert (heap1.getDeleteMins() == 1 && heap1.getConsolidations() == 1) : "incorrect deleteMin counters";
+        assert (FibonacciHeap.totalLinks() - totalLinks == 10) : "totalLinks is not the sum of both heaps";
+        assert (FibonacciHeap.totalInserts() - totalInserts == 14) : "totalInserts is not the sum of both heaps";
+
+        heap1.meld(heap2);
+        heap1.decreaseKey(heap1.findMin(), 1);
+        assert (heap1.getMelds() == 1 && heap1.getDecreaseKeys() == 1) : "incorrect meld/decreaseKey counters";
+
+        ObjectName name = FibonacciHeapMetrics.register(heap1, "testCounters");
+        ObjectName totals = FibonacciHeapMetrics.registerTotals();
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        assert ((Long) server.getAttribute(name, "Links") == 7) : "MBean reports wrong links";
+        assert ((Integer) server.getAttribute(name, "Size") == heap1.size()) : "MBean reports wrong size";
+        assert ((Long) server.getAttribute(totals, "TotalInserts") == FibonacciHeap.totalInserts()) : "MBean reports wrong totals";
+        assert ((Long) server.getAttribute(totals, "TotalDeletes") == FibonacciHeap.totalDeletes()) : "MBean reports wrong totals";
+        FibonacciHeapMetrics.unregister(name);
+
+        System.out.println("testCounters Passed!");
+    }
+
+    void testTracer() {
+        FibonacciHeap heap = new FibonacciHeap();
+        FibonacciHeap.HeapNode[] nodes = new FibonacciHeap.HeapNode[9];
+        for (int j = 0; j < 9; j++) {
+            nodes[j] = heap.insert(j);
+        }
+        HeapTracer tracer = new HeapTracer(4);
+        heap.setTracer(tracer);
+        heap.deleteMin();
+        heap.decreaseKey(nodes[7], 5);
+        heap.decreaseKey(nodes[6], 2);
+        heap.setTracer(null);
+        heap.deleteMin();
+
+        assert (tracer.recorded() == 4) : "incorrect number of events";
+        List<String> events = new ArrayList<>();
+        tracer.forEach((op, key, rank, length, nanoTime) -> events.add(op + ":" + key + ":" + rank + ":" + length));
+        assert (events.get(0).equals("CONSOLIDATE:1:3:7")) : "incorrect consolidate event " + events.get(0);
+        assert (events.get(1).equals("DELETE_MIN:0:0:1")) : "incorrect deleteMin event " + events.get(1);
+        assert (events.get(2).equals("DECREASE_KEY:2:1:1")) : "incorrect decreaseKey event " + events.get(2);
+        assert (events.get(3).equals("DECREASE_KEY:4:0:2")) : "incorrect cut chain " + events.get(3);
+
+        System.out.println("testTracer Passed!");
+    }
+
+    void testFlightRecorderEvents() throws Exception {
+        Path file = Files.createTempFile("fibonacci-heap", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("FibonacciHeap.Consolidation");
+            recording.enable("FibonacciHeap.CascadingCut");
+            recording.start();
+            FibonacciHeap heap = new FibonacciHeap();
+            FibonacciHeap.HeapNode[] nodes = new FibonacciHeap.HeapNode[9];
+            for (int j = 0; j < 9; j++) {
+                nodes[j] = heap.insert(j);
+            }
+            heap.deleteMin();
+            heap.decreaseKey(nodes[7], 5);
+            heap.decreaseKey(nodes[6], 2);
+            recording.stop();
+            recording.dump(file);
+        }
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        Files.delete(file);
+        assert (events.size() == 3) : "expected 3 events but found " + events.size();
+        RecordedEvent consolidation = events.stream()
+                .filter(e -> e.getEventType().getName().equals("FibonacciHeap.Consolidation")).findFirst().get();
+        assert (consolidation.getInt("rootsBefore") == 8) : "incorrect roots before consolidation";
+        assert (consolidation.getInt("rootsAfter") == 1) : "incorrect roots after consolidation";
+        assert (consolidation.getInt("links") == 7) : "incorrect links in consolidation";
+        int maxChain = events.stream().filter(e -> e.getEventType().getName().equals("FibonacciHeap.CascadingCut"))
+                .mapToInt(e -> e.getInt("chainLength")).max().getAsInt();
+        assert (maxChain == 2) : "incorrect cut chain length";
+
+        System.out.println("testFlightRecorderEvents Passed!");
+    }
+
+    void testDeleteMinAllocation() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        FibonacciHeap heap = arrayToHeap(randomArray(20000, 0, 20000));
+        heap.deleteMin(); // first consolidation allocates the bucket array
+
+        long overhead = threads.getCurrentThreadAllocatedBytes();
+        overhead = threads.getCurrentThreadAllocatedBytes() - overhead;
+        long before = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < 10000; i++) {
+            heap.deleteMin();
+        }
+        long allocated = threads.getCurrentThreadAllocatedBytes() - before - overhead;
+        assert (allocated == 0) : "deleteMin allocated " + allocated + " bytes";
+
+        System.out.println("testDeleteMinAllocation Passed!");
+    }
+
     public static void main(String[] args) throws Exception {
         HeapTest test = new HeapTest();
 
         test.testEmpty();
         test.testDeleteMin();
         test.testTotalCuts();
-        restartCutsLink();
         test.testPotential();
 
 
         test.testDecreaseKey();
         test.testDelete();
+        test.testRandomDeletes();
+        test.testDeleteWithoutConsolidation();
         //TODO.testTotalLinks()
         test.testCountersRep();
         test.testKMin();
+        test.testSortedIterator();
         test.testMeld();
+        test.testMeldAll();
+        test.testBuildParallel();
+        test.testInsertAll();
+        test.testPollMin();
+        test.testLazyMode();
+        test.testIncrementalMode();
+        test.testIncrementalMeldThenDrain();
         test.testPotential();
+        test.testCounters();
+        test.testTracer();
+        test.testFlightRecorderEvents();
+        test.testDeleteMinAllocation();
     }
 }
\ No newline at end of file
@@ -0,0 +1,115 @@
+/**
+ * HeapTracer
+ * <p>
+ * Records structured FibonacciHeap events into a fixed size ring buffer. A heap only calls its tracer
+ * when one is attached (FibonacciHeap.setTracer), so tracing costs a single null check while disabled.
+ * Like the heap itself, a tracer is meant to be used by one thread at a time: it may be attached from another
+ * thread, but it records on the thread that uses the heap, see FibonacciHeap.setTracer.
+ * <p>
+ * Every event has an operation, a key, a rank and a length, whose meaning depends on the operation:
+ * <ul>
+ * <li>INSERT: the inserted key, 0, the size after the insert</li>
+ * <li>DELETE_MIN: the deleted key, its rank (children moved to the root list), the trees left after consolidation
+ * (the unconsolidated trees for a LAZY heap)</li>
+ * <li>DECREASE_KEY: the new key, the node's rank, the length of the cascading cut chain (0 if nothing was cut)</li>
+ * <li>MELD: the minimum key after the meld (Integer.MIN_VALUE while it is stale), 0, the size of the melded heap</li>
+ * <li>CONSOLIDATE: the minimum key after consolidation, the highest rank, the links performed</li>
+ * <li>DELETE: the deleted key, its rank (children moved to the root list), the length of the cascading cut
+ * chain (0 for a root). Deleting the minimum is recorded as DELETE_MIN</li>
+ * </ul>
+ */
+public class HeapTracer {
+
+    public enum Op {
+        INSERT, DELETE_MIN, DECREASE_KEY, MELD, CONSOLIDATE, DELETE
+    }
+
+    /**
+     * Receives the events of a tracer, see HeapTracer.forEach.
+     */
+    public interface EventConsumer {
+        void accept(Op op, int key, int rank, int length, long nanoTime);
+    }
+
+    private static final Op[] OPS = Op.values();
+
+    private final int mask;
+    private final byte[] ops;
+    private final int[] keys;
+    private final int[] ranks;
+    private final int[] lengths;
+    private final long[] timestamps;
+    private long recorded;
+
+    /**
+     * capacity is the number of most recent events kept, rounded up to a power of 2.
+     */
+    public HeapTracer(int capacity) {
+        if (capacity <= 0 || capacity > (1 << 30)) {
+            throw new IllegalArgumentException("invalid capacity: " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) size <<= 1;
+        mask = size - 1;
+        ops = new byte[size];
+        keys = new int[size];
+        ranks = new int[size];
+        lengths = new int[size];
+        timestamps = new long[size];
+    }
+
+    public void record(Op op, int key, int rank, int length) {
+        int i = (int) (recorded++) & mask;
+        ops[i] = (byte) op.ordinal();
+        keys[i] = key;
+        ranks[i] = rank;
+        lengths[i] = length;
+        timestamps[i] = System.nanoTime();
+    }
+
+    /**
+     * public long recorded()
+     * <p>
+     * Return the number of events recorded since creation or the last clear, including overwritten ones.
+     */
+    public long recorded() {
+        return recorded;
+    }
+
+    /**
+     * public int available()
+     * <p>
+     * Return the number of events still held by the ring buffer.
+     */
+    public int available() {
+        return (int) Math.min(recorded, mask + 1);
+    }
+
+    /**
+     * public void forEach(EventConsumer consumer)
+     * <p>
+     * Passes the held events to consumer, oldest first.
+     */
+    public void forEach(EventConsumer consumer) {
+        for (long seq = recorded - available(); seq < recorded; seq++) {
+            int i = (int) seq & mask;
+            consumer.accept(OPS[ops[i]], keys[i], ranks[i], lengths[i], timestamps[i]);
+        }
+    }
+
+    public void clear() {
+        recorded = 0;
+    }
+
+    /**
+     * public String dump()
+     * <p>
+     * Return the held events, one per line, oldest first.
+     */
+    public String dump() {
+        StringBuilder sb = new StringBuilder();
+        forEach((op, key, rank, length, nanoTime) ->
+                sb.append(String.format("%d %s key=%d rank=%d length=%d%n", nanoTime, op, key, rank, length)));
+        return sb.toString();
+    }
+}
@@ -0,0 +1,147 @@
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * IndexedFibonacciHeap
+ * <p>
+ * A fibonacci heap over integers whose entries are identified by dense external ids 0..capacity-1
+ * (vertex ids, slot numbers) instead of node handles. ids are mapped to the nodes of an ArrayFibonacciHeap
+ * through plain int arrays, so every id based call is O(1) on top of the heap operation, with no boxing.
+ */
+public class IndexedFibonacciHeap {
+
+    private static final int NONE = ArrayFibonacciHeap.NONE;
+
+    private final ArrayFibonacciHeap heap;
+    private final int[] handleOfId;
+    private final int[] idOfHandle;
+
+    /**
+     * Creates a heap for ids 0..capacity-1.
+     */
+    public IndexedFibonacciHeap(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("negative capacity: " + capacity);
+        }
+        // the engine never holds more than capacity nodes, so its handles stay below capacity
+        heap = new ArrayFibonacciHeap(capacity);
+        handleOfId = new int[capacity];
+        idOfHandle = new int[Math.max(1, capacity)];
+        Arrays.fill(handleOfId, NONE);
+    }
+
+    public int capacity() {
+        return handleOfId.length;
+    }
+
+    /**
+     * public boolean contains(int id)
+     * <p>
+     * Return true if the heap holds an entry for id.
+     */
+    public boolean contains(int id) {
+        return handleOfId[id] != NONE;
+    }
+
+    /**
+     * public void insert(int id, int key)
+     * <p>
+     * Inserts an entry with the given key for id. Throws IllegalArgumentException if id is already in the heap.
+     */
+    public void insert(int id, int key) {
+        if (handleOfId[id] != NONE) {
+            throw new IllegalArgumentException("id " + id + " is already in the heap");
+        }
+        int handle = heap.insert(key);
+        handleOfId[id] = handle;
+        idOfHandle[handle] = id;
+    }
+
+    /**
+     * public int keyOf(int id)
+     * <p>
+     * Return the key of id. Throws NoSuchElementException if id is not in the heap.
+     */
+    public int keyOf(int id) {
+        return heap.getKey(handle(id));
+    }
+
+    /**
+     * public void decreaseKey(int id, int delta)
+     * <p>
+     * Decreases the key of id by delta.
+     */
+    public void decreaseKey(int id, int delta) {
+        heap.decreaseKey(handle(id), delta);
+    }
+
+    /**
+     * public void delete(int id)
+     * <p>
+     * Deletes the entry of id from the heap.
+     */
+    public void delete(int id) {
+        heap.delete(handle(id));
+        handleOfId[id] = NONE;
+    }
+
+    /**
+     * public int findMin()
+     * <p>
+     * Return the id whose key is minimal, or -1 if the heap is empty.
+     */
+    public int findMin() {
+        int handle = heap.findMin();
+        return handle == NONE ? -1 : idOfHandle[handle];
+    }
+
+    /**
+     * public int findMinKey()
+     * <p>
+     * Return the minimal key. Throws NoSuchElementException if the heap is empty.
+     */
+    public int findMinKey() {
+        int handle = heap.findMin();
+        if (handle == NONE) {
+            throw new NoSuchElementException("heap is empty");
+        }
+        return heap.getKey(handle);
+    }
+
+    /**
+     * public int deleteMin()
+     * <p>
+     * Deletes the entry whose key is minimal and returns its id.
+     * Throws NoSuchElementException if the heap is empty.
+     */
+    public int deleteMin() {
+        int handle = heap.findMin();
+        if (handle == NONE) {
+            throw new NoSuchElementException("heap is empty");
+        }
+        int id = idOfHandle[handle];
+        heap.deleteMin();
+        handleOfId[id] = NONE;
+        return id;
+    }
+
+    public boolean isEmpty() {
+        return heap.isEmpty();
+    }
+
+    public int size() {
+        return heap.size();
+    }
+
+    public int potential() {
+        return heap.potential();
+    }
+
+    private int handle(int id) {
+        int handle = handleOfId[id];
+        if (handle == NONE) {
+            throw new NoSuchElementException("id " + id + " is not in the heap");
+        }
+        return handle;
+    }
+}
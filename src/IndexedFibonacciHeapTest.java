@@ -0,0 +1,74 @@
+import java.util.Random;
+
+class IndexedFibonacciHeapTest {
+
+    void testOperations() {
+        IndexedFibonacciHeap heap = new IndexedFibonacciHeap(10);
+        for (int id = 0; id < 10; id++) {
+            heap.insert(id, 100 - id);
+        }
+        assert (heap.findMin() == 9) : "incorrect minimal id";
+        assert (heap.deleteMin() == 9) : "deleteMin returned wrong id";
+        assert (!heap.contains(9)) : "deleted id still contained";
+
+        heap.decreaseKey(3, 50);
+        assert (heap.keyOf(3) == 47) : "incorrect key after decreaseKey";
+        assert (heap.findMin() == 3) : "minimum is not updated correctly";
+
+        heap.delete(3);
+        assert (!heap.contains(3)) : "deleted id still contained";
+        assert (heap.findMin() == 8 && heap.findMinKey() == 92) : "minimum is not updated correctly";
+
+        heap.insert(3, 0);
+        heap.insert(9, 1);
+        assert (heap.deleteMin() == 3 && heap.deleteMin() == 9) : "reinserted ids are not ordered";
+        assert (heap.size() == 8) : "size is incorrect";
+
+        boolean thrown = false;
+        try {
+            heap.insert(0, 5);
+        } catch (IllegalArgumentException ex) {
+            thrown = true;
+        }
+        assert (thrown) : "duplicate id was accepted";
+        System.out.println("testOperations Passed!");
+    }
+
+    void testRandomOperations() {
+        int n = 1000;
+        Random random = new Random(0L);
+        IndexedFibonacciHeap heap = new IndexedFibonacciHeap(n);
+        Integer[] keys = new Integer[n];
+        for (int op = 0; op < 100000; op++) {
+            int id = random.nextInt(n);
+            int choice = random.nextInt(4);
+            if (keys[id] == null) {
+                keys[id] = random.nextInt(1 << 20);
+                heap.insert(id, keys[id]);
+            } else if (choice == 0) {
+                int delta = random.nextInt(1000);
+                keys[id] -= delta;
+                heap.decreaseKey(id, delta);
+            } else if (choice == 1) {
+                keys[id] = null;
+                heap.delete(id);
+            } else {
+                int min = heap.findMin();
+                for (Integer key : keys) {
+                    assert (key == null || key >= keys[min]) : "minimum is not updated correctly";
+                }
+                assert (heap.deleteMin() == min) : "deleteMin returned wrong id";
+                keys[min] = null;
+            }
+            assert (keys[id] == null || heap.keyOf(id) == keys[id]) : "keyOf returned wrong key";
+        }
+        System.out.println("testRandomOperations Passed!");
+    }
+
+    public static void main(String[] args) {
+        IndexedFibonacciHeapTest test = new IndexedFibonacciHeapTest();
+
+        test.testOperations();
+        test.testRandomOperations();
+    }
+}
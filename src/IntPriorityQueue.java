@@ -0,0 +1,66 @@
+/**
+ * IntPriorityQueue
+ * <p>
+ * The addressable priority queue over integers that FibonacciHeap, PairingHeap, DaryHeap and RadixHeap
+ * implement. insert returns an opaque handle of type H that stays valid until its entry is deleted and is
+ * the only way to reach the entry for decreaseKey and delete; code written against
+ * {@code <H extends IntPriorityQueue.Handle> ... IntPriorityQueue<H>} runs on any of them.
+ */
+public interface IntPriorityQueue<H extends IntPriorityQueue.Handle> {
+
+    /**
+     * An entry of a queue; its key can be read, it is changed only through the queue.
+     */
+    interface Handle {
+        int getKey();
+    }
+
+    /**
+     * public H insert(int key)
+     * <p>
+     * Inserts key and returns the handle of its entry.
+     */
+    H insert(int key);
+
+    /**
+     * public H findMin()
+     * <p>
+     * Return the handle of an entry with the minimal key, or null if the queue is empty.
+     */
+    H findMin();
+
+    /**
+     * public void deleteMin()
+     * <p>
+     * Deletes the entry returned by findMin, if the queue is not empty.
+     */
+    void deleteMin();
+
+    /**
+     * public void decreaseKey(H handle, int delta)
+     * <p>
+     * Decreases the key of the entry by delta &gt;= 0.
+     */
+    void decreaseKey(H handle, int delta);
+
+    /**
+     * public void delete(H handle)
+     * <p>
+     * Deletes the entry from the queue.
+     */
+    void delete(H handle);
+
+    /**
+     * public void meld(IntPriorityQueue&lt;H&gt; other)
+     * <p>
+     * Moves every entry of other, which must be a queue of the same class, into this queue and leaves other
+     * empty. Handles of other stay valid and now belong to this queue.
+     */
+    void meld(IntPriorityQueue<H> other);
+
+    int size();
+
+    default boolean isEmpty() {
+        return size() == 0;
+    }
+}
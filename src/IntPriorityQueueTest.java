@@ -0,0 +1,120 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+
+class IntPriorityQueueTest {
+
+    /*random monotone operations (no key below the current minimum), as every implementation accepts them*/
+    private static <H extends IntPriorityQueue.Handle> void randomOperations(Supplier<IntPriorityQueue<H>> factory) {
+        Random random = new Random(9L);
+        IntPriorityQueue<H> queue = factory.get();
+        TreeMap<Integer, Integer> expected = new TreeMap<>();
+        List<H> handles = new ArrayList<>();
+        int floor = 0;
+        for (int i = 0; i < 50000; i++) {
+            int op = random.nextInt(10);
+            if (op < 4 || expected.isEmpty()) {
+                int key = floor + random.nextInt(100000);
+                handles.add(queue.insert(key));
+                expected.merge(key, 1, Integer::sum);
+            } else if (op < 6) {
+                H min = queue.findMin();
+                assert (min.getKey() == expected.firstKey()) : "incorrect min";
+                floor = min.getKey();
+                queue.deleteMin();
+                remove(expected, floor);
+                handles.remove(min);
+            } else if (op < 8) {
+                H handle = handles.get(random.nextInt(handles.size()));
+                int min = expected.firstKey();
+                int delta = random.nextInt(handle.getKey() - min + 1);
+                remove(expected, handle.getKey());
+                queue.decreaseKey(handle, delta);
+                expected.merge(handle.getKey(), 1, Integer::sum);
+            } else if (op < 9) {
+                H handle = handles.remove(random.nextInt(handles.size()));
+                remove(expected, handle.getKey());
+                queue.delete(handle);
+            } else {
+                IntPriorityQueue<H> other = factory.get();
+                for (int j = 0; j < 20; j++) {
+                    int key = floor + random.nextInt(100000);
+                    handles.add(other.insert(key));
+                    expected.merge(key, 1, Integer::sum);
+                }
+                queue.meld(other);
+                assert (other.isEmpty()) : "melded queue was not emptied";
+            }
+            assert (queue.size() == handles.size()) : "size is incorrect";
+        }
+        while (!expected.isEmpty()) {
+            assert (queue.findMin().getKey() == expected.firstKey()) : "incorrect min";
+            queue.deleteMin();
+            remove(expected, expected.firstKey());
+        }
+        assert (queue.isEmpty() && queue.findMin() == null) : "queue is not empty";
+    }
+
+    private static void remove(TreeMap<Integer, Integer> multiset, int key) {
+        multiset.compute(key, (k, count) -> count == 1 ? null : count - 1);
+    }
+
+    void testImplementations() {
+        randomOperations(FibonacciHeap::new);
+        randomOperations(PairingHeap::new);
+        randomOperations(DaryHeap::new);
+        randomOperations(() -> new DaryHeap(2));
+        randomOperations(RadixHeap::new);
+        System.out.println("testImplementations Passed!");
+    }
+
+    void testRadixHeapIsMonotone() {
+        RadixHeap heap = new RadixHeap();
+        heap.insert(-5);
+        heap.insert(7);
+        RadixHeap.Node node = heap.insert(Integer.MAX_VALUE);
+        assert (heap.findMin().getKey() == -5 && heap.lastMin() == -5) : "incorrect min";
+        heap.deleteMin();
+        assert (heap.findMin().getKey() == 7) : "incorrect min";
+        boolean thrown = false;
+        try {
+            heap.decreaseKey(node, Integer.MAX_VALUE - 6);
+        } catch (IllegalArgumentException ex) {
+            thrown = true;
+        }
+        assert (thrown && node.getKey() == Integer.MAX_VALUE) : "key below the last minimum was accepted";
+        heap.decreaseKey(node, Integer.MAX_VALUE - 7);
+        assert (heap.size() == 2 && heap.findMin().getKey() == 7) : "incorrect min";
+        System.out.println("testRadixHeapIsMonotone Passed!");
+    }
+
+    void testMeldRejectsOtherClasses() {
+        boolean thrown = false;
+        try {
+            IntPriorityQueue<FibonacciHeap.HeapNode> heap = new FibonacciHeap();
+            heap.meld(new IntPriorityQueue<FibonacciHeap.HeapNode>() {
+                public FibonacciHeap.HeapNode insert(int key) { return null; }
+                public FibonacciHeap.HeapNode findMin() { return null; }
+                public void deleteMin() { }
+                public void decreaseKey(FibonacciHeap.HeapNode handle, int delta) { }
+                public void delete(FibonacciHeap.HeapNode handle) { }
+                public void meld(IntPriorityQueue<FibonacciHeap.HeapNode> other) { }
+                public int size() { return 0; }
+            });
+        } catch (IllegalArgumentException ex) {
+            thrown = true;
+        }
+        assert (thrown) : "meld accepted another class";
+        System.out.println("testMeldRejectsOtherClasses Passed!");
+    }
+
+    public static void main(String[] args) {
+        IntPriorityQueueTest test = new IntPriorityQueueTest();
+
+        test.testImplementations();
+        test.testRadixHeapIsMonotone();
+        test.testMeldRejectsOtherClasses();
+    }
+}
@@ -0,0 +1,114 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+class KeyHeapsTest {
+
+    void testLongKeys() {
+        LongFibonacciHeap heap = new LongFibonacciHeap();
+        long base = 1L << 40;
+        for (int i = 0; i < 16; i++) {
+            heap.insert(base + i);
+        }
+        heap.deleteMin();
+        assert (heap.findMin().getKey() == base + 1) : "minimal key isn't as expected after deleteMin";
+        assert (heap.getNumberOfTrees() == 4) : "number of internal trees isn't as expected after deleteMin";
+        assert (heap.countersRep()[0] == 1 && heap.countersRep()[3] == 1) : "incorrect number of trees";
+
+        LongFibonacciHeap.HeapNode low = heap.insert(Long.MIN_VALUE);
+        LongFibonacciHeap.HeapNode high = heap.insert(Long.MAX_VALUE);
+        heap.delete(high);
+        assert (heap.findMin() == low) : "delete of the largest key disturbed the minimum";
+        heap.delete(low);
+        assert (heap.findMin().getKey() == base + 1) : "minimum is not updated correctly";
+        assert (heap.size() == 15) : "new size is incorrect";
+
+        long[] expected = {base + 1, base + 2, base + 3};
+        assert (Arrays.equals(LongFibonacciHeap.kMin(heap, 3), expected)) : "kMin result is malformed";
+        assert (LongFibonacciHeap.kMin(heap, 100).length == 15) : "kMin did not stop at heap size";
+        assert (heap.size() == 15) : "kMin changed the heap";
+        System.out.println("testLongKeys Passed!");
+    }
+
+    void testDoubleKeys() {
+        DoubleFibonacciHeap heap = new DoubleFibonacciHeap();
+        DoubleFibonacciHeap.HeapNode[] nodes = new DoubleFibonacciHeap.HeapNode[9];
+        for (int j = 0; j < 9; j++) {
+            nodes[j] = heap.insert(j + 0.5);
+        }
+        heap.deleteMin();
+        assert (heap.potential() == 1) : "incorrect potential";
+
+        heap.decreaseKey(nodes[7], 5.25);
+        assert (heap.potential() == 4) : "incorrect potential";
+        assert (heap.getCuts() == 1) : "incorrect cuts count";
+
+        heap.decreaseKey(nodes[6], 2);
+        assert (heap.potential() == 4) : "incorrect potential";
+        assert (heap.getCuts() == 3) : "incorrect cuts count";
+        assert (heap.findMin().getKey() == 1.5) : "incorrect minimum";
+
+        heap.decreaseKey(nodes[8], Double.POSITIVE_INFINITY);
+        assert (heap.findMin() == nodes[8]) : "incorrect minimum";
+        System.out.println("testDoubleKeys Passed!");
+    }
+
+    void testMeld() {
+        LongFibonacciHeap heap1 = new LongFibonacciHeap();
+        LongFibonacciHeap heap2 = new LongFibonacciHeap();
+        for (int i = 0; i < 8; i++) {
+            heap1.insert(2 * i);
+            heap2.insert(2 * i + 1);
+        }
+        heap1.deleteMin();
+        heap1.meld(heap2);
+        assert (heap2.isEmpty() && heap2.findMin() == null) : "melded heap was not emptied";
+        assert (heap1.size() == 15 && heap1.findMin().getKey() == 1) : "meld is incorrect";
+        heap1.meld(heap1);
+        assert (heap1.size() == 15 && heap1.getNumberOfTrees() == 11) : "meld with itself changed the heap";
+        heap2.insert(-1);
+        assert (heap1.findMin().getKey() == 1) : "the emptied heap still shares nodes";
+        for (int i = 1; i < 16; i++) {
+            assert (heap1.findMin().getKey() == i) : "incorrect key after meld";
+            heap1.deleteMin();
+        }
+        System.out.println("testMeld Passed!");
+    }
+
+    void testRandomOperations() {
+        Random random = new Random(0L);
+        LongFibonacciHeap heap = new LongFibonacciHeap();
+        List<LongFibonacciHeap.HeapNode> live = new ArrayList<>();
+        for (int op = 0; op < 50000; op++) {
+            int choice = random.nextInt(10);
+            if (live.isEmpty() || choice < 4) {
+                live.add(heap.insert(random.nextLong() >> 2));
+            } else if (choice < 6) {
+                LongFibonacciHeap.HeapNode node = live.get(random.nextInt(live.size()));
+                heap.decreaseKey(node, random.nextInt(1 << 20));
+            } else if (choice < 7) {
+                heap.delete(live.remove(random.nextInt(live.size())));
+            } else {
+                long min = Long.MAX_VALUE;
+                for (LongFibonacciHeap.HeapNode node : live) {
+                    min = Math.min(min, node.getKey());
+                }
+                assert (heap.findMin().getKey() == min) : "minimum is not updated correctly";
+                live.remove(heap.findMin());
+                heap.deleteMin();
+            }
+            assert (heap.size() == live.size()) : "size is incorrect";
+        }
+        System.out.println("testRandomOperations Passed!");
+    }
+
+    public static void main(String[] args) {
+        KeyHeapsTest test = new KeyHeapsTest();
+
+        test.testLongKeys();
+        test.testDoubleKeys();
+        test.testMeld();
+        test.testRandomOperations();
+    }
+}
@@ -0,0 +1,482 @@
+import java.util.Arrays;
+
+/**
+ * LongFibonacciHeap
+ * <p>
+ * An implementation of fibonacci heap over long keys.
+ * <p>
+ * Generated from templates/PrimitiveFibonacciHeap.java.template by tools/GenerateKeyHeaps.java, edit the
+ * template and regenerate instead of editing this file.
+ */
+public class LongFibonacciHeap {
+
+    /**
+     * A tree of rank r holds at least F(r+2) nodes, and F(47) > Integer.MAX_VALUE,
+     * so no rank can exceed 44 while size fits in an int.
+     */
+    static final int MAX_RANK = 45;
+
+    private HeapNode minNode;
+    private HeapNode first;
+    private HeapNode last;
+    private int size;
+    private int numMarked;
+    private int numOfTrees;
+    private HeapNode[] buckets; // reused by every consolidation, allocated on first use
+
+    private long links;
+    private long cuts;
+
+    /**
+     * Links 2 roots, the one with the smaller key becomes the root of the result.
+     * complexity: O(1)
+     */
+    private HeapNode link(HeapNode n1, HeapNode n2) {
+        if (n1.key > n2.key) {
+            HeapNode temp = n1;
+            n1 = n2;
+            n2 = temp;
+        }
+        HeapNode child = n1.child;
+        if (child == null) {
+            n2.next = n2;
+            n2.prev = n2;
+        } else {
+            HeapNode orgPrev = child.prev;
+            n2.next = child;
+            child.prev = n2;
+            orgPrev.next = n2;
+            n2.prev = orgPrev;
+        }
+        n1.child = n2;
+        n2.parent = n1;
+        n1.rank++;
+        links++;
+        return n1;
+    }
+
+    /**
+     * Links trees of equal rank until all ranks are distinct and rebuilds the root list
+     * in rank order. Returns the new amount of trees.
+     */
+    public int consolidate() {
+        if (first == null) return 0;
+        HeapNode[] cells = buckets;
+        if (cells == null) {
+            cells = new HeapNode[MAX_RANK + 1];
+            buckets = cells;
+        }
+        HeapNode node = first;
+        last.next = null;
+        while (node != null) {
+            HeapNode cur = node;
+            node = node.next;
+            while (cells[cur.rank] != null) {
+                HeapNode other = cells[cur.rank];
+                cells[cur.rank] = null;
+                cur = link(cur, other);
+            }
+            cells[cur.rank] = cur;
+        }
+        first = null;
+        last = null;
+        minNode = null;
+        int trees = 0;
+        for (int r = 0; r < cells.length; r++) {
+            HeapNode root = cells[r];
+            if (root == null) continue;
+            cells[r] = null;
+            if (root.isMarked) {
+                root.isMarked = false;
+                numMarked--;
+            }
+            if (first == null) {
+                first = root;
+            } else {
+                last.next = root;
+                root.prev = last;
+            }
+            last = root;
+            if (minNode == null || root.key < minNode.key) {
+                minNode = root;
+            }
+            trees++;
+        }
+        last.next = first;
+        first.prev = last;
+        numOfTrees = trees;
+        return trees;
+    }
+
+    /**
+     * public boolean isEmpty()
+     * <p>
+     * The method returns true if and only if the heap is empty.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * public HeapNode insert(long key)
+     * <p>
+     * Creates a node (of type HeapNode) which contains the given key, and inserts it into the heap.
+     */
+    public HeapNode insert(long key) {
+        HeapNode newNode = new HeapNode(key);
+        if (size == 0) {
+            first = newNode;
+            last = newNode;
+            newNode.next = newNode;
+            newNode.prev = newNode;
+            minNode = newNode;
+            numOfTrees = 1;
+        } else {
+            addRoot(newNode);
+        }
+        size++;
+        return newNode;
+    }
+
+    /*makes node the new first of the root list and updates the minimum*/
+    private void addRoot(HeapNode node) {
+        node.next = first;
+        node.prev = last;
+        first.prev = node;
+        last.next = node;
+        first = node;
+        if (node.key < minNode.key) {
+            minNode = node;
+        }
+        numOfTrees++;
+    }
+
+    /**
+     * Removes a root from the root list and puts its children in its place.
+     */
+    private void removeRoot(HeapNode root) {
+        HeapNode child = root.child;
+        if (child == null) {
+            root.prev.next = root.next;
+            root.next.prev = root.prev;
+            if (root == first) first = root.next;
+            if (root == last) last = root.prev;
+        } else {
+            HeapNode cur = child;
+            do {
+                cur.parent = null;
+                cur = cur.next;
+            } while (cur != child);
+            HeapNode rightMostChild = child.prev;
+            if (root.next == root) {
+                first = child;
+                last = rightMostChild;
+            } else {
+                root.prev.next = child;
+                child.prev = root.prev;
+                root.next.prev = rightMostChild;
+                rightMostChild.next = root.next;
+                if (root == first) first = child;
+                if (root == last) last = rightMostChild;
+            }
+        }
+        numOfTrees += root.rank - 1;
+        root.child = null;
+    }
+
+    private void clear() {
+        first = null;
+        last = null;
+        minNode = null;
+        numOfTrees = 0;
+        numMarked = 0;
+        size = 0;
+    }
+
+    /**
+     * public void deleteMin()
+     * <p>
+     * Delete the node containing the minimum key.
+     */
+    public void deleteMin() {
+        if (size == 1) {
+            clear();
+        } else {
+            removeRoot(minNode);
+            size--;
+            consolidate();
+        }
+    }
+
+    /**
+     * public HeapNode findMin()
+     * <p>
+     * Return the node of the heap whose key is minimal.
+     */
+    public HeapNode findMin() {
+        return minNode;
+    }
+
+    /**
+     * public void meld (LongFibonacciHeap heap2)
+     * <p>
+     * Meld the heap with heap2, which is left empty; nodes of heap2 now belong to this heap.
+     */
+    public void meld(LongFibonacciHeap heap2) {
+        if (heap2 == this || heap2.isEmpty()) {
+            return;
+        }
+        if (isEmpty()) {
+            first = heap2.first;
+            last = heap2.last;
+            minNode = heap2.minNode;
+        } else {
+            last.next = heap2.first;
+            heap2.first.prev = last;
+            heap2.last.next = first;
+            first.prev = heap2.last;
+            last = heap2.last;
+            if (heap2.minNode.key < minNode.key) {
+                minNode = heap2.minNode;
+            }
+        }
+        size += heap2.size;
+        numOfTrees += heap2.numOfTrees;
+        numMarked += heap2.numMarked;
+        heap2.clear();
+    }
+
+    /**
+     * public int size()
+     * <p>
+     * Return the number of elements in the heap
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * public int[] countersRep()
+     * <p>
+     * Return a counters array, where the value of the i-th entry is the number of trees of order i in the heap.
+     */
+    public int[] countersRep() {
+        int maxRank = 0;
+        int[] counters = new int[MAX_RANK + 1];
+        HeapNode cur = first;
+        for (int i = 0; i < numOfTrees; i++) {
+            counters[cur.rank]++;
+            maxRank = Math.max(maxRank, cur.rank);
+            cur = cur.next;
+        }
+        return Arrays.copyOf(counters, maxRank + 1);
+    }
+
+    /**
+     * public void delete(HeapNode x)
+     * <p>
+     * Deletes the node x from the heap. x is cut to the root list and removed as the minimum,
+     * so no key arithmetic (and no overflow) is involved.
+     */
+    public void delete(HeapNode x) {
+        if (x.parent != null) {
+            cascadingCut(x, x.parent);
+        }
+        minNode = x;
+        deleteMin();
+    }
+
+    /**
+     * public void decreaseKey(HeapNode x, long delta)
+     * <p>
+     * The function decreases the key of the node x by delta, applying cascading cuts if the heap order is violated.
+     */
+    public void decreaseKey(HeapNode x, long delta) {
+        x.key -= delta;
+        HeapNode parent = x.parent;
+        if (parent != null && parent.key > x.key) {
+            cascadingCut(x, parent);
+        }
+        if (x.key < minNode.key) {
+            minNode = x;
+        }
+    }
+
+    private void cascadingCut(HeapNode node, HeapNode parent) {
+        while (true) {
+            cut(node, parent);
+            addRoot(node);
+            HeapNode grandParent = parent.parent;
+            if (grandParent == null) return;
+            if (!parent.isMarked) {
+                parent.isMarked = true;
+                numMarked++;
+                return;
+            }
+            node = parent;
+            parent = grandParent;
+        }
+    }
+
+    private void cut(HeapNode node, HeapNode parent) {
+        node.parent = null;
+        if (node.isMarked) {
+            node.isMarked = false;
+            numMarked--;
+        }
+        parent.rank--;
+        if (node.next == node) {
+            parent.child = null;
+        } else {
+            if (parent.child == node) parent.child = node.next;
+            node.prev.next = node.next;
+            node.next.prev = node.prev;
+        }
+        cuts++;
+    }
+
+    /**
+     * public int potential()
+     * <p>
+     * Potential = #trees + 2*#marked
+     */
+    public int potential() {
+        return numOfTrees + 2 * numMarked;
+    }
+
+    /**
+     * public long getLinks()
+     * <p>
+     * Return the number of link operations made by this heap.
+     */
+    public long getLinks() {
+        return links;
+    }
+
+    /**
+     * public long getCuts()
+     * <p>
+     * Return the number of cut operations made by this heap.
+     */
+    public long getCuts() {
+        return cuts;
+    }
+
+    /**
+     * public static long[] kMin(LongFibonacciHeap H, int k)
+     * <p>
+     * Returns the k minimal keys of H in ascending order (all of them if k > H.size()) without changing H.
+     * The nodes to visit next are kept in a binary heap that starts with the roots and receives the
+     * children of every node taken from it, so this runs in O(k(log k + deg(H))).
+     */
+    public static long[] kMin(LongFibonacciHeap H, int k) {
+        int amount = Math.max(0, Math.min(k, H.size()));
+        long[] arr = new long[amount];
+        if (amount == 0) return arr;
+        HeapNode[] frontier = new HeapNode[Math.max(H.numOfTrees, 16)];
+        int frontierSize = 0;
+        HeapNode cur = H.first;
+        do {
+            frontier[frontierSize] = cur;
+            siftUp(frontier, frontierSize++);
+            cur = cur.next;
+        } while (cur != H.first);
+        for (int i = 0; i < amount; i++) {
+            HeapNode min = frontier[0];
+            arr[i] = min.key;
+            frontier[0] = frontier[--frontierSize];
+            siftDown(frontier, 0, frontierSize);
+            HeapNode child = min.child;
+            for (int j = 0; j < min.rank; j++) {
+                if (frontierSize == frontier.length) {
+                    frontier = Arrays.copyOf(frontier, frontierSize << 1);
+                }
+                frontier[frontierSize] = child;
+                siftUp(frontier, frontierSize++);
+                child = child.next;
+            }
+        }
+        return arr;
+    }
+
+    private static void siftUp(HeapNode[] nodes, int i) {
+        HeapNode node = nodes[i];
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (nodes[parent].key <= node.key) break;
+            nodes[i] = nodes[parent];
+            i = parent;
+        }
+        nodes[i] = node;
+    }
+
+    private static void siftDown(HeapNode[] nodes, int i, int size) {
+        if (size == 0) return;
+        HeapNode node = nodes[i];
+        int half = size >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            if (child + 1 < size && nodes[child + 1].key < nodes[child].key) child++;
+            if (node.key <= nodes[child].key) break;
+            nodes[i] = nodes[child];
+            i = child;
+        }
+        nodes[i] = node;
+    }
+
+    public int getNumberOfTrees() {
+        return numOfTrees;
+    }
+
+    public HeapNode getFirst() {
+        return first;
+    }
+
+    /**
+     * public class HeapNode
+     * <p>
+     * A node of LongFibonacciHeap, holding an unboxed long key.
+     */
+    public static class HeapNode {
+
+        private long key;
+        private int rank;
+        private boolean isMarked;
+        private HeapNode child;
+        private HeapNode next;
+        private HeapNode prev;
+        private HeapNode parent;
+
+        public HeapNode(long key) {
+            this.key = key;
+        }
+
+        public long getKey() {
+            return key;
+        }
+
+        public int getRank() {
+            return rank;
+        }
+
+        public HeapNode getChild() {
+            return child;
+        }
+
+        public HeapNode getNext() {
+            return next;
+        }
+
+        public HeapNode getPrev() {
+            return prev;
+        }
+
+        public HeapNode getParent() {
+            return parent;
+        }
+
+        public boolean isMarked() {
+            return isMarked;
+        }
+    }
+}
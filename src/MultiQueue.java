@@ -0,0 +1,186 @@
+import java.util.NoSuchElementException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * MultiQueue
+ * <p>
+ * A relaxed concurrent priority queue over integers made of FibonacciHeap shards, each behind its own lock.
+ * insert puts the key into a random shard; deleteMin looks at the published minimums of two random shards
+ * and deletes from the better one. Locks are only ever tried, a busy shard is skipped for another random one,
+ * so threads rarely wait for each other.
+ * <p>
+ * deleteMin returns a key close to, but not always equal to, the global minimum. With factor * threads shards
+ * the expected rank of the returned key is O(shards); MultiQueueRankError measures it.
+ */
+public class MultiQueue {
+
+    private static final long EMPTY = Long.MAX_VALUE;
+
+    private final Shard[] shards;
+
+    /**
+     * Creates a queue with factor shards for each of the threads that use it.
+     */
+    public MultiQueue(int threads, int factor) {
+        if (threads < 1 || factor < 1) {
+            throw new IllegalArgumentException("threads and factor must be positive");
+        }
+        shards = new Shard[threads * factor];
+        for (int i = 0; i < shards.length; i++) {
+            shards[i] = new Shard();
+        }
+    }
+
+    /**
+     * Creates a queue with 2 shards per available processor.
+     */
+    public MultiQueue() {
+        this(Runtime.getRuntime().availableProcessors(), 2);
+    }
+
+    public int shards() {
+        return shards.length;
+    }
+
+    /**
+     * public void insert(int key)
+     * <p>
+     * Inserts key into the first random shard whose lock is free.
+     */
+    public void insert(int key) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (true) {
+            Shard shard = shards[random.nextInt(shards.length)];
+            if (shard.lock.tryLock()) {
+                try {
+                    shard.heap.insert(key);
+                } finally {
+                    shard.publish();
+                    shard.lock.unlock();
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * public int deleteMin()
+     * <p>
+     * Deletes and returns the smaller of the minimums of two random shards. The result is relaxed: any key of
+     * the queue may be returned, the smaller ones with higher probability (see the class comment).
+     * The published minimums are read without locks, so when every shard looks empty the shards are locked
+     * and looked at again; NoSuchElementException is only thrown if the queue was empty while they were all
+     * locked, so an insert that returned before deleteMin started is never missed.
+     */
+    public int deleteMin() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (true) {
+            Shard shard = shards[random.nextInt(shards.length)];
+            Shard other = shards[random.nextInt(shards.length)];
+            if (other.min < shard.min) {
+                shard = other;
+            }
+            if (shard.min == EMPTY) {
+                shard = anyNonEmpty();
+                if (shard == null) {
+                    return deleteMinLocked();
+                }
+            }
+            if (shard.lock.tryLock()) {
+                try {
+                    FibonacciHeap.HeapNode node = shard.heap.findMin();
+                    if (node != null) {
+                        int key = node.getKey();
+                        shard.heap.deleteMin();
+                        return key;
+                    }
+                } finally {
+                    shard.publish();
+                    shard.lock.unlock();
+                }
+            }
+        }
+    }
+
+    /*deletes the minimum with every shard locked, which makes it exact and the emptiness check linearizable.
+      The other operations only try locks, so blocking on all of them in order cannot deadlock*/
+    private int deleteMinLocked() {
+        int locked = 0;
+        Shard best = null;
+        try {
+            for (Shard shard : shards) {
+                shard.lock.lock();
+                locked++;
+            }
+            FibonacciHeap.HeapNode min = null;
+            for (Shard shard : shards) {
+                FibonacciHeap.HeapNode node = shard.heap.findMin();
+                if (node != null && (min == null || node.getKey() < min.getKey())) {
+                    min = node;
+                    best = shard;
+                }
+            }
+            if (best == null) {
+                throw new NoSuchElementException("queue is empty");
+            }
+            int key = min.getKey();
+            best.heap.deleteMin();
+            return key;
+        } finally {
+            if (best != null) {
+                best.publish();
+            }
+            for (int i = 0; i < locked; i++) {
+                shards[i].lock.unlock();
+            }
+        }
+    }
+
+    /*the first shard whose published minimum is set, or null if all of them look empty*/
+    private Shard anyNonEmpty() {
+        for (Shard shard : shards) {
+            if (shard.min != EMPTY) {
+                return shard;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * public int size()
+     * <p>
+     * Return the sum of the shard sizes, which is only exact while no other thread changes the queue.
+     */
+    public int size() {
+        int size = 0;
+        for (Shard shard : shards) {
+            size += shard.size;
+        }
+        return size;
+    }
+
+    /**
+     * public boolean isEmpty()
+     * <p>
+     * Return true if every shard published an empty heap. Like size, this reads the published state without
+     * locks, so it is only exact while no other thread changes the queue.
+     */
+    public boolean isEmpty() {
+        return anyNonEmpty() == null;
+    }
+
+    private static final class Shard {
+        final ReentrantLock lock = new ReentrantLock();
+        final FibonacciHeap heap = new FibonacciHeap();
+        volatile long min = EMPTY;
+        volatile int size;
+
+        /*publishes the state for lock-free readers, the lock must be held*/
+        void publish() {
+            FibonacciHeap.HeapNode node = heap.findMin();
+            min = node == null ? EMPTY : node.getKey();
+            size = heap.size();
+        }
+    }
+}
@@ -0,0 +1,75 @@
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * MultiQueueRankError
+ * <p>
+ * Measures how far MultiQueue.deleteMin is from the true minimum. The rank error of a deleteMin is the
+ * number of keys in the queue that were smaller than the returned key; a strict heap always scores 0.
+ * Queue contents are mirrored in a Fenwick tree over the key range, so every rank costs O(log KEY_RANGE).
+ * <p>
+ * main prints the error distribution per shard count, the quality side of the trade-off whose throughput
+ * side is measured by MultiQueueBenchmark.
+ */
+public class MultiQueueRankError {
+
+    static final int KEY_RANGE = 1 << 20;
+
+    /**
+     * public static int[] measure(MultiQueue queue, int prefill, int operations, long seed)
+     * <p>
+     * Fills the empty queue with prefill random keys, then runs operations rounds of one insert and one
+     * deleteMin from the calling thread, and returns the rank error of every deleteMin.
+     */
+    public static int[] measure(MultiQueue queue, int prefill, int operations, long seed) {
+        Random random = new Random(seed);
+        int[] tree = new int[KEY_RANGE + 1];
+        for (int i = 0; i < prefill; i++) {
+            int key = random.nextInt(KEY_RANGE);
+            queue.insert(key);
+            add(tree, key, 1);
+        }
+        int[] errors = new int[operations];
+        for (int i = 0; i < operations; i++) {
+            int key = random.nextInt(KEY_RANGE);
+            queue.insert(key);
+            add(tree, key, 1);
+            int min = queue.deleteMin();
+            errors[i] = countBelow(tree, min);
+            add(tree, min, -1);
+        }
+        return errors;
+    }
+
+    /*Fenwick tree over keys 0..KEY_RANGE-1, stored 1-based*/
+    private static void add(int[] tree, int key, int delta) {
+        for (int i = key + 1; i < tree.length; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    private static int countBelow(int[] tree, int key) {
+        int count = 0;
+        for (int i = key; i > 0; i -= i & -i) {
+            count += tree[i];
+        }
+        return count;
+    }
+
+    public static void main(String[] args) {
+        int prefill = 1_000_000;
+        int operations = 1_000_000;
+        System.out.println("shards   mean      p50       p99       max");
+        for (int shards = 1; shards <= 128; shards *= 2) {
+            int[] errors = measure(new MultiQueue(shards, 1), prefill, operations, ThreadLocalRandom.current().nextLong());
+            long sum = 0;
+            for (int error : errors) {
+                sum += error;
+            }
+            Arrays.sort(errors);
+            System.out.printf("%-8d %-9.2f %-9d %-9d %d%n", shards, (double) sum / operations,
+                    errors[operations / 2], errors[(int) (operations * 0.99)], errors[operations - 1]);
+        }
+    }
+}
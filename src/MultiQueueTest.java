@@ -0,0 +1,107 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+class MultiQueueTest {
+
+    void testSingleShardIsStrict() {
+        int[] errors = MultiQueueRankError.measure(new MultiQueue(1, 1), 1000, 5000, 0L);
+        for (int error : errors) {
+            assert (error == 0) : "a single shard returned a non-minimal key";
+        }
+        System.out.println("testSingleShardIsStrict Passed!");
+    }
+
+    void testRankError() {
+        MultiQueue queue = new MultiQueue(8, 2);
+        int[] errors = MultiQueueRankError.measure(queue, 10000, 20000, 0L);
+        long sum = 0;
+        for (int error : errors) {
+            sum += error;
+        }
+        // two-choice deleteMin keeps the expected rank error in O(shards)
+        assert ((double) sum / errors.length < 4 * queue.shards()) : "rank error is too large";
+        assert (queue.size() == 10000) : "size is incorrect";
+        System.out.println("testRankError Passed!");
+    }
+
+    void testConcurrentDrain() throws Exception {
+        int threads = 4;
+        int total = 40000;
+        MultiQueue queue = new MultiQueue(threads, 2);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<?>> inserts = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            inserts.add(pool.submit(() -> {
+                for (int key = thread; key < total; key += threads) {
+                    queue.insert(key);
+                }
+            }));
+        }
+        for (Future<?> future : inserts) {
+            future.get();
+        }
+        assert (queue.size() == total) : "size is incorrect";
+
+        List<Future<List<Integer>>> deletes = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            deletes.add(pool.submit(() -> {
+                List<Integer> taken = new ArrayList<>();
+                while (true) {
+                    try {
+                        taken.add(queue.deleteMin());
+                    } catch (java.util.NoSuchElementException ex) {
+                        return taken;
+                    }
+                }
+            }));
+        }
+        boolean[] seen = new boolean[total];
+        int count = 0;
+        for (Future<List<Integer>> future : deletes) {
+            for (int key : future.get()) {
+                assert (!seen[key]) : "key was returned twice";
+                seen[key] = true;
+                count++;
+            }
+        }
+        assert (count == total && queue.isEmpty()) : "keys were lost";
+        pool.shutdown();
+        System.out.println("testConcurrentDrain Passed!");
+    }
+
+    void testDeleteMinAfterInsert() throws Exception {
+        // every deleteMin follows an insert of the same thread, so the queue is never empty when it starts
+        int threads = 4;
+        MultiQueue queue = new MultiQueue(threads, 4);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            futures.add(pool.submit(() -> {
+                for (int i = 0; i < 200000; i++) {
+                    queue.insert(i * threads + thread);
+                    queue.deleteMin();
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        assert (queue.isEmpty() && queue.size() == 0) : "keys were left behind";
+        pool.shutdown();
+        System.out.println("testDeleteMinAfterInsert Passed!");
+    }
+
+    public static void main(String[] args) throws Exception {
+        MultiQueueTest test = new MultiQueueTest();
+
+        test.testSingleShardIsStrict();
+        test.testRankError();
+        test.testConcurrentDrain();
+        test.testDeleteMinAfterInsert();
+    }
+}
@@ -0,0 +1,391 @@
+import java.util.Comparator;
+import java.util.NoSuchElementException;
+
+/**
+ * ObjectFibonacciHeap
+ * <p>
+ * An implementation of fibonacci heap over arbitrary elements ordered by a Comparator. The element (for
+ * example a vertex with its tentative distance, or a task) is stored in the node itself, and insert returns
+ * a typed handle for later decreaseKey/delete calls, so callers need no side map from keys to nodes.
+ * <p>
+ * For int keys FibonacciHeap stays the faster, unboxed choice.
+ */
+public class ObjectFibonacciHeap<E> {
+
+    /**
+     * A tree of rank r holds at least F(r+2) nodes, and F(47) > Integer.MAX_VALUE.
+     */
+    static final int MAX_RANK = 45;
+
+    private final Comparator<? super E> comparator;
+
+    private Handle<E> minNode;
+    private Handle<E> first;
+    private Handle<E> last;
+    private int size;
+    private int numMarked;
+    private int numOfTrees;
+    private Handle<E>[] buckets; // reused by every consolidation, allocated on first use
+
+    /**
+     * Creates a heap ordered by the natural ordering of its elements.
+     */
+    public ObjectFibonacciHeap() {
+        this(null);
+    }
+
+    /**
+     * Creates a heap ordered by comparator, or by natural ordering when comparator is null.
+     */
+    public ObjectFibonacciHeap(Comparator<? super E> comparator) {
+        this.comparator = comparator;
+    }
+
+    @SuppressWarnings("unchecked")
+    private int compare(E e1, E e2) {
+        return comparator == null ? ((Comparable<? super E>) e1).compareTo(e2) : comparator.compare(e1, e2);
+    }
+
+    public Comparator<? super E> comparator() {
+        return comparator;
+    }
+
+    /**
+     * Links 2 roots, the one with the smaller element becomes the root of the result.
+     * complexity: O(1)
+     */
+    private Handle<E> link(Handle<E> n1, Handle<E> n2) {
+        if (compare(n1.element, n2.element) > 0) {
+            Handle<E> temp = n1;
+            n1 = n2;
+            n2 = temp;
+        }
+        Handle<E> child = n1.child;
+        if (child == null) {
+            n2.next = n2;
+            n2.prev = n2;
+        } else {
+            Handle<E> orgPrev = child.prev;
+            n2.next = child;
+            child.prev = n2;
+            orgPrev.next = n2;
+            n2.prev = orgPrev;
+        }
+        n1.child = n2;
+        n2.parent = n1;
+        n1.rank++;
+        return n1;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void consolidate() {
+        Handle<E>[] cells = buckets;
+        if (cells == null) {
+            cells = (Handle<E>[]) new Handle<?>[MAX_RANK + 1];
+            buckets = cells;
+        }
+        Handle<E> node = first;
+        last.next = null;
+        while (node != null) {
+            Handle<E> cur = node;
+            node = node.next;
+            while (cells[cur.rank] != null) {
+                Handle<E> other = cells[cur.rank];
+                cells[cur.rank] = null;
+                cur = link(cur, other);
+            }
+            cells[cur.rank] = cur;
+        }
+        first = null;
+        last = null;
+        minNode = null;
+        int trees = 0;
+        for (int r = 0; r < cells.length; r++) {
+            Handle<E> root = cells[r];
+            if (root == null) continue;
+            cells[r] = null;
+            if (root.isMarked) {
+                root.isMarked = false;
+                numMarked--;
+            }
+            if (first == null) {
+                first = root;
+            } else {
+                last.next = root;
+                root.prev = last;
+            }
+            last = root;
+            if (minNode == null || compare(root.element, minNode.element) < 0) {
+                minNode = root;
+            }
+            trees++;
+        }
+        last.next = first;
+        first.prev = last;
+        numOfTrees = trees;
+    }
+
+    /**
+     * public boolean isEmpty()
+     * <p>
+     * The method returns true if and only if the heap is empty.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * public Handle&lt;E&gt; insert(E element)
+     * <p>
+     * Inserts the element into the heap and returns the handle of its node.
+     */
+    public Handle<E> insert(E element) {
+        Handle<E> newNode = new Handle<>(element);
+        if (size == 0) {
+            first = newNode;
+            last = newNode;
+            newNode.next = newNode;
+            newNode.prev = newNode;
+            minNode = newNode;
+            numOfTrees = 1;
+        } else {
+            addRoot(newNode);
+        }
+        size++;
+        return newNode;
+    }
+
+    /*makes node the new first of the root list and updates the minimum*/
+    private void addRoot(Handle<E> node) {
+        node.next = first;
+        node.prev = last;
+        first.prev = node;
+        last.next = node;
+        first = node;
+        if (compare(node.element, minNode.element) < 0) {
+            minNode = node;
+        }
+        numOfTrees++;
+    }
+
+    /**
+     * public Handle&lt;E&gt; findMin()
+     * <p>
+     * Return the handle of the minimal element, or null if the heap is empty.
+     */
+    public Handle<E> findMin() {
+        return minNode;
+    }
+
+    /**
+     * public E peek()
+     * <p>
+     * Return the minimal element, or null if the heap is empty.
+     */
+    public E peek() {
+        return minNode == null ? null : minNode.element;
+    }
+
+    /**
+     * public E deleteMin()
+     * <p>
+     * Deletes the minimal element and returns it.
+     */
+    public E deleteMin() {
+        Handle<E> min = minNode;
+        if (min == null) {
+            throw new NoSuchElementException("heap is empty");
+        }
+        if (size == 1) {
+            clear();
+        } else {
+            removeRoot(min);
+            size--;
+            consolidate();
+        }
+        return min.element;
+    }
+
+    /**
+     * Removes a root from the root list and puts its children in its place.
+     */
+    private void removeRoot(Handle<E> root) {
+        Handle<E> child = root.child;
+        if (child == null) {
+            root.prev.next = root.next;
+            root.next.prev = root.prev;
+            if (root == first) first = root.next;
+            if (root == last) last = root.prev;
+        } else {
+            Handle<E> cur = child;
+            do {
+                cur.parent = null;
+                cur = cur.next;
+            } while (cur != child);
+            Handle<E> rightMostChild = child.prev;
+            if (root.next == root) {
+                first = child;
+                last = rightMostChild;
+            } else {
+                root.prev.next = child;
+                child.prev = root.prev;
+                root.next.prev = rightMostChild;
+                rightMostChild.next = root.next;
+                if (root == first) first = child;
+                if (root == last) last = rightMostChild;
+            }
+        }
+        numOfTrees += root.rank - 1;
+        root.child = null;
+    }
+
+    private void clear() {
+        first = null;
+        last = null;
+        minNode = null;
+        numOfTrees = 0;
+        numMarked = 0;
+        size = 0;
+    }
+
+    /**
+     * public void decreaseKey(Handle&lt;E&gt; x, E element)
+     * <p>
+     * Replaces the element of x by a smaller or equal one and restores the heap order with cascading cuts.
+     * Throws IllegalArgumentException if element is greater than the current element of x.
+     */
+    public void decreaseKey(Handle<E> x, E element) {
+        if (compare(element, x.element) > 0) {
+            throw new IllegalArgumentException("new element is greater than the current one");
+        }
+        x.element = element;
+        Handle<E> parent = x.parent;
+        if (parent != null && compare(parent.element, element) > 0) {
+            cascadingCut(x, parent);
+        }
+        if (compare(element, minNode.element) < 0) {
+            minNode = x;
+        }
+    }
+
+    /**
+     * public void delete(Handle&lt;E&gt; x)
+     * <p>
+     * Deletes the node x from the heap by cutting it to the root list and removing it as the minimum.
+     */
+    public void delete(Handle<E> x) {
+        if (x.parent != null) {
+            cascadingCut(x, x.parent);
+        }
+        minNode = x;
+        deleteMin();
+    }
+
+    private void cascadingCut(Handle<E> node, Handle<E> parent) {
+        while (true) {
+            cut(node, parent);
+            addRoot(node);
+            Handle<E> grandParent = parent.parent;
+            if (grandParent == null) return;
+            if (!parent.isMarked) {
+                parent.isMarked = true;
+                numMarked++;
+                return;
+            }
+            node = parent;
+            parent = grandParent;
+        }
+    }
+
+    private void cut(Handle<E> node, Handle<E> parent) {
+        node.parent = null;
+        if (node.isMarked) {
+            node.isMarked = false;
+            numMarked--;
+        }
+        parent.rank--;
+        if (node.next == node) {
+            parent.child = null;
+        } else {
+            if (parent.child == node) parent.child = node.next;
+            node.prev.next = node.next;
+            node.next.prev = node.prev;
+        }
+    }
+
+    /**
+     * public void meld(ObjectFibonacciHeap&lt;E&gt; heap2)
+     * <p>
+     * Meld the heap with heap2, which is left empty; handles of heap2 now belong to this heap.
+     * Both heaps must order their elements the same way.
+     */
+    public void meld(ObjectFibonacciHeap<E> heap2) {
+        if (heap2 == this || heap2.isEmpty()) {
+            return;
+        }
+        if (isEmpty()) {
+            first = heap2.first;
+            last = heap2.last;
+            minNode = heap2.minNode;
+        } else {
+            last.next = heap2.first;
+            heap2.first.prev = last;
+            heap2.last.next = first;
+            first.prev = heap2.last;
+            last = heap2.last;
+            if (compare(heap2.minNode.element, minNode.element) < 0) {
+                minNode = heap2.minNode;
+            }
+        }
+        size += heap2.size;
+        numOfTrees += heap2.numOfTrees;
+        numMarked += heap2.numMarked;
+        heap2.clear();
+    }
+
+    /**
+     * public int size()
+     * <p>
+     * Return the number of elements in the heap
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * public int potential()
+     * <p>
+     * Potential = #trees + 2*#marked
+     */
+    public int potential() {
+        return numOfTrees + 2 * numMarked;
+    }
+
+    public int getNumberOfTrees() {
+        return numOfTrees;
+    }
+
+    /**
+     * public static class Handle&lt;E&gt;
+     * <p>
+     * A node of ObjectFibonacciHeap, returned by insert and valid until its element is deleted.
+     */
+    public static final class Handle<E> {
+
+        private E element;
+        private int rank;
+        private boolean isMarked;
+        private Handle<E> child;
+        private Handle<E> next;
+        private Handle<E> prev;
+        private Handle<E> parent;
+
+        private Handle(E element) {
+            this.element = element;
+        }
+
+        public E getElement() {
+            return element;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+class ObjectFibonacciHeapTest {
+
+    static class Entry {
+        final int vertex;
+        final int distance;
+
+        Entry(int vertex, int distance) {
+            this.vertex = vertex;
+            this.distance = distance;
+        }
+    }
+
+    void testComparator() {
+        ObjectFibonacciHeap<String> heap = new ObjectFibonacciHeap<>(Comparator.reverseOrder());
+        for (String s : new String[]{"b", "d", "a", "c", "e"}) {
+            heap.insert(s);
+        }
+        StringBuilder order = new StringBuilder();
+        while (!heap.isEmpty()) {
+            order.append(heap.deleteMin());
+        }
+        assert (order.toString().equals("edcba")) : "comparator was not used: " + order;
+
+        ObjectFibonacciHeap<Integer> natural = new ObjectFibonacciHeap<>();
+        ObjectFibonacciHeap.Handle<Integer> node = natural.insert(10);
+        natural.insert(5);
+        natural.decreaseKey(node, 1);
+        assert (natural.peek() == 1) : "minimum is not updated correctly";
+        boolean thrown = false;
+        try {
+            natural.decreaseKey(node, 20);
+        } catch (IllegalArgumentException ex) {
+            thrown = true;
+        }
+        assert (thrown) : "increasing an element was accepted";
+        System.out.println("testComparator Passed!");
+    }
+
+    void testDeleteAndMeld() {
+        ObjectFibonacciHeap<Integer> heap1 = new ObjectFibonacciHeap<>();
+        ObjectFibonacciHeap<Integer> heap2 = new ObjectFibonacciHeap<>();
+        List<ObjectFibonacciHeap.Handle<Integer>> handles = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            handles.add((i % 2 == 0 ? heap1 : heap2).insert(i));
+        }
+        heap1.deleteMin();
+        heap2.deleteMin();
+        heap1.meld(heap2);
+        assert (heap2.isEmpty()) : "melded heap was not emptied";
+        assert (heap1.size() == 8) : "size after meld is not sum of both heaps";
+        heap1.delete(handles.get(5));
+        heap1.delete(handles.get(2));
+        int[] expected = {3, 4, 6, 7, 8, 9};
+        for (int key : expected) {
+            assert (heap1.deleteMin() == key) : "incorrect key";
+        }
+        System.out.println("testDeleteAndMeld Passed!");
+    }
+
+    void testDijkstra() {
+        Random random = new Random(0L);
+        int n = 300;
+        int[][] weights = new int[n][n];
+        for (int[] row : weights) {
+            for (int j = 0; j < n; j++) {
+                row[j] = random.nextInt(4) == 0 ? 1 + random.nextInt(100) : -1;
+            }
+        }
+
+        // reference: O(n^2) dijkstra
+        int[] expected = new int[n];
+        boolean[] done = new boolean[n];
+        Arrays.fill(expected, Integer.MAX_VALUE);
+        expected[0] = 0;
+        for (int round = 0; round < n; round++) {
+            int u = -1;
+            for (int v = 0; v < n; v++) {
+                if (!done[v] && expected[v] != Integer.MAX_VALUE && (u == -1 || expected[v] < expected[u])) u = v;
+            }
+            if (u == -1) break;
+            done[u] = true;
+            for (int v = 0; v < n; v++) {
+                if (weights[u][v] >= 0 && expected[u] + weights[u][v] < expected[v]) {
+                    expected[v] = expected[u] + weights[u][v];
+                }
+            }
+        }
+
+        ObjectFibonacciHeap<Entry> heap = new ObjectFibonacciHeap<>(Comparator.comparingInt((Entry e) -> e.distance));
+        @SuppressWarnings("unchecked")
+        ObjectFibonacciHeap.Handle<Entry>[] handles = (ObjectFibonacciHeap.Handle<Entry>[]) new ObjectFibonacciHeap.Handle<?>[n];
+        int[] distances = new int[n];
+        Arrays.fill(distances, Integer.MAX_VALUE);
+        handles[0] = heap.insert(new Entry(0, 0));
+        while (!heap.isEmpty()) {
+            Entry entry = heap.deleteMin();
+            distances[entry.vertex] = entry.distance;
+            for (int v = 0; v < n; v++) {
+                int w = weights[entry.vertex][v];
+                if (w < 0 || distances[v] != Integer.MAX_VALUE) continue;
+                int candidate = entry.distance + w;
+                if (handles[v] == null) {
+                    handles[v] = heap.insert(new Entry(v, candidate));
+                } else if (candidate < handles[v].getElement().distance) {
+                    heap.decreaseKey(handles[v], new Entry(v, candidate));
+                }
+            }
+        }
+        assert (Arrays.equals(distances, expected)) : "dijkstra distances are wrong";
+        System.out.println("testDijkstra Passed!");
+    }
+
+    public static void main(String[] args) {
+        ObjectFibonacciHeapTest test = new ObjectFibonacciHeapTest();
+
+        test.testComparator();
+        test.testDeleteAndMeld();
+        test.testDijkstra();
+    }
+}
@@ -0,0 +1,771 @@
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * OffHeapFibonacciHeap
+ * <p>
+ * An implementation of fibonacci heap over integers whose node records live outside the java heap, in
+ * direct memory chunks. A node is identified by a long handle (the index of its record), so the heap can
+ * hold more than Integer.MAX_VALUE nodes and keeps no per-node objects for the garbage collector.
+ * <p>
+ * Record layout (40 bytes): key int, rank int (the high bit is the mark), parent, child, next, prev longs.
+ * <p>
+ * The memory is released by close(); the heap must not be used afterwards. close() frees the chunks through
+ * the JDK's internal cleaner hook (sun.misc.Unsafe.invokeCleaner). When that hook cannot be reached, close()
+ * still closes the heap but the chunks are only freed once the garbage collector collects them;
+ * releasesMemoryOnClose() tells which case applies to the running JVM.
+ */
+public class OffHeapFibonacciHeap implements AutoCloseable {
+
+    /**
+     * Handle value meaning "no node" (empty heap, missing parent/child).
+     */
+    public static final long NONE = -1L;
+
+    /**
+     * A tree of rank r holds at least F(r+2) nodes, and F(93) > Long.MAX_VALUE.
+     */
+    static final int MAX_RANK = 91;
+
+    static final int RECORD_BYTES = 40;
+    private static final int KEY = 0;
+    private static final int RANK = 4;
+    private static final int PARENT = 8;
+    private static final int CHILD = 16;
+    private static final int NEXT = 24;
+    private static final int PREV = 32;
+    private static final int MARK_BIT = 1 << 31;
+
+    private static final int DEFAULT_CHUNK_RECORDS = 1 << 16;
+
+    /*the longest array the VM reliably allocates*/
+    private static final int MAX_ARRAY_LENGTH = Integer.MAX_VALUE - 8;
+
+    private final int chunkShift;
+    private final long chunkMask;
+    private final int chunkRecords;
+    private ByteBuffer[] chunks = new ByteBuffer[4];
+    private int chunkCount;
+
+    private final long[] buckets = new long[MAX_RANK + 1];
+
+    private long nodeCount;
+    private long freeHead = NONE;
+    private long minNode = NONE;
+    private long first = NONE;
+    private long last = NONE;
+    private long size;
+    private long numMarked;
+    private long numOfTrees;
+
+    public OffHeapFibonacciHeap() {
+        this(DEFAULT_CHUNK_RECORDS);
+    }
+
+    /**
+     * chunkRecords is the number of node records per direct memory chunk, it is rounded up to a power of 2
+     * and must keep a chunk under 2GB.
+     */
+    public OffHeapFibonacciHeap(int chunkRecords) {
+        if (chunkRecords <= 0 || chunkRecords > Integer.MAX_VALUE / RECORD_BYTES) {
+            throw new IllegalArgumentException("invalid chunk size: " + chunkRecords);
+        }
+        int records = Integer.highestOneBit(chunkRecords);
+        if (records < chunkRecords) records <<= 1;
+        this.chunkRecords = records;
+        this.chunkShift = Integer.numberOfTrailingZeros(records);
+        this.chunkMask = records - 1;
+        Arrays.fill(buckets, NONE);
+    }
+
+    /*------------------------------ record access ------------------------------*/
+
+    private ByteBuffer chunk(long node) {
+        return chunks[(int) (node >>> chunkShift)];
+    }
+
+    private int offset(long node) {
+        return (int) (node & chunkMask) * RECORD_BYTES;
+    }
+
+    private int key(long node) {
+        return chunk(node).getInt(offset(node) + KEY);
+    }
+
+    private void setKey(long node, int key) {
+        chunk(node).putInt(offset(node) + KEY, key);
+    }
+
+    private int rank(long node) {
+        return chunk(node).getInt(offset(node) + RANK) & ~MARK_BIT;
+    }
+
+    private void setRank(long node, int rank) {
+        ByteBuffer chunk = chunk(node);
+        int pos = offset(node) + RANK;
+        chunk.putInt(pos, (chunk.getInt(pos) & MARK_BIT) | rank);
+    }
+
+    private boolean isMarked(long node) {
+        return (chunk(node).getInt(offset(node) + RANK) & MARK_BIT) != 0;
+    }
+
+    private void setMarked(long node, boolean marked) {
+        ByteBuffer chunk = chunk(node);
+        int pos = offset(node) + RANK;
+        int value = chunk.getInt(pos);
+        chunk.putInt(pos, marked ? value | MARK_BIT : value & ~MARK_BIT);
+    }
+
+    private long link(long node, int field) {
+        return chunk(node).getLong(offset(node) + field);
+    }
+
+    private void setLink(long node, int field, long value) {
+        chunk(node).putLong(offset(node) + field, value);
+    }
+
+    private long parent(long node) {
+        return link(node, PARENT);
+    }
+
+    private long child(long node) {
+        return link(node, CHILD);
+    }
+
+    private long next(long node) {
+        return link(node, NEXT);
+    }
+
+    private long prev(long node) {
+        return link(node, PREV);
+    }
+
+    /*------------------------------ memory management ------------------------------*/
+
+    private void ensureOpen() {
+        if (chunks == null) {
+            throw new IllegalStateException("heap is closed");
+        }
+    }
+
+    private long allocate(int k) {
+        long node;
+        if (freeHead != NONE) {
+            node = freeHead;
+            freeHead = next(node);
+        } else {
+            if ((nodeCount >>> chunkShift) == chunkCount) {
+                addChunk();
+            }
+            node = nodeCount++;
+        }
+        ByteBuffer chunk = chunk(node);
+        int pos = offset(node);
+        chunk.putInt(pos + KEY, k);
+        chunk.putInt(pos + RANK, 0);
+        chunk.putLong(pos + PARENT, NONE);
+        chunk.putLong(pos + CHILD, NONE);
+        return node;
+    }
+
+    private void addChunk() {
+        if (chunkCount == chunks.length) {
+            chunks = Arrays.copyOf(chunks, chunks.length << 1);
+        }
+        chunks[chunkCount++] = ByteBuffer.allocateDirect(chunkRecords * RECORD_BYTES).order(ByteOrder.nativeOrder());
+    }
+
+    private void release(long node) {
+        setLink(node, PARENT, NONE);
+        setLink(node, CHILD, NONE);
+        setLink(node, PREV, NONE);
+        setLink(node, NEXT, freeHead);
+        freeHead = node;
+    }
+
+    /**
+     * public void close()
+     * <p>
+     * Frees the direct memory of the heap right away instead of waiting for the buffers to be collected.
+     */
+    @Override
+    public void close() {
+        if (chunks == null) return;
+        ByteBuffer[] released = chunks;
+        int count = chunkCount;
+        chunks = null;
+        chunkCount = 0;
+        clear();
+        nodeCount = 0;
+        freeHead = NONE;
+        DirectMemory.free(released, count);
+    }
+
+    /**
+     * public static boolean releasesMemoryOnClose()
+     * <p>
+     * Return true if close() frees the direct memory right away, false if the cleaner hook is not reachable
+     * in this JVM and the memory of a closed heap is freed by the garbage collector.
+     */
+    public static boolean releasesMemoryOnClose() {
+        return DirectMemory.INVOKE_CLEANER != null;
+    }
+
+    /**
+     * public long memoryUsed()
+     * <p>
+     * Return the number of bytes of direct memory held by the heap.
+     */
+    public long memoryUsed() {
+        return (long) chunkCount * chunkRecords * RECORD_BYTES;
+    }
+
+    /*------------------------------ heap operations ------------------------------*/
+
+    /**
+     * public boolean isEmpty()
+     * <p>
+     * The method returns true if and only if the heap is empty.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * public long insert(int key)
+     * <p>
+     * Creates a node which contains the given key, inserts it into the heap and returns its handle.
+     */
+    public long insert(int k) {
+        ensureOpen();
+        long node = allocate(k);
+        if (size == 0) {
+            first = node;
+            last = node;
+            setLink(node, NEXT, node);
+            setLink(node, PREV, node);
+            minNode = node;
+            numOfTrees = 1;
+        } else {
+            addRoot(node);
+        }
+        size++;
+        return node;
+    }
+
+    /*makes node the new first of the root list and updates the minimum*/
+    private void addRoot(long node) {
+        setLink(node, NEXT, first);
+        setLink(node, PREV, last);
+        setLink(first, PREV, node);
+        setLink(last, NEXT, node);
+        first = node;
+        if (key(node) < key(minNode)) {
+            minNode = node;
+        }
+        numOfTrees++;
+    }
+
+    /**
+     * public long findMin()
+     * <p>
+     * Return the handle of the node whose key is minimal, or NONE if the heap is empty.
+     */
+    public long findMin() {
+        return minNode;
+    }
+
+    /**
+     * public int getKey(long node)
+     * <p>
+     * Return the key of the node with the given handle.
+     */
+    public int getKey(long node) {
+        ensureOpen();
+        return key(node);
+    }
+
+    public int getRank(long node) {
+        ensureOpen();
+        return rank(node);
+    }
+
+    /**
+     * Links 2 roots, the one with the smaller key becomes the root of the result.
+     * complexity: O(1)
+     */
+    private long linkRoots(long n1, long n2) {
+        if (key(n1) > key(n2)) {
+            long temp = n1;
+            n1 = n2;
+            n2 = temp;
+        }
+        long c = child(n1);
+        if (c == NONE) {
+            setLink(n2, NEXT, n2);
+            setLink(n2, PREV, n2);
+        } else {
+            long orgPrev = prev(c);
+            setLink(n2, NEXT, c);
+            setLink(c, PREV, n2);
+            setLink(orgPrev, NEXT, n2);
+            setLink(n2, PREV, orgPrev);
+        }
+        setLink(n1, CHILD, n2);
+        setLink(n2, PARENT, n1);
+        setRank(n1, rank(n1) + 1);
+        return n1;
+    }
+
+    /**
+     * Links roots of equal rank until all ranks are distinct and rebuilds the root list
+     * in rank order. Returns the new number of trees.
+     */
+    public long consolidate() {
+        ensureOpen();
+        if (size == 0) return 0;
+        long node = first;
+        setLink(last, NEXT, NONE);
+        while (node != NONE) {
+            long cur = node;
+            node = next(node);
+            int r;
+            while (buckets[r = rank(cur)] != NONE) {
+                long other = buckets[r];
+                buckets[r] = NONE;
+                cur = linkRoots(cur, other);
+            }
+            buckets[r] = cur;
+        }
+        first = NONE;
+        last = NONE;
+        minNode = NONE;
+        long trees = 0;
+        for (int r = 0; r < buckets.length; r++) {
+            long root = buckets[r];
+            if (root == NONE) continue;
+            buckets[r] = NONE;
+            if (isMarked(root)) {
+                setMarked(root, false);
+                numMarked--;
+            }
+            if (first == NONE) {
+                first = root;
+            } else {
+                setLink(last, NEXT, root);
+                setLink(root, PREV, last);
+            }
+            last = root;
+            if (minNode == NONE || key(root) < key(minNode)) {
+                minNode = root;
+            }
+            trees++;
+        }
+        setLink(last, NEXT, first);
+        setLink(first, PREV, last);
+        numOfTrees = trees;
+        return trees;
+    }
+
+    /**
+     * Removes a root from the root list and puts its children in its place.
+     */
+    private void removeRoot(long root) {
+        long c = child(root);
+        long rootNext = next(root);
+        long rootPrev = prev(root);
+        if (c == NONE) {
+            setLink(rootPrev, NEXT, rootNext);
+            setLink(rootNext, PREV, rootPrev);
+            if (root == first) first = rootNext;
+            if (root == last) last = rootPrev;
+        } else {
+            long cur = c;
+            do {
+                setLink(cur, PARENT, NONE);
+                cur = next(cur);
+            } while (cur != c);
+            long rightMostChild = prev(c);
+            if (rootNext == root) {
+                first = c;
+                last = rightMostChild;
+            } else {
+                setLink(rootPrev, NEXT, c);
+                setLink(c, PREV, rootPrev);
+                setLink(rootNext, PREV, rightMostChild);
+                setLink(rightMostChild, NEXT, rootNext);
+                if (root == first) first = c;
+                if (root == last) last = rightMostChild;
+            }
+        }
+        numOfTrees += rank(root) - 1;
+        setLink(root, CHILD, NONE);
+    }
+
+    private void clear() {
+        first = NONE;
+        last = NONE;
+        minNode = NONE;
+        numOfTrees = 0;
+        numMarked = 0;
+        size = 0;
+    }
+
+    /**
+     * public void deleteMin()
+     * <p>
+     * Delete the node containing the minimum key.
+     * precondition: the heap is not empty
+     */
+    public void deleteMin() {
+        ensureOpen();
+        long min = minNode;
+        if (size == 1) {
+            clear();
+        } else {
+            removeRoot(min);
+            size--;
+            consolidate();
+        }
+        release(min);
+    }
+
+    /**
+     * public void decreaseKey(long node, int delta)
+     * <p>
+     * Decreases the key of the node by delta, applying cascading cuts if the heap order is violated.
+     */
+    public void decreaseKey(long node, int delta) {
+        ensureOpen();
+        setKey(node, key(node) - delta);
+        long p = parent(node);
+        if (p != NONE && key(p) > key(node)) {
+            cascadingCut(node, p);
+        }
+        if (key(node) < key(minNode)) {
+            minNode = node;
+        }
+    }
+
+    /**
+     * public void delete(long node)
+     * <p>
+     * Deletes the node from the heap by cutting it to the root list and removing it as the minimum.
+     */
+    public void delete(long node) {
+        ensureOpen();
+        long p = parent(node);
+        if (p != NONE) {
+            cascadingCut(node, p);
+        }
+        minNode = node;
+        deleteMin();
+    }
+
+    private void cascadingCut(long node, long p) {
+        while (true) {
+            cut(node, p);
+            addRoot(node);
+            long grandParent = parent(p);
+            if (grandParent == NONE) return;
+            if (!isMarked(p)) {
+                setMarked(p, true);
+                numMarked++;
+                return;
+            }
+            node = p;
+            p = grandParent;
+        }
+    }
+
+    private void cut(long node, long p) {
+        setLink(node, PARENT, NONE);
+        if (isMarked(node)) {
+            setMarked(node, false);
+            numMarked--;
+        }
+        setRank(p, rank(p) - 1);
+        long nodeNext = next(node);
+        if (nodeNext == node) {
+            setLink(p, CHILD, NONE);
+        } else {
+            long nodePrev = prev(node);
+            if (child(p) == node) setLink(p, CHILD, nodeNext);
+            setLink(nodeNext, PREV, nodePrev);
+            setLink(nodePrev, NEXT, nodeNext);
+        }
+    }
+
+    /**
+     * public long meld(OffHeapFibonacciHeap heap2)
+     * <p>
+     * Meld the heap with heap2, which is left empty and open. A handle h of heap2 becomes handle h + offset
+     * in this heap, where offset is the returned value. When both heaps use the same chunk size the chunks
+     * of heap2 are moved rather than copied, either way the links of every record of heap2 are rewritten,
+     * so this costs O(number of records of heap2).
+     */
+    public long meld(OffHeapFibonacciHeap heap2) {
+        ensureOpen();
+        heap2.ensureOpen();
+        if (heap2 == this) {
+            throw new IllegalArgumentException("cannot meld a heap with itself");
+        }
+        long base;
+        long count = heap2.nodeCount;
+        if (heap2.chunkRecords == chunkRecords) {
+            // heap2's chunks start at the next chunk boundary, the unused tail of our last chunk becomes free
+            base = (long) chunkCount << chunkShift;
+            for (long node = nodeCount; node < base; node++) {
+                setLink(node, NEXT, freeHead);
+                freeHead = node;
+            }
+            for (int i = 0; i < heap2.chunkCount; i++) {
+                if (chunkCount == chunks.length) {
+                    chunks = Arrays.copyOf(chunks, chunks.length << 1);
+                }
+                chunks[chunkCount++] = heap2.chunks[i];
+                heap2.chunks[i] = null;
+            }
+            nodeCount = base + count;
+            for (long node = base; node < nodeCount; node++) {
+                shiftLinks(node, base);
+            }
+        } else {
+            base = nodeCount;
+            for (long i = 0; i < count; i++) {
+                if ((nodeCount >>> chunkShift) == chunkCount) {
+                    addChunk();
+                }
+                long node = nodeCount++;
+                ByteBuffer from = heap2.chunk(i);
+                int fromPos = heap2.offset(i);
+                ByteBuffer to = chunk(node);
+                int toPos = offset(node);
+                to.putInt(toPos + KEY, from.getInt(fromPos + KEY));
+                to.putInt(toPos + RANK, from.getInt(fromPos + RANK));
+                for (int field = PARENT; field <= PREV; field += 8) {
+                    to.putLong(toPos + field, from.getLong(fromPos + field));
+                }
+                shiftLinks(node, base);
+            }
+            DirectMemory.free(heap2.chunks, heap2.chunkCount);
+        }
+        // chain heap2's free records in front of ours
+        if (heap2.freeHead != NONE) {
+            long tail = heap2.freeHead + base;
+            while (next(tail) != NONE) {
+                tail = next(tail);
+            }
+            setLink(tail, NEXT, freeHead);
+            freeHead = heap2.freeHead + base;
+        }
+        if (!heap2.isEmpty()) {
+            long otherFirst = heap2.first + base;
+            long otherLast = heap2.last + base;
+            if (isEmpty()) {
+                first = otherFirst;
+                last = otherLast;
+                minNode = heap2.minNode + base;
+            } else {
+                setLink(last, NEXT, otherFirst);
+                setLink(otherFirst, PREV, last);
+                setLink(otherLast, NEXT, first);
+                setLink(first, PREV, otherLast);
+                last = otherLast;
+                if (key(heap2.minNode + base) < key(minNode)) {
+                    minNode = heap2.minNode + base;
+                }
+            }
+            size += heap2.size;
+            numOfTrees += heap2.numOfTrees;
+            numMarked += heap2.numMarked;
+        }
+        heap2.chunks = new ByteBuffer[4];
+        heap2.chunkCount = 0;
+        heap2.clear();
+        heap2.nodeCount = 0;
+        heap2.freeHead = NONE;
+        return base;
+    }
+
+    /*adds base to every link of the record that points to a node*/
+    private void shiftLinks(long node, long base) {
+        for (int field = PARENT; field <= PREV; field += 8) {
+            long target = link(node, field);
+            if (target != NONE) {
+                setLink(node, field, target + base);
+            }
+        }
+    }
+
+    /**
+     * public static int[] kMin(OffHeapFibonacciHeap H, int k)
+     * <p>
+     * Returns the k minimal keys of H in ascending order (all of them if k > H.size()) without changing H.
+     * The handles to visit next are kept in a binary heap that is built from the roots in O(#trees) and
+     * receives the children of every node taken from it, so with F = #trees + k deg(H) entries at most this
+     * runs in O(#trees + k deg(H) log F).
+     * Throws IllegalArgumentException if the keys asked for do not fit in an array, and IllegalStateException
+     * if the roots do not (consolidate() first then).
+     */
+    public static int[] kMin(OffHeapFibonacciHeap H, int k) {
+        H.ensureOpen();
+        long amount = Math.max(0, Math.min(k, H.size));
+        if (amount > MAX_ARRAY_LENGTH) {
+            throw new IllegalArgumentException(amount + " minimal keys do not fit in an array");
+        }
+        if (H.numOfTrees > MAX_ARRAY_LENGTH) {
+            throw new IllegalStateException(H.numOfTrees + " roots do not fit in an array, consolidate first");
+        }
+        int[] arr = new int[(int) amount];
+        if (amount == 0) return arr;
+        int frontierSize = (int) H.numOfTrees;
+        long[] frontier = new long[Math.max(frontierSize, 16)];
+        long cur = H.first;
+        for (int i = 0; i < frontierSize; i++) {
+            frontier[i] = cur;
+            cur = H.next(cur);
+        }
+        for (int i = (frontierSize >>> 1) - 1; i >= 0; i--) {
+            H.siftDown(frontier, i, frontierSize);
+        }
+        for (int i = 0; i < arr.length; i++) {
+            long min = frontier[0];
+            arr[i] = H.key(min);
+            frontier[0] = frontier[--frontierSize];
+            H.siftDown(frontier, 0, frontierSize);
+            long child = H.child(min);
+            for (int j = H.rank(min); j > 0; j--) {
+                if (frontierSize == frontier.length) {
+                    if (frontierSize == MAX_ARRAY_LENGTH) {
+                        throw new IllegalStateException("kMin needs more than " + MAX_ARRAY_LENGTH + " entries");
+                    }
+                    frontier = Arrays.copyOf(frontier, (int) Math.min(2L * frontierSize, MAX_ARRAY_LENGTH));
+                }
+                frontier[frontierSize] = child;
+                H.siftUp(frontier, frontierSize++);
+                child = H.next(child);
+            }
+        }
+        return arr;
+    }
+
+    private void siftUp(long[] nodes, int i) {
+        long node = nodes[i];
+        int k = key(node);
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (key(nodes[parent]) <= k) break;
+            nodes[i] = nodes[parent];
+            i = parent;
+        }
+        nodes[i] = node;
+    }
+
+    private void siftDown(long[] nodes, int i, int size) {
+        if (size == 0) return;
+        long node = nodes[i];
+        int k = key(node);
+        int half = size >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            if (child + 1 < size && key(nodes[child + 1]) < key(nodes[child])) child++;
+            if (k <= key(nodes[child])) break;
+            nodes[i] = nodes[child];
+            i = child;
+        }
+        nodes[i] = node;
+    }
+
+    /**
+     * public long size()
+     * <p>
+     * Return the number of elements in the heap
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * public int[] countersRep()
+     * <p>
+     * Return a counters array, where the value of the i-th entry is the number of trees of order i in the heap.
+     */
+    public int[] countersRep() {
+        ensureOpen();
+        int maxRank = 0;
+        int[] counters = new int[MAX_RANK + 1];
+        long cur = first;
+        for (long i = 0; i < numOfTrees; i++) {
+            int r = rank(cur);
+            counters[r]++;
+            maxRank = Math.max(maxRank, r);
+            cur = next(cur);
+        }
+        return Arrays.copyOf(counters, maxRank + 1);
+    }
+
+    /**
+     * public long potential()
+     * <p>
+     * Potential = #trees + 2*#marked
+     */
+    public long potential() {
+        return numOfTrees + 2 * numMarked;
+    }
+
+    public long getNumberOfTrees() {
+        return numOfTrees;
+    }
+
+    /**
+     * Frees direct buffers through the JDK's internal cleaner hook when it is reachable, otherwise the
+     * buffers are left to the garbage collector (see releasesMemoryOnClose). A hook that is reachable but
+     * fails is reported with an IllegalStateException once every buffer has been tried.
+     */
+    private static final class DirectMemory {
+        private static final Object UNSAFE;
+        private static final Method INVOKE_CLEANER;
+
+        static {
+            Object unsafe = null;
+            Method invokeCleaner = null;
+            try {
+                Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+                Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+                theUnsafe.setAccessible(true);
+                unsafe = theUnsafe.get(null);
+                invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+            } catch (ReflectiveOperationException | RuntimeException ex) {
+                unsafe = null;
+                invokeCleaner = null;
+            }
+            UNSAFE = unsafe;
+            INVOKE_CLEANER = invokeCleaner;
+        }
+
+        static void free(ByteBuffer[] buffers, int count) {
+            if (INVOKE_CLEANER == null) return;
+            IllegalStateException failure = null;
+            for (int i = 0; i < count; i++) {
+                try {
+                    INVOKE_CLEANER.invoke(UNSAFE, buffers[i]);
+                } catch (ReflectiveOperationException ex) {
+                    Throwable cause = ex instanceof InvocationTargetException ? ex.getCause() : ex;
+                    if (failure == null) {
+                        failure = new IllegalStateException("failed to free direct memory", cause);
+                    } else {
+                        failure.addSuppressed(cause);
+                    }
+                }
+                buffers[i] = null;
+            }
+            if (failure != null) throw failure;
+        }
+    }
+}
@@ -0,0 +1,150 @@
+import java.util.Arrays;
+import java.util.Random;
+import java.util.TreeMap;
+
+class OffHeapFibonacciHeapTest {
+
+    void testInsertDeleteMin() {
+        try (OffHeapFibonacciHeap heap = new OffHeapFibonacciHeap(4)) {
+            assert (heap.isEmpty()) : "heap isn't empty";
+            for (int i = 0; i < 16; i++) {
+                heap.insert(i);
+            }
+            assert (heap.getNumberOfTrees() == 16) : "number of internal trees isn't as expected";
+            assert (heap.memoryUsed() == 16L * OffHeapFibonacciHeap.RECORD_BYTES) : "unexpected number of chunks";
+
+            heap.deleteMin();
+            assert (heap.getKey(heap.findMin()) == 1) : "minimal key isn't as expected after deleteMin";
+            assert (heap.getNumberOfTrees() == 4) : "number of internal trees isn't as expected after deleteMin";
+            assert (heap.countersRep()[2] == 1) : "incorrect number of trees";
+        }
+        System.out.println("testInsertDeleteMin Passed!");
+    }
+
+    void testClose() {
+        OffHeapFibonacciHeap heap = new OffHeapFibonacciHeap();
+        heap.insert(1);
+        heap.close();
+        assert (OffHeapFibonacciHeap.releasesMemoryOnClose()) : "close() cannot free direct memory in this JVM";
+        assert (heap.memoryUsed() == 0) : "memory was not released";
+        boolean thrown = false;
+        try {
+            heap.insert(2);
+        } catch (IllegalStateException ex) {
+            thrown = true;
+        }
+        assert (thrown) : "closed heap accepted an insert";
+        heap.close();
+        System.out.println("testClose Passed!");
+    }
+
+    void testRandomOperations() {
+        Random random = new Random(0L);
+        TreeMap<Integer, Integer> expected = new TreeMap<>();
+        long[] live = new long[200000];
+        int liveCount = 0;
+        try (OffHeapFibonacciHeap heap = new OffHeapFibonacciHeap(64)) {
+            for (int op = 0; op < 100000; op++) {
+                int choice = random.nextInt(10);
+                if (liveCount == 0 || choice < 4) {
+                    int key = random.nextInt(100000);
+                    live[liveCount++] = heap.insert(key);
+                    expected.merge(key, 1, Integer::sum);
+                } else if (choice < 6) {
+                    long node = live[random.nextInt(liveCount)];
+                    expected.merge(heap.getKey(node), -1, Integer::sum);
+                    heap.decreaseKey(node, random.nextInt(1000));
+                    expected.merge(heap.getKey(node), 1, Integer::sum);
+                } else if (choice < 7) {
+                    int index = random.nextInt(liveCount);
+                    expected.merge(heap.getKey(live[index]), -1, Integer::sum);
+                    heap.delete(live[index]);
+                    live[index] = live[--liveCount];
+                } else {
+                    long min = heap.findMin();
+                    expected.values().removeIf(count -> count == 0);
+                    assert (heap.getKey(min) == expected.firstKey()) : "minimum is not updated correctly";
+                    expected.merge(heap.getKey(min), -1, Integer::sum);
+                    heap.deleteMin();
+                    for (int i = 0; i < liveCount; i++) {
+                        if (live[i] == min) {
+                            live[i] = live[--liveCount];
+                            break;
+                        }
+                    }
+                }
+                assert (heap.size() == liveCount) : "size is incorrect";
+            }
+        }
+        System.out.println("testRandomOperations Passed!");
+    }
+
+    void testMeld() {
+        // same chunk size moves the chunks, a different one copies the records
+        for (int otherChunk : new int[]{8, 16}) {
+            try (OffHeapFibonacciHeap heap = new OffHeapFibonacciHeap(8);
+                 OffHeapFibonacciHeap other = new OffHeapFibonacciHeap(otherChunk)) {
+                for (int i = 0; i < 20; i += 2) {
+                    heap.insert(i);
+                }
+                long[] handles = new long[20];
+                for (int i = 1; i < 20; i += 2) {
+                    handles[i] = other.insert(i);
+                }
+                other.deleteMin();
+                other.delete(handles[19]);
+                long offset = heap.meld(other);
+                assert (other.isEmpty() && other.memoryUsed() == 0) : "melded heap wasn't emptied";
+                assert (heap.size() == 18) : "size is incorrect after meld";
+                heap.decreaseKey(handles[9] + offset, 10);
+                assert (heap.getKey(heap.findMin()) == -1) : "handle wasn't moved by the returned offset";
+                heap.insert(100);
+                heap.insert(101);
+                assert (heap.size() == 20) : "size is incorrect after inserting into free records";
+                int[] expected = {-1, 0, 2, 3, 4, 5, 6, 7, 8, 10, 11, 12, 13, 14, 15, 16, 17, 18, 100, 101};
+                assert (Arrays.equals(OffHeapFibonacciHeap.kMin(heap, 30), expected)) : "kMin is incorrect after meld";
+                for (int key : expected) {
+                    assert (heap.getKey(heap.findMin()) == key) : "minimum is incorrect after meld";
+                    heap.deleteMin();
+                }
+                other.insert(7);
+                assert (other.getKey(other.findMin()) == 7) : "melded heap isn't usable";
+            }
+        }
+        System.out.println("testMeld Passed!");
+    }
+
+    void testKMin() {
+        Random random = new Random(1L);
+        try (OffHeapFibonacciHeap heap = new OffHeapFibonacciHeap(64)) {
+            assert (OffHeapFibonacciHeap.kMin(heap, 5).length == 0) : "kMin of an empty heap isn't empty";
+            int[] keys = new int[1000];
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = random.nextInt(5000);
+                heap.insert(keys[i]);
+            }
+            int[] sorted = keys.clone();
+            Arrays.sort(sorted);
+            // 1000 single node roots, all of them seed the frontier
+            assert (Arrays.equals(OffHeapFibonacciHeap.kMin(heap, 1000), sorted)) : "kMin over the roots is incorrect";
+            heap.deleteMin();
+            Arrays.sort(keys);
+            long trees = heap.getNumberOfTrees();
+            int[] min = OffHeapFibonacciHeap.kMin(heap, 100);
+            assert (Arrays.equals(min, Arrays.copyOfRange(keys, 1, 101))) : "kMin is incorrect";
+            assert (heap.size() == 999 && heap.getNumberOfTrees() == trees) : "kMin changed the heap";
+            assert (OffHeapFibonacciHeap.kMin(heap, 5000).length == 999) : "kMin returned more keys than the heap holds";
+        }
+        System.out.println("testKMin Passed!");
+    }
+
+    public static void main(String[] args) {
+        OffHeapFibonacciHeapTest test = new OffHeapFibonacciHeapTest();
+
+        test.testInsertDeleteMin();
+        test.testClose();
+        test.testRandomOperations();
+        test.testMeld();
+        test.testKMin();
+    }
+}
@@ -0,0 +1,183 @@
+import java.util.Arrays;
+
+/**
+ * PairingHeap
+ * <p>
+ * A pairing heap over integers: one heap-ordered tree whose nodes keep their children in a list. insert,
+ * meld and decreaseKey link in O(1); deleteMin combines the children of the root in two passes (pairs from
+ * the left, then the pairs from the right), O(log n) amortized. It links far less than a FibonacciHeap and
+ * usually beats it in practice.
+ * <p>
+ * A node points to its first child and its next sibling; prev is the previous sibling, or the parent for a
+ * first child.
+ */
+public class PairingHeap implements IntPriorityQueue<PairingHeap.Node> {
+
+    private Node root;
+    private int size;
+    private Node[] pairs = new Node[16]; // reused by deleteMin
+
+    /**
+     * public Node insert(int key)
+     * <p>
+     * Inserts key as a one-node tree linked with the root.
+     */
+    public Node insert(int key) {
+        Node node = new Node(key);
+        root = root == null ? node : link(root, node);
+        size++;
+        return node;
+    }
+
+    public Node findMin() {
+        return root;
+    }
+
+    /**
+     * public void deleteMin()
+     * <p>
+     * Deletes the root and combines its children into the new root.
+     */
+    public void deleteMin() {
+        if (root == null) {
+            return;
+        }
+        Node old = root;
+        root = combine(old.child);
+        old.child = null;
+        size--;
+    }
+
+    /**
+     * public void decreaseKey(Node x, int delta)
+     * <p>
+     * Decreases the key of x by delta, cutting the subtree of x and linking it with the root.
+     */
+    public void decreaseKey(Node x, int delta) {
+        x.key -= delta;
+        if (x != root) {
+            cut(x);
+            root = link(root, x);
+        }
+    }
+
+    /**
+     * public void delete(Node x)
+     * <p>
+     * Deletes x: its children are combined into one tree, which takes the place of x.
+     */
+    public void delete(Node x) {
+        if (x == root) {
+            deleteMin();
+            return;
+        }
+        cut(x);
+        Node children = combine(x.child);
+        x.child = null;
+        if (children != null) {
+            root = link(root, children);
+        }
+        size--;
+    }
+
+    /**
+     * public void meld(IntPriorityQueue&lt;Node&gt; other)
+     * <p>
+     * Links the root of other, which must be a PairingHeap, with the root of this heap; other is left empty.
+     */
+    public void meld(IntPriorityQueue<Node> other) {
+        if (!(other instanceof PairingHeap)) {
+            throw new IllegalArgumentException("cannot meld a " + other.getClass().getSimpleName() + " into a PairingHeap");
+        }
+        PairingHeap heap2 = (PairingHeap) other;
+        if (heap2 == this || heap2.root == null) {
+            return;
+        }
+        root = root == null ? heap2.root : link(root, heap2.root);
+        size += heap2.size;
+        heap2.root = null;
+        heap2.size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /*links two roots, the one with the larger key becomes the first child of the other*/
+    private static Node link(Node a, Node b) {
+        if (b.key < a.key) {
+            Node temp = a;
+            a = b;
+            b = temp;
+        }
+        b.next = a.child;
+        if (a.child != null) {
+            a.child.prev = b;
+        }
+        b.prev = a;
+        a.child = b;
+        a.next = null;
+        a.prev = null;
+        return a;
+    }
+
+    /*detaches the subtree of x, which is not the root, from its parent or siblings*/
+    private static void cut(Node x) {
+        if (x.prev.child == x) {
+            x.prev.child = x.next;
+        } else {
+            x.prev.next = x.next;
+        }
+        if (x.next != null) {
+            x.next.prev = x.prev;
+        }
+        x.next = null;
+        x.prev = null;
+    }
+
+    /*two-pass pairing of the sibling list starting at first, returns the combined tree*/
+    private Node combine(Node first) {
+        if (first == null) {
+            return null;
+        }
+        int count = 0;
+        while (first != null) {
+            Node a = first;
+            Node b = a.next;
+            first = b == null ? null : b.next;
+            a.next = null;
+            a.prev = null;
+            if (b != null) {
+                b.next = null;
+                b.prev = null;
+                a = link(a, b);
+            }
+            if (count == pairs.length) {
+                pairs = Arrays.copyOf(pairs, 2 * count);
+            }
+            pairs[count++] = a;
+        }
+        Node result = pairs[--count];
+        pairs[count] = null;
+        while (count > 0) {
+            result = link(pairs[--count], result);
+            pairs[count] = null;
+        }
+        return result;
+    }
+
+    public static final class Node implements IntPriorityQueue.Handle {
+        private int key;
+        private Node child;
+        private Node next;
+        private Node prev;
+
+        Node(int key) {
+            this.key = key;
+        }
+
+        public int getKey() {
+            return key;
+        }
+    }
+}
@@ -0,0 +1,178 @@
+/**
+ * RadixHeap
+ * <p>
+ * A monotone priority queue over integers: no key may be inserted or decreased below the last minimum
+ * returned by findMin, as is the case in Dijkstra and in event simulations. Nodes sit in 33 buckets by the
+ * highest bit in which their key differs from that minimum (bucket 0: equal to it). findMin empties the
+ * lowest non-empty bucket into lower ones once its minimum becomes the new last minimum; every node only
+ * ever moves to lower buckets, so a node costs O(32) moves over its lifetime and no comparisons between keys.
+ * <p>
+ * Buckets are doubly linked lists, so decreaseKey and delete are O(1).
+ */
+public class RadixHeap implements IntPriorityQueue<RadixHeap.Node> {
+
+    private static final int BUCKETS = 33;
+
+    private final Node[] buckets = new Node[BUCKETS];
+    private int last = Integer.MIN_VALUE;
+    private int size;
+
+    /**
+     * public int lastMin()
+     * <p>
+     * Return the lower bound of every key that may still be inserted, the last minimum found.
+     */
+    public int lastMin() {
+        return last;
+    }
+
+    /**
+     * public Node insert(int key)
+     * <p>
+     * Inserts key. Throws IllegalArgumentException if key is smaller than lastMin().
+     */
+    public Node insert(int key) {
+        checkMonotone(key);
+        Node node = new Node(key);
+        add(node);
+        size++;
+        return node;
+    }
+
+    /**
+     * public Node findMin()
+     * <p>
+     * Return a node with the minimal key, or null if the heap is empty. Its key becomes lastMin().
+     */
+    public Node findMin() {
+        if (size == 0) {
+            return null;
+        }
+        if (buckets[0] == null) {
+            int b = 1;
+            while (buckets[b] == null) {
+                b++;
+            }
+            Node min = buckets[b];
+            for (Node node = min.next; node != null; node = node.next) {
+                if (node.key < min.key) {
+                    min = node;
+                }
+            }
+            last = min.key;
+            Node node = buckets[b];
+            buckets[b] = null;
+            while (node != null) {
+                Node next = node.next;
+                add(node);
+                node = next;
+            }
+        }
+        return buckets[0];
+    }
+
+    public void deleteMin() {
+        Node min = findMin();
+        if (min != null) {
+            delete(min);
+        }
+    }
+
+    /**
+     * public void decreaseKey(Node x, int delta)
+     * <p>
+     * Decreases the key of x by delta. Throws IllegalArgumentException if the key would drop below lastMin().
+     */
+    public void decreaseKey(Node x, int delta) {
+        int key = x.key - delta;
+        checkMonotone(key);
+        unlink(x);
+        x.key = key;
+        add(x);
+    }
+
+    public void delete(Node x) {
+        unlink(x);
+        x.bucket = -1;
+        size--;
+    }
+
+    /**
+     * public void meld(IntPriorityQueue&lt;Node&gt; other)
+     * <p>
+     * Moves the nodes of other, which must be a RadixHeap, into this heap; other is left empty. Throws
+     * IllegalArgumentException if a key of other is below lastMin(), both heaps are then unchanged.
+     */
+    public void meld(IntPriorityQueue<Node> other) {
+        if (!(other instanceof RadixHeap)) {
+            throw new IllegalArgumentException("cannot meld a " + other.getClass().getSimpleName() + " into a RadixHeap");
+        }
+        RadixHeap heap2 = (RadixHeap) other;
+        if (heap2 == this || heap2.size == 0) {
+            return;
+        }
+        Node min2 = heap2.findMin();
+        checkMonotone(min2.key);
+        for (int b = 0; b < BUCKETS; b++) {
+            Node node = heap2.buckets[b];
+            heap2.buckets[b] = null;
+            while (node != null) {
+                Node next = node.next;
+                add(node);
+                node = next;
+            }
+        }
+        size += heap2.size;
+        heap2.size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void checkMonotone(int key) {
+        if (key < last) {
+            throw new IllegalArgumentException("key " + key + " is below the last minimum " + last);
+        }
+    }
+
+    /*puts node at the front of the bucket of its key*/
+    private void add(Node node) {
+        int b = 32 - Integer.numberOfLeadingZeros(node.key ^ last);
+        node.bucket = b;
+        node.prev = null;
+        node.next = buckets[b];
+        if (node.next != null) {
+            node.next.prev = node;
+        }
+        buckets[b] = node;
+    }
+
+    private void unlink(Node node) {
+        if (node.prev == null) {
+            buckets[node.bucket] = node.next;
+        } else {
+            node.prev.next = node.next;
+        }
+        if (node.next != null) {
+            node.next.prev = node.prev;
+        }
+        node.next = null;
+        node.prev = null;
+    }
+
+    public static final class Node implements IntPriorityQueue.Handle {
+        private int key;
+        private int bucket;
+        private Node next;
+        private Node prev;
+
+        Node(int key) {
+            this.key = key;
+        }
+
+        public int getKey() {
+            return key;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * GenerateKeyHeaps
+ * <p>
+ * Generates the primitive key specializations of the fibonacci heap from templates/PrimitiveFibonacciHeap.java.template.
+ * Run from the repository root: java tools/GenerateKeyHeaps.java
+ */
+public class GenerateKeyHeaps {
+
+    private static final String TEMPLATE = "templates/PrimitiveFibonacciHeap.java.template";
+
+    public static void main(String[] args) throws IOException {
+        String template = new String(Files.readAllBytes(Paths.get(TEMPLATE)), StandardCharsets.UTF_8);
+        generate(template, "LongFibonacciHeap", "long", "");
+        generate(template, "DoubleFibonacciHeap", "double", " Keys must not be NaN.");
+    }
+
+    private static void generate(String template, String heap, String key, String keyNote) throws IOException {
+        String source = template
+                .replace("${Heap}", heap)
+                .replace("${key}", key)
+                .replace("${keyNote}", keyNote);
+        Path target = Paths.get("src", heap + ".java");
+        Files.write(target, source.getBytes(StandardCharsets.UTF_8));
+        System.out.println("generated " + target);
+    }
+}